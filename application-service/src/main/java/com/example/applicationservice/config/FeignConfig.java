@@ -3,7 +3,6 @@ package com.example.applicationservice.config;
 import org.springframework.cloud.openfeign.support.SpringMvcContract;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import feign.Feign;
 import feign.jackson.JacksonDecoder;
 import feign.jackson.JacksonEncoder;
 
@@ -24,12 +23,4 @@ public class FeignConfig {
     public feign.Contract feignContract() {
         return new SpringMvcContract();
     }
-
-    @Bean
-    public Feign.Builder feignBuilder() {
-        return Feign.builder()
-                .encoder(feignEncoder())
-                .decoder(feignDecoder())
-                .contract(feignContract());
-    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.applicationservice.config;
+
+import com.example.applicationservice.hedging.HedgingCapability;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+// Hedging GET-запросов Feign-клиентов; включается явно через feign.hedging.enabled=true
+@Configuration
+@ConditionalOnProperty(name = "feign.hedging.enabled", havingValue = "true")
+public class HedgingConfig {
+
+    @Bean
+    public HedgingCapability hedgingCapability(MeterRegistry meterRegistry,
+                                               @Value("${feign.hedging.clients:user-service,product-service}") List<String> clients,
+                                               @Value("${feign.hedging.percentile:0.95}") double percentile,
+                                               @Value("${feign.hedging.min-delay:10ms}") Duration minDelay,
+                                               @Value("${feign.hedging.budget:0.05}") double budget,
+                                               @Value("${feign.hedging.max-threads:64}") int maxThreads) {
+        return new HedgingCapability(clients, percentile, minDelay.toNanos(), budget, maxThreads, meterRegistry);
+    }
+}
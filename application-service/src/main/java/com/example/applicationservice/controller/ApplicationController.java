@@ -4,6 +4,7 @@ import com.example.applicationservice.dto.*;
 import com.example.applicationservice.exception.*;
 import com.example.applicationservice.service.ApplicationService;
 import com.example.applicationservice.util.ApplicationPage;
+import com.example.common.web.ETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -11,6 +12,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,6 +31,10 @@ public class ApplicationController {
 
     private static final Logger log = LoggerFactory.getLogger(ApplicationController.class);
     private static final int MAX_PAGE_SIZE = 50;
+    // статус заявки меняется в любой момент: клиент перепроверяет её по ETag,
+    // а общий кэш gateway может отдавать копию не дольше нескольких секунд
+    private static final CacheControl APPLICATION_CACHE = CacheControl.maxAge(Duration.ZERO)
+            .sMaxAge(Duration.ofSeconds(5));
     private final ApplicationService applicationService;
 
     public ApplicationController(ApplicationService applicationService) {
@@ -77,9 +84,19 @@ public class ApplicationController {
             @ApiResponse(responseCode = "404", description = "Application not found")
     })
     @GetMapping("/{id}")
-    public Mono<ApplicationDto> getApplication(@PathVariable UUID id) {
+    public Mono<ResponseEntity<ApplicationDto>> getApplication(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("Getting application: {}", id);
-        return applicationService.findById(id);
+        return applicationService.findById(id).map(app -> {
+            String etag = ETags.fromVersion(app.getVersion());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                log.debug("Application {} is not modified", id);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(APPLICATION_CACHE).<ApplicationDto>build();
+            }
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(APPLICATION_CACHE);
+            return etag != null ? ok.eTag(etag).body(app) : ok.body(app);
+        });
     }
 
     // ReadAllByStream: GET "/api/v1/applications/stream?cursor=<base64>&limit=20"
@@ -1,6 +1,7 @@
 package com.example.applicationservice.dto;
 
 import com.example.applicationservice.model.enums.ApplicationStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.Instant;
 import java.util.List;
@@ -14,6 +15,9 @@ public class ApplicationDto {
     private Instant createdAt;
     private List<DocumentDto> documents;
     private List<String> tags;
+    // версия сущности для ETag, в тело ответа не попадает
+    @JsonIgnore
+    private Long version;
 
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -35,4 +39,7 @@ public class ApplicationDto {
 
     public List<String> getTags() { return tags; }
     public void setTags(List<String> tags) { this.tags = tags; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,41 @@
+package com.example.applicationservice.feign;
+
+import com.example.applicationservice.model.enums.UserRole;
+import com.example.common.feign.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Частые проверки пользователей и продуктов: одинаковые одновременные запросы выполняются одним вызовом
+@Component
+public class PeerLookupCoalescer {
+
+    private final UserServiceClient userServiceClient;
+    private final ProductServiceClient productServiceClient;
+    private final SingleFlight<UUID, Boolean> userExists;
+    private final SingleFlight<UUID, UserRole> userRole;
+    private final SingleFlight<UUID, Boolean> productExists;
+
+    public PeerLookupCoalescer(UserServiceClient userServiceClient,
+                               ProductServiceClient productServiceClient,
+                               MeterRegistry meterRegistry) {
+        this.userServiceClient = userServiceClient;
+        this.productServiceClient = productServiceClient;
+        this.userExists = new SingleFlight<>("user.exists", meterRegistry);
+        this.userRole = new SingleFlight<>("user.role", meterRegistry);
+        this.productExists = new SingleFlight<>("product.exists", meterRegistry);
+    }
+
+    public Boolean userExists(UUID userId) {
+        return userExists.execute(userId, () -> userServiceClient.userExists(userId));
+    }
+
+    public UserRole getUserRole(UUID userId) {
+        return userRole.execute(userId, () -> userServiceClient.getUserRole(userId));
+    }
+
+    public Boolean productExists(UUID productId) {
+        return productExists.execute(productId, () -> productServiceClient.productExists(productId));
+    }
+}
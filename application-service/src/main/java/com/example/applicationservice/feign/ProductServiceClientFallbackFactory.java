@@ -1,6 +1,7 @@
 package com.example.applicationservice.feign;
 
 import com.example.applicationservice.exception.ServiceUnavailableException;
+import com.example.common.feign.FeignFallbacks;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 import java.util.UUID;
@@ -9,6 +10,7 @@ import java.util.UUID;
 public class ProductServiceClientFallbackFactory implements FallbackFactory<ProductServiceClient> {
     @Override
     public ProductServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new ProductServiceClient() {
             @Override
             public Boolean productExists(UUID id) {
@@ -2,6 +2,7 @@ package com.example.applicationservice.feign;
 
 import com.example.applicationservice.dto.TagDto;
 import com.example.applicationservice.exception.ServiceUnavailableException;
+import com.example.common.feign.FeignFallbacks;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
@@ -12,6 +13,7 @@ import java.util.List;
 public class TagServiceClientFallbackFactory implements FallbackFactory<TagServiceClient> {
     @Override
     public TagServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new TagServiceClient() {
             @Override
             public List<TagDto> createOrGetTagsBatch(List<String> tagNames) {
@@ -2,6 +2,7 @@ package com.example.applicationservice.feign;
 
 import com.example.applicationservice.exception.ServiceUnavailableException;
 import com.example.applicationservice.model.enums.UserRole;
+import com.example.common.feign.FeignFallbacks;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 import java.util.UUID;
@@ -10,6 +11,7 @@ import java.util.UUID;
 public class UserServiceClientFallbackFactory implements FallbackFactory<UserServiceClient> {
     @Override
     public UserServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new UserServiceClient() {
             @Override
             public Boolean userExists(UUID id) {
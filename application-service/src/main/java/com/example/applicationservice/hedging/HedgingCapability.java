@@ -0,0 +1,269 @@
+package com.example.applicationservice.hedging;
+
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextScheduledExecutorService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.Ordered;
+import org.springframework.util.CustomizableThreadCreator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.applicationservice.loadbalancer.HedgedInstanceTracker.HEDGE_AVOID_HEADER;
+import static com.example.applicationservice.loadbalancer.HedgedInstanceTracker.HEDGE_KEY_HEADER;
+
+// Hedging для идемпотентных GET выбранных Feign-клиентов: если ответа нет дольше перцентиля недавних задержек,
+// тот же запрос уходит на другой экземпляр. Обе попытки выполняются в пуле, вызывающий поток ждёт первый
+// успешный ответ; проигравшая попытка прерывается, а её ответ, если он всё же пришёл, закрывается.
+// Число дублей ограничено бюджетом, чтобы при общей деградации hedging не удваивал нагрузку.
+public class HedgingCapability implements Capability, Ordered, DisposableBean {
+
+    private final Set<String> clients;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double budgetRatio;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<String, ClientHedging> hedging = new ConcurrentHashMap<>();
+
+    public HedgingCapability(Collection<String> clients, double percentile, long minDelayNanos, double budgetRatio,
+                             int maxThreads, MeterRegistry meterRegistry) {
+        this.clients = Set.copyOf(clients);
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.budgetRatio = budgetRatio;
+        this.meterRegistry = meterRegistry;
+        CustomizableThreadCreator threads = new CustomizableThreadCreator("feign-hedge-");
+        threads.setDaemon(true);
+        // без очереди: если потоков нет, запрос выполняется как обычно, без hedging.
+        // Попытки видят контекст вызывающего потока: балансировщик, лимитер и метрики остаются в той же трассе
+        this.executor = ContextExecutorService.wrap(new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threads::createThread));
+        CustomizableThreadCreator timer = new CustomizableThreadCreator("feign-hedge-timer-");
+        timer.setDaemon(true);
+        ScheduledThreadPoolExecutor triggers = new ScheduledThreadPoolExecutor(1, timer::createThread);
+        // таймер отменяется почти у каждого запроса: отменённые задачи не должны копиться в очереди
+        triggers.setRemoveOnCancelPolicy(true);
+        // дубль отправляется в пул из потока таймера, поэтому контекст вызывающего передаётся и через него
+        this.scheduler = ContextScheduledExecutorService.wrap(triggers);
+    }
+
+    // снаружи остальных обёрток: каждая попытка отдельно проходит лимитер и балансировщик
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            String name = request.requestTemplate().feignTarget().name();
+            if (request.httpMethod() != Request.HttpMethod.GET || !clients.contains(name)) {
+                return client.execute(request, options);
+            }
+            return execute(client, request, options, hedging.computeIfAbsent(name, this::register));
+        };
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private Response execute(Client client, Request request, Request.Options options, ClientHedging hedging)
+            throws IOException {
+        hedging.requests.increment();
+        hedging.policy.onRequest();
+        long start = System.nanoTime();
+        long delay = hedging.policy.delayNanos();
+        if (delay < 0) {
+            Response response = client.execute(request, options);
+            hedging.policy.record(System.nanoTime() - start);
+            return response;
+        }
+
+        String key = UUID.randomUUID().toString();
+        HedgedRace race = new HedgedRace(client, options, hedging);
+        if (!race.startPrimary(withHeader(request, HEDGE_KEY_HEADER, key))) {
+            // свободных потоков нет: запрос выполняется как обычно, без hedging
+            Response response = client.execute(request, options);
+            hedging.policy.record(System.nanoTime() - start);
+            return response;
+        }
+        Request hedge = withHeader(request, HEDGE_AVOID_HEADER, key);
+        ScheduledFuture<?> trigger = scheduler.schedule(() -> race.startHedge(hedge), delay, TimeUnit.NANOSECONDS);
+        try {
+            Response response = race.await(request);
+            hedging.policy.record(System.nanoTime() - start);
+            return response;
+        } finally {
+            trigger.cancel(false);
+            race.close();
+        }
+    }
+
+    private static Request withHeader(Request request, String name, String value) {
+        Map<String, Collection<String>> headers = new HashMap<>(request.headers());
+        headers.put(name, List.of(value));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    private ClientHedging register(String name) {
+        HedgingPolicy policy = new HedgingPolicy(percentile, minDelayNanos, budgetRatio);
+        Gauge.builder("feign.hedging.delay", policy, HedgingPolicy::delaySeconds)
+                .tag("client", name)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        return new ClientHedging(policy,
+                Counter.builder("feign.hedging.requests").tag("client", name).register(meterRegistry),
+                Counter.builder("feign.hedging.hedges").tag("client", name).register(meterRegistry),
+                Counter.builder("feign.hedging.wins").tag("client", name).register(meterRegistry),
+                Counter.builder("feign.hedging.budget.exhausted").tag("client", name).register(meterRegistry));
+    }
+
+    private record Answer(Response response, boolean hedge) { }
+
+    private record ClientHedging(HedgingPolicy policy, Counter requests, Counter hedges, Counter wins,
+                                 Counter budgetExhausted) { }
+
+    // основная попытка и дубль завершают общий future: побеждает первый успешный ответ,
+    // ошибка возвращается, только если упали все запущенные попытки
+    private final class HedgedRace {
+
+        private final Client client;
+        private final Request.Options options;
+        private final ClientHedging hedging;
+        private final CompletableFuture<Answer> winner = new CompletableFuture<>();
+        private final List<Future<?>> attempts = new ArrayList<>(2);
+        private int running;
+        // основная попытка упала или ответ уже получен: новый дубль не нужен
+        private boolean closed;
+        private Throwable failure;
+
+        HedgedRace(Client client, Request.Options options, ClientHedging hedging) {
+            this.client = client;
+            this.options = options;
+            this.hedging = hedging;
+        }
+
+        synchronized boolean startPrimary(Request request) {
+            return submit(request, false);
+        }
+
+        synchronized void startHedge(Request request) {
+            if (closed) {
+                return;
+            }
+            if (!hedging.policy.tryHedge()) {
+                hedging.budgetExhausted.increment();
+                return;
+            }
+            if (submit(request, true)) {
+                hedging.hedges.increment();
+            }
+        }
+
+        private boolean submit(Request request, boolean hedge) {
+            try {
+                attempts.add(executor.submit(() -> run(request, hedge)));
+                running++;
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+
+        private void run(Request request, boolean hedge) {
+            Response response;
+            try {
+                response = client.execute(request, options);
+            } catch (Throwable e) {
+                failed(e, hedge);
+                return;
+            }
+            if (!winner.complete(new Answer(response, hedge))) {
+                // победитель уже есть: ответ проигравшей попытки никому не нужен
+                response.close();
+            }
+        }
+
+        private synchronized void failed(Throwable e, boolean hedge) {
+            if (failure == null) {
+                failure = e;
+            }
+            if (!hedge) {
+                // как и без hedging, упавшая до срабатывания таймера основная попытка не повторяется
+                closed = true;
+            }
+            if (--running == 0 && closed) {
+                winner.completeExceptionally(failure);
+            }
+        }
+
+        Response await(Request original) throws IOException {
+            try {
+                Answer answer = winner.get();
+                if (answer.hedge()) {
+                    hedging.wins.increment();
+                }
+                return answer.response();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) {
+                    throw io;
+                }
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IOException(cause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + original.url());
+            }
+        }
+
+        // проигравшие попытки прерываются; ответ, пришедший после победителя, закрывает сама попытка
+        void close() {
+            List<Future<?>> started;
+            synchronized (this) {
+                closed = true;
+                started = List.copyOf(attempts);
+            }
+            winner.cancel(false);
+            started.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+}
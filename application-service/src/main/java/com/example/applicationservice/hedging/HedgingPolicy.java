@@ -0,0 +1,73 @@
+package com.example.applicationservice.hedging;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Задержка перед дублирующим запросом и бюджет дублей для одного Feign-клиента.
+// Задержка — перцентиль (по умолчанию p95) последних задержек, бюджет — доля дублей от всех запросов.
+class HedgingPolicy {
+
+    private static final int WINDOW = 256;
+    private static final int MIN_SAMPLES = 32;
+    private static final int RECOMPUTE_EVERY = 16;
+    // бюджет в тысячных долях токена: запрос добавляет долю, дубль стоит один токен
+    private static final long TOKEN = 1000;
+    private static final long MAX_TOKENS = 10 * TOKEN;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long tokensPerRequest;
+    private final AtomicLong budget;
+    private final long[] samples = new long[WINDOW];
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    // -1: замеров пока мало, запросы не дублируются
+    private volatile long delayNanos = -1;
+
+    HedgingPolicy(double percentile, long minDelayNanos, double budgetRatio) {
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.tokensPerRequest = Math.round(budgetRatio * TOKEN);
+        this.budget = new AtomicLong(TOKEN);
+    }
+
+    long delayNanos() {
+        return delayNanos;
+    }
+
+    double delaySeconds() {
+        long delay = delayNanos;
+        return delay < 0 ? 0 : delay / 1e9;
+    }
+
+    void onRequest() {
+        budget.updateAndGet(tokens -> Math.min(MAX_TOKENS, tokens + tokensPerRequest));
+    }
+
+    boolean tryHedge() {
+        while (true) {
+            long tokens = budget.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(tokens, tokens - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    synchronized void record(long latencyNanos) {
+        samples[next] = latencyNanos;
+        next = (next + 1) % WINDOW;
+        count = Math.min(count + 1, WINDOW);
+        if (++sinceRecompute < RECOMPUTE_EVERY || count < MIN_SAMPLES) {
+            return;
+        }
+        sinceRecompute = 0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = Math.min(count - 1, Math.max(0, (int) Math.ceil(percentile * count) - 1));
+        delayNanos = Math.max(minDelayNanos, sorted[index]);
+    }
+}
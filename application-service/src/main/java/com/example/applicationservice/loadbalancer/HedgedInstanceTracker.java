@@ -0,0 +1,81 @@
+package com.example.applicationservice.loadbalancer;
+
+import com.example.common.loadbalancer.InstanceFilter;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Запоминает экземпляр, выбранный для основного запроса, чтобы дублирующий (hedge) ушёл на другой экземпляр.
+// Основной запрос помечается X-Hedge-Key, дублирующий — X-Hedge-Avoid с тем же значением.
+@Component
+public class HedgedInstanceTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance>, InstanceFilter {
+
+    public static final String HEDGE_KEY_HEADER = "X-Hedge-Key";
+    public static final String HEDGE_AVOID_HEADER = "X-Hedge-Avoid";
+
+    private final ConcurrentMap<String, String> chosen = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        String key = header(request, HEDGE_KEY_HEADER);
+        if (key != null && lbResponse != null && lbResponse.hasServer()) {
+            chosen.put(key, instanceKey(lbResponse.getServer()));
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        String key = header(completionContext.getLoadBalancerRequest(), HEDGE_KEY_HEADER);
+        if (key != null) {
+            chosen.remove(key);
+        }
+    }
+
+    // дублирующий запрос не отправляем на экземпляр, который ещё обрабатывает основной
+    @Override
+    public List<ServiceInstance> filter(Request<?> request, List<ServiceInstance> instances) {
+        String avoided = avoided(request);
+        if (avoided == null || instances.size() < 2) {
+            return instances;
+        }
+        List<ServiceInstance> others = instances.stream()
+                .filter(instance -> !avoided.equals(instanceKey(instance)))
+                .toList();
+        return others.isEmpty() ? instances : others;
+    }
+
+    // экземпляр основного запроса, если это дублирующий запрос и основной ещё выполняется
+    private String avoided(Request<?> request) {
+        String key = header(request, HEDGE_AVOID_HEADER);
+        return key != null ? chosen.get(key) : null;
+    }
+
+    private static String instanceKey(ServiceInstance serviceInstance) {
+        return serviceInstance.getHost() + ":" + serviceInstance.getPort();
+    }
+
+    private static String header(Request<?> request, String name) {
+        if (request != null && request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null && context.getClientRequest().getHeaders() != null) {
+            return context.getClientRequest().getHeaders().getFirst(name);
+        }
+        return null;
+    }
+}
@@ -1,12 +1,24 @@
 package com.example.applicationservice.service;
 
-import com.example.applicationservice.dto.*;
-import com.example.applicationservice.exception.*;
-import com.example.applicationservice.feign.*;
-import com.example.applicationservice.model.entity.*;
+import com.example.applicationservice.dto.ApplicationDto;
+import com.example.applicationservice.dto.ApplicationHistoryDto;
+import com.example.applicationservice.dto.ApplicationInfoDto;
+import com.example.applicationservice.dto.ApplicationRequest;
+import com.example.applicationservice.dto.DocumentDto;
+import com.example.applicationservice.exception.BadRequestException;
+import com.example.applicationservice.exception.ConflictException;
+import com.example.applicationservice.exception.ForbiddenException;
+import com.example.applicationservice.exception.NotFoundException;
+import com.example.applicationservice.exception.ServiceUnavailableException;
+import com.example.applicationservice.feign.PeerLookupCoalescer;
+import com.example.applicationservice.model.entity.Application;
+import com.example.applicationservice.model.entity.ApplicationHistory;
+import com.example.applicationservice.model.entity.Document;
 import com.example.applicationservice.model.enums.ApplicationStatus;
 import com.example.applicationservice.model.enums.UserRole;
-import com.example.applicationservice.repository.*;
+import com.example.applicationservice.repository.ApplicationHistoryRepository;
+import com.example.applicationservice.repository.ApplicationRepository;
+import com.example.applicationservice.repository.DocumentRepository;
 import com.example.applicationservice.util.ApplicationPage;
 import com.example.applicationservice.util.CursorUtil;
 import org.slf4j.Logger;
@@ -21,8 +33,15 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Instant;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 public class ApplicationService {
@@ -32,23 +51,20 @@ public class ApplicationService {
     private final ApplicationRepository applicationRepository;
     private final ApplicationHistoryRepository applicationHistoryRepository;
     private final DocumentRepository documentRepository;
-    private final UserServiceClient userServiceClient;
-    private final ProductServiceClient productServiceClient;
-    private final TagServiceClient tagServiceClient;
+    private final PeerLookupCoalescer peerLookups;
+    private final TagNameResolver tagNameResolver;
 
     public ApplicationService(
             ApplicationRepository applicationRepository,
             ApplicationHistoryRepository applicationHistoryRepository,
             DocumentRepository documentRepository,
-            UserServiceClient userServiceClient,
-            ProductServiceClient productServiceClient,
-            TagServiceClient tagServiceClient) {
+            PeerLookupCoalescer peerLookups,
+            TagNameResolver tagNameResolver) {
         this.applicationRepository = applicationRepository;
         this.applicationHistoryRepository = applicationHistoryRepository;
         this.documentRepository = documentRepository;
-        this.userServiceClient = userServiceClient;
-        this.productServiceClient = productServiceClient;
-        this.tagServiceClient = tagServiceClient;
+        this.peerLookups = peerLookups;
+        this.tagNameResolver = tagNameResolver;
     }
 
     @Transactional
@@ -66,7 +82,7 @@ public class ApplicationService {
 
         return Mono.fromCallable(() -> {
                 try {
-                    return userServiceClient.userExists(applicantId);
+                    return peerLookups.userExists(applicantId);
                 } catch (ServiceUnavailableException e) {
                     throw new ServiceUnavailableException("User service is unavailable now");
                 } catch (NotFoundException e){
@@ -78,7 +94,7 @@ public class ApplicationService {
                     }
                     return Mono.fromCallable(() -> {
                         try {
-                            return productServiceClient.productExists(productId);
+                            return peerLookups.productExists(productId);
                         } catch (ServiceUnavailableException e) {
                             throw new ServiceUnavailableException("Product service is unavailable now");
                         } catch (NotFoundException e){
@@ -107,7 +123,7 @@ public class ApplicationService {
                                         d.setApplication(app);
                                         return d;
                                     })
-                                    .collect(Collectors.toList());
+                                    .toList();
                             app.setDocuments(docs);
                         }
 
@@ -131,24 +147,17 @@ public class ApplicationService {
                     if (!tagNames.isEmpty()) {
                         return Mono.fromCallable(() -> {
                             try {
-                                return tagServiceClient.createOrGetTagsBatch(tagNames);
+                                return tagNameResolver.resolve(tagNames);
                             } catch (ServiceUnavailableException e) {
                                 throw new ServiceUnavailableException("Tag service is unavailable now. Application saved without tags");
                             }}).subscribeOn(Schedulers.boundedElastic())
-                                .flatMap(tagDtos -> {
-                                    if (tagDtos == null) {
-                                        return Mono.error(new ServiceUnavailableException("Tag service is unavailable now. Application saved without tags"));
-                                    }
-                                    return Mono.fromCallable(() -> {
-                                    Set<String> tagNamesSet = tagDtos.stream()
-                                            .map(TagDto::getName)
-                                            .collect(Collectors.toSet());
+                                .flatMap(resolvedNames -> Mono.fromCallable(() -> {
+                                    Set<String> tagNamesSet = new HashSet<>(resolvedNames);
                                     app.setTags(tagNamesSet);
                                     applicationRepository.save(app);
                                     log.info("Added {} tags to application {}", tagNamesSet.size(), app.getId());
                                     return app;
-                                });
-                                }).subscribeOn(Schedulers.boundedElastic());
+                                })).subscribeOn(Schedulers.boundedElastic());
                     }
                     return Mono.just(app);
                 })
@@ -169,7 +178,7 @@ public class ApplicationService {
                     }
                     List<UUID> applicationIds = applications.stream()
                             .map(Application::getId)
-                            .collect(Collectors.toList());
+                            .toList();
                     List<Application> appsWithTags = applicationRepository.findByIdsWithTags(applicationIds);
                     Map<UUID, Set<String>> tagsMap = new HashMap<>();
                     for (Application appWithTags : appsWithTags) {
@@ -183,7 +192,7 @@ public class ApplicationService {
                                 }
                                 return toDto(app);
                             })
-                            .collect(Collectors.toList());
+                            .toList();
                 }).subscribeOn(Schedulers.boundedElastic())
                 .flatMapMany(Flux::fromIterable);
     }
@@ -251,7 +260,7 @@ public class ApplicationService {
                     .toList();
             List<ApplicationDto> dtos = apps.stream()
                     .map(this::toDto)
-                    .collect(Collectors.toList());
+                    .toList();
             String nextCursor = null;
             if (!apps.isEmpty()) {
                 Application last = apps.get(apps.size() - 1);
@@ -272,10 +281,7 @@ public class ApplicationService {
                                 Application app = applicationRepository.findByIdWithTags(applicationId)
                                         .orElseThrow(() -> new NotFoundException("Application not found"));
                                 try {
-                                    List<TagDto> tagDtos = tagServiceClient.createOrGetTagsBatch(tagNames);
-                                    Set<String> newTags = tagDtos.stream()
-                                            .map(TagDto::getName)
-                                            .collect(Collectors.toSet());
+                                    Set<String> newTags = new HashSet<>(tagNameResolver.resolve(tagNames));
                                     app.getTags().addAll(newTags);
                                     applicationRepository.save(app);
                                     log.info("Added {} tags to existed application {}", newTags.size(), applicationId);
@@ -309,7 +315,7 @@ public class ApplicationService {
     public Mono<ApplicationDto> changeStatus(UUID applicationId, String status, UUID actorId) {
         return Mono.fromCallable(() -> {
             try {
-                return userServiceClient.getUserRole(actorId);
+                return peerLookups.getUserRole(actorId);
             } catch (ServiceUnavailableException e) {
                 throw new ServiceUnavailableException("User service is unavailable now");
             }
@@ -388,7 +394,7 @@ public class ApplicationService {
                                     applicationHistoryRepository.findByApplicationIdOrderByChangedAtDesc(applicationId)
                                             .stream()
                                             .map(this::toHistoryDto)
-                                            .collect(Collectors.toList())
+                                            .toList()
                             ).subscribeOn(Schedulers.boundedElastic())
                             .flatMapMany(Flux::fromIterable);
                 });
@@ -435,7 +441,7 @@ public class ApplicationService {
                 List<Application> applications = applicationRepository.findByTag(tagName);
                 List<ApplicationInfoDto> dtos = applications.stream()
                         .map(this::toInfoDto)
-                        .collect(Collectors.toList());
+                        .toList();
 
                 log.info("Found {} applications with tag {}", dtos.size(), tagName);
                 return dtos;
@@ -464,6 +470,7 @@ public class ApplicationService {
         dto.setProductId(app.getProductId());
         dto.setStatus(app.getStatus());
         dto.setCreatedAt(app.getCreatedAt());
+        dto.setVersion(app.getVersion());
 
         if (app.getDocuments() != null) {
             List<DocumentDto> docDtos = app.getDocuments().stream()
@@ -475,7 +482,7 @@ public class ApplicationService {
                         docDto.setStoragePath(doc.getStoragePath());
                         return docDto;
                     })
-                    .collect(Collectors.toList());
+                    .toList();
             dto.setDocuments(docDtos);
         }
 
@@ -503,7 +510,7 @@ public class ApplicationService {
                 .flatMap(app ->
                         Mono.fromCallable(() -> {
                             try {
-                                return userServiceClient.getUserRole(actorId);
+                                return peerLookups.getUserRole(actorId);
                             } catch (ServiceUnavailableException e) {
                                 throw new ServiceUnavailableException("User service is unavailable");
                             }})
@@ -522,7 +529,7 @@ public class ApplicationService {
     private Mono<Boolean> validateActorIsAdmin(UUID actorId) {
         return Mono.fromCallable(() -> {
             try {
-                return userServiceClient.getUserRole(actorId);
+                return peerLookups.getUserRole(actorId);
             } catch (ServiceUnavailableException e) {
                 throw new ServiceUnavailableException("User service is unavailable");
             }}).subscribeOn(Schedulers.boundedElastic())
@@ -535,7 +542,7 @@ public class ApplicationService {
                 .flatMap(app ->
                         Mono.fromCallable(() -> {
                             try {
-                                return userServiceClient.getUserRole(actorId);
+                                return peerLookups.getUserRole(actorId);
                             } catch (ServiceUnavailableException e) {
                                 throw new ServiceUnavailableException("User service is unavailable");
                             }}).subscribeOn(Schedulers.boundedElastic())
@@ -0,0 +1,81 @@
+package com.example.applicationservice.service;
+
+import com.example.applicationservice.dto.TagDto;
+import com.example.applicationservice.exception.ServiceUnavailableException;
+import com.example.applicationservice.feign.TagServiceClient;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Теги в tag-service не переименовываются и не удаляются: раз подтверждённое имя остаётся валидным,
+// поэтому в tag-service отправляются только ещё неизвестные имена
+@Component
+public class TagNameResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(TagNameResolver.class);
+    private static final String CACHE_NAME = "tag.known-names";
+
+    private final TagServiceClient tagServiceClient;
+    private final Cache<String, Boolean> knownNames;
+
+    public TagNameResolver(TagServiceClient tagServiceClient,
+                           MeterRegistry meterRegistry,
+                           @Value("${tag.client-cache.max-size:10000}") long maxSize) {
+        this.tagServiceClient = tagServiceClient;
+        this.knownNames = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, knownNames, CACHE_NAME);
+    }
+
+    // Возвращает очищенные уникальные имена тегов, гарантированно существующие в tag-service
+    public List<String> resolve(List<String> tagNames) {
+        if (tagNames == null || tagNames.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> uniqueNames = tagNames.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+
+        List<String> unknownNames = uniqueNames.stream()
+                .filter(name -> knownNames.getIfPresent(name) == null)
+                .collect(Collectors.toList());
+        if (unknownNames.isEmpty()) {
+            return uniqueNames;
+        }
+
+        List<TagDto> tagDtos = tagServiceClient.createOrGetTagsBatch(unknownNames);
+        if (tagDtos == null) {
+            throw new ServiceUnavailableException("Tag service is unavailable now");
+        }
+        Set<String> confirmedNames = tagDtos.stream()
+                .map(TagDto::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        confirmedNames.forEach(name -> knownNames.put(name, Boolean.TRUE));
+        log.debug("Resolved {} tags remotely, {} from cache",
+                unknownNames.size(), uniqueNames.size() - unknownNames.size());
+
+        // Имена, которые tag-service не подтвердил, в результат не попадают
+        Set<String> remoteNames = new HashSet<>(unknownNames);
+        return uniqueNames.stream()
+                .filter(name -> !remoteNames.contains(name) || confirmedNames.contains(name))
+                .collect(Collectors.toList());
+    }
+}
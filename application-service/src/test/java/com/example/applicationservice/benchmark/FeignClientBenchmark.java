@@ -0,0 +1,135 @@
+package com.example.applicationservice.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Feign;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Нагрузочное сравнение накладных расходов межсервисного вызова: Feign на HttpURLConnection
+// (Client.Default) против пула Apache HC5 с теми же настройками, что в application.yml.
+// Не тест: запускается вручную, например
+//   mvn -pl application-service test-compile exec:java -Dexec.classpathScope=test \
+//       -Dexec.mainClass=com.example.applicationservice.benchmark.FeignClientBenchmark -Dexec.args="32 2000"
+public class FeignClientBenchmark {
+
+    private static final byte[] BODY = "{\"id\":\"00000000-0000-0000-0000-000000000001\",\"name\":\"bench\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    interface PingClient {
+        @RequestLine("GET /ping")
+        String ping();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int callsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        // без TCP_NODELAY встроенный сервер JDK упирается в задержку Nagle/delayed ACK (~40 мс на ответ)
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        // по портам клиента видно, сколько TCP-соединений понадобилось на прогон
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        server.createContext("/ping", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        ExecutorService serverPool = Executors.newFixedThreadPool(threads * 2);
+        server.setExecutor(serverPool);
+        server.start();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        CloseableHttpClient pooled = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(200)
+                        .setMaxConnPerRoute(50)
+                        .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.LAX)
+                        .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                        .build())
+                .build();
+        try {
+            PingClient jdk = Feign.builder().client(new Client.Default(null, null)).target(PingClient.class, url);
+            PingClient hc5 = Feign.builder().client(new ApacheHttp5Client(pooled)).target(PingClient.class, url);
+
+            // прогрев JIT и пулов, результаты не учитываются
+            run("warmup", jdk, threads, callsPerThread / 4, null);
+            run("warmup", hc5, threads, callsPerThread / 4, null);
+
+            System.out.printf("threads=%d, calls/thread=%d%n", threads, callsPerThread);
+            run("HttpURLConnection", jdk, threads, callsPerThread, clientPorts);
+            run("Apache HC5 pool", hc5, threads, callsPerThread, clientPorts);
+        } finally {
+            pooled.close();
+            server.stop(0);
+            serverPool.shutdownNow();
+        }
+    }
+
+    private static void run(String name, PingClient client, int threads, int calls, Set<Integer> clientPorts) throws Exception {
+        if (clientPorts != null) {
+            clientPorts.clear();
+        }
+        long[][] latencies = new long[threads][calls];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            long[] own = latencies[t];
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < calls; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            client.ping();
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                        own[i] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        pool.shutdown();
+        if (clientPorts == null) {
+            return;
+        }
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%-18s %6.0f req/s  p50 %6.3f ms  p99 %6.3f ms  p99.9 %6.3f ms  connections %d  errors %d%n",
+                name, all.length / (elapsed / 1e9),
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), clientPorts.size(), errors.get());
+    }
+
+    private static double percentile(long[] sorted, double q) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)] / 1e6;
+    }
+}
@@ -158,8 +158,60 @@ public class ApplicationControllerTest {
         when(applicationService.findById(appId))
                 .thenReturn(Mono.just(dto));
 
-        StepVerifier.create(applicationController.getApplication(appId))
-                .expectNext(dto)
+        StepVerifier.create(applicationController.getApplication(appId, null))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals(dto, response.getBody());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void getApplication_versioned_setsEtagAndCacheControl() {
+        UUID appId = UUID.randomUUID();
+        ApplicationDto dto = createSampleApplicationDto();
+        dto.setVersion(3L);
+
+        when(applicationService.findById(appId)).thenReturn(Mono.just(dto));
+
+        StepVerifier.create(applicationController.getApplication(appId, null))
+                .assertNext(response -> {
+                    assertEquals("\"v3\"", response.getHeaders().getETag());
+                    assertEquals("max-age=0, s-maxage=5", response.getHeaders().getCacheControl());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void getApplication_matchingIfNoneMatch_returnsNotModified() {
+        UUID appId = UUID.randomUUID();
+        ApplicationDto dto = createSampleApplicationDto();
+        dto.setVersion(3L);
+
+        when(applicationService.findById(appId)).thenReturn(Mono.just(dto));
+
+        StepVerifier.create(applicationController.getApplication(appId, "\"v2\", \"v3\""))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+                    assertNull(response.getBody());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void getApplication_staleIfNoneMatch_returnsBody() {
+        UUID appId = UUID.randomUUID();
+        ApplicationDto dto = createSampleApplicationDto();
+        dto.setVersion(4L);
+
+        when(applicationService.findById(appId)).thenReturn(Mono.just(dto));
+
+        StepVerifier.create(applicationController.getApplication(appId, "\"v3\""))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals("\"v4\"", response.getHeaders().getETag());
+                    assertEquals(dto, response.getBody());
+                })
                 .verifyComplete();
     }
 
@@ -170,7 +222,7 @@ public class ApplicationControllerTest {
         when(applicationService.findById(appId))
                 .thenReturn(Mono.error(new NotFoundException("Application not found")));
 
-        StepVerifier.create(applicationController.getApplication(appId))
+        StepVerifier.create(applicationController.getApplication(appId, null))
                 .expectError(NotFoundException.class)
                 .verify();
     }
@@ -182,7 +234,7 @@ public class ApplicationControllerTest {
         when(applicationService.findById(appId))
                 .thenReturn(Mono.error(new RuntimeException("DB error")));
 
-        StepVerifier.create(applicationController.getApplication(appId))
+        StepVerifier.create(applicationController.getApplication(appId, null))
                 .expectError(RuntimeException.class)
                 .verify();
     }
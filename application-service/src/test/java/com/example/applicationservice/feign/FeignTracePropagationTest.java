@@ -0,0 +1,227 @@
+package com.example.applicationservice.feign;
+
+import com.example.applicationservice.config.FeignClientConfig;
+import com.example.applicationservice.config.HedgingConfig;
+import com.example.common.feign.FeignClientAutoConfiguration;
+import com.sun.net.httpserver.HttpServer;
+import feign.Capability;
+import feign.Client;
+import feign.RequestInterceptor;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadAutoConfiguration;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.github.resilience4j.springboot3.timelimiter.autoconfigure.TimeLimiterAutoConfiguration;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.opentelemetry.OpenTelemetryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.MicrometerTracingAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.tracing.OpenTelemetryTracingAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JAutoConfiguration;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.applicationservice.loadbalancer.HedgedInstanceTracker.HEDGE_AVOID_HEADER;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Контекст вызывающего потока (трасса и прочие значения context-propagation) доходит до соседа
+// через пул предохранителя и пул hedging
+public class FeignTracePropagationTest {
+
+    // произвольное значение контекста вызывающего потока (как MDC или контекст безопасности)
+    private static final String TENANT_KEY = "test.tenant";
+    private static final ThreadLocal<String> TENANT = new ThreadLocal<>();
+
+    private HttpServer server;
+    private final Map<String, String> traceparents = new ConcurrentHashMap<>();
+    private final AtomicBoolean slowPrimary = new AtomicBoolean();
+    private ApplicationContextRunner contextRunner;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(TENANT_KEY, TENANT::get, TENANT::set, TENANT::remove);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/v1/users", exchange -> {
+            boolean hedge = exchange.getRequestHeaders().containsKey(HEDGE_AVOID_HEADER);
+            String traceparent = exchange.getRequestHeaders().getFirst("traceparent");
+            traceparents.put(hedge ? "hedge" : "primary", traceparent != null ? traceparent : "");
+            if (!hedge && slowPrimary.get()) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "true".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        contextRunner = new ApplicationContextRunner()
+                // @Value с Duration в HedgingConfig, как в приложении
+                .withInitializer(context -> context.getBeanFactory()
+                        .setConversionService(ApplicationConversionService.getSharedInstance()))
+                .withConfiguration(AutoConfigurations.of(
+                        ObservationAutoConfiguration.class,
+                        OpenTelemetryAutoConfiguration.class,
+                        OpenTelemetryTracingAutoConfiguration.class,
+                        MicrometerTracingAutoConfiguration.class,
+                        JacksonAutoConfiguration.class,
+                        HttpMessageConvertersAutoConfiguration.class,
+                        CircuitBreakerAutoConfiguration.class,
+                        BulkheadAutoConfiguration.class,
+                        TimeLimiterAutoConfiguration.class,
+                        Resilience4JAutoConfiguration.class,
+                        FeignAutoConfiguration.class,
+                        FeignClientAutoConfiguration.class))
+                .withUserConfiguration(ClientConfig.class)
+                .withPropertyValues(
+                        "management.tracing.sampling.probability=1.0",
+                        "management.tracing.propagation.type=w3c",
+                        "spring.cloud.openfeign.circuitbreaker.enabled=true",
+                        "spring.cloud.openfeign.circuitbreaker.group.enabled=true",
+                        "spring.cloud.openfeign.circuitbreaker.alphanumeric-ids.enabled=true",
+                        "spring.cloud.circuitbreaker.resilience4j.enableSemaphoreDefaultBulkhead=true",
+                        "feign.hedging.enabled=true",
+                        "spring.cloud.openfeign.client.config.user-service.url=http://localhost:"
+                                + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        ContextRegistry.getInstance().removeThreadLocalAccessor(TENANT_KEY);
+    }
+
+    @Test
+    void callerContext_survivesCircuitBreakerPool() {
+        contextRunner.run(context -> {
+            assertNull(context.getStartupFailure());
+            UserServiceClient client = context.getBean(UserServiceClient.class);
+            Tracer tracer = context.getBean(Tracer.class);
+            List<String> intercepted = context.getBean(ClientConfig.class).intercepted;
+
+            Observation request = Observation.start("test.request", context.getBean(ObservationRegistry.class));
+            TENANT.set("tenant-1");
+            String traceId;
+            try {
+                traceId = request.scoped(() -> {
+                    assertTrue(client.userExists(UUID.randomUUID()));
+                    return tracer.currentSpan().context().traceId();
+                });
+            } finally {
+                TENANT.remove();
+                request.stop();
+            }
+
+            assertTrue(traceparents.get("primary").contains(traceId), traceparents.get("primary"));
+            // интерцепторы выполнялись в потоке предохранителя и видели весь контекст вызывающего
+            assertEquals(1, intercepted.size());
+            assertNotEquals(Thread.currentThread().getName(), intercepted.get(0).split(" ")[0]);
+            assertTrue(intercepted.get(0).endsWith(" tenant-1"), intercepted.get(0));
+        });
+    }
+
+    @Test
+    void hedgedAttempt_runsInCallerTrace() {
+        contextRunner.run(context -> {
+            UserServiceClient client = context.getBean(UserServiceClient.class);
+            Tracer tracer = context.getBean(Tracer.class);
+            List<String> seen = context.getBean(TraceRecorder.class).traceIds;
+
+            // быстрые ответы набирают окно задержек, после чего включается hedging
+            for (int i = 0; i < 48; i++) {
+                client.userExists(UUID.randomUUID());
+            }
+            slowPrimary.set(true);
+            seen.clear();
+
+            Observation request = Observation.start("test.request", context.getBean(ObservationRegistry.class));
+            String traceId = request.scoped(() -> {
+                assertTrue(client.userExists(UUID.randomUUID()));
+                return tracer.currentSpan().context().traceId();
+            });
+            request.stop();
+
+            assertTrue(traceparents.get("hedge").contains(traceId), traceparents.get("hedge"));
+            // обе попытки (основная и дубль) внутри Feign-клиента видят трассу вызывающего
+            assertEquals(List.of(traceId, traceId), seen);
+        });
+    }
+
+    // внутренняя обёртка клиента: запоминает трассу, видимую в потоке попытки
+    public static class TraceRecorder implements Capability, Ordered {
+
+        private final Tracer tracer;
+        private final List<String> traceIds = new CopyOnWriteArrayList<>();
+
+        TraceRecorder(Tracer tracer) {
+            this.tracer = tracer;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public Client enrich(Client client) {
+            return (request, options) -> {
+                Span span = tracer.currentSpan();
+                traceIds.add(span != null ? span.context().traceId() : "");
+                return client.execute(request, options);
+            };
+        }
+    }
+
+    @Configuration
+    @EnableFeignClients(clients = UserServiceClient.class)
+    @Import({FeignClientConfig.class, HedgingConfig.class, UserServiceClientFallbackFactory.class})
+    static class ClientConfig {
+
+        private final List<String> intercepted = new CopyOnWriteArrayList<>();
+
+        @Bean
+        RequestInterceptor contextRecordingInterceptor() {
+            return template -> intercepted.add(Thread.currentThread().getName() + " " + TENANT.get());
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TraceRecorder traceRecorder(Tracer tracer) {
+            return new TraceRecorder(tracer);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.applicationservice.feign;
+
+import com.example.applicationservice.config.CustomErrorDecoder;
+import com.example.applicationservice.exception.NotFoundException;
+import com.example.applicationservice.exception.ServiceUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+import feign.codec.ErrorDecoder;
+import io.github.resilience4j.springboot3.bulkhead.autoconfigure.BulkheadAutoConfiguration;
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+import io.github.resilience4j.springboot3.timelimiter.autoconfigure.TimeLimiterAutoConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JAutoConfiguration;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.net.InetSocketAddress;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Feign-клиент с включённым предохранителем против локального HTTP-сервера
+public class UserServiceClientCircuitBreakerTest {
+
+    private HttpServer server;
+    private ApplicationContextRunner contextRunner;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // роль неизвестного пользователя — 404, проверка существования — сбой соседа
+        server.createContext("/api/v1/users", exchange -> {
+            int status = exchange.getRequestURI().getPath().endsWith("/role") ? 404 : 500;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+
+        contextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(
+                        JacksonAutoConfiguration.class,
+                        HttpMessageConvertersAutoConfiguration.class,
+                        CircuitBreakerAutoConfiguration.class,
+                        BulkheadAutoConfiguration.class,
+                        TimeLimiterAutoConfiguration.class,
+                        Resilience4JAutoConfiguration.class,
+                        FeignAutoConfiguration.class))
+                .withUserConfiguration(ClientConfig.class)
+                .withPropertyValues(
+                        "spring.cloud.openfeign.circuitbreaker.enabled=true",
+                        "spring.cloud.openfeign.circuitbreaker.alphanumeric-ids.enabled=true",
+                        "spring.cloud.circuitbreaker.resilience4j.enableSemaphoreDefaultBulkhead=true",
+                        "spring.cloud.openfeign.client.config.user-service.url=http://localhost:"
+                                + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void notFound_passesThroughBreakerUnchanged() {
+        contextRunner.run(context -> {
+            assertNull(context.getStartupFailure());
+            UserServiceClient client = context.getBean(UserServiceClient.class);
+
+            NotFoundException ex = assertThrows(NotFoundException.class,
+                    () -> client.getUserRole(UUID.randomUUID()));
+            assertEquals("Resource not found", ex.getMessage());
+        });
+    }
+
+    @Test
+    void serverError_isReportedAsUnavailable() {
+        contextRunner.run(context -> {
+            UserServiceClient client = context.getBean(UserServiceClient.class);
+
+            assertThrows(ServiceUnavailableException.class, () -> client.userExists(UUID.randomUUID()));
+        });
+    }
+
+    @Configuration
+    @EnableFeignClients(clients = UserServiceClient.class)
+    @Import(UserServiceClientFallbackFactory.class)
+    static class ClientConfig {
+
+        @Bean
+        ErrorDecoder errorDecoder() {
+            return new CustomErrorDecoder();
+        }
+    }
+}
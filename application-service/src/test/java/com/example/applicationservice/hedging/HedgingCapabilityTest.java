@@ -0,0 +1,235 @@
+package com.example.applicationservice.hedging;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.applicationservice.loadbalancer.HedgedInstanceTracker.HEDGE_AVOID_HEADER;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgingCapabilityTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HedgingCapability capability;
+
+    @BeforeEach
+    void setUp() {
+        capability = new HedgingCapability(List.of("user-service"), 0.95, TimeUnit.MILLISECONDS.toNanos(20), 1.0,
+                4, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        capability.destroy();
+    }
+
+    @Test
+    void fastPrimary_answersWithoutHedge() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        Client client = hedged((request, options) -> {
+            calls.incrementAndGet();
+            return response(null);
+        });
+        warmUp(client);
+        calls.set(0);
+
+        client.execute(request(), new Request.Options());
+
+        assertEquals(1, calls.get());
+        assertEquals(0, count("feign.hedging.hedges"));
+    }
+
+    @Test
+    void primaryWins_runningHedgeIsInterrupted() throws Exception {
+        CountDownLatch hedgeStarted = new CountDownLatch(1);
+        CountDownLatch hedgeInterrupted = new CountDownLatch(1);
+        AtomicBoolean slow = new AtomicBoolean();
+        Client client = hedged((request, options) -> {
+            if (request.headers().containsKey(HEDGE_AVOID_HEADER)) {
+                hedgeStarted.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    hedgeInterrupted.countDown();
+                }
+                return response(null);
+            }
+            if (slow.get()) {
+                await(hedgeStarted);
+            }
+            return response(null);
+        });
+        warmUp(client);
+        slow.set(true);
+
+        client.execute(request(), new Request.Options());
+
+        assertTrue(hedgeInterrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, count("feign.hedging.hedges"));
+        assertEquals(0, count("feign.hedging.wins"));
+    }
+
+    @Test
+    void fasterHedge_isReturned_andSlowPrimaryResponseIsClosed() throws Exception {
+        CountDownLatch releasePrimary = new CountDownLatch(1);
+        AtomicBoolean primaryClosed = new AtomicBoolean();
+        AtomicBoolean slow = new AtomicBoolean();
+        Client client = hedged((request, options) -> {
+            if (request.headers().containsKey(HEDGE_AVOID_HEADER)) {
+                return response(null, "hedge");
+            }
+            if (slow.get()) {
+                // блокирующий клиент может не реагировать на прерывание и всё равно вернуть ответ
+                awaitUninterruptibly(releasePrimary);
+                return response(primaryClosed, "primary");
+            }
+            return response(null);
+        });
+        warmUp(client);
+        slow.set(true);
+
+        Response response = client.execute(request(), new Request.Options());
+
+        assertEquals("hedge", new String(response.body().asInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(1, count("feign.hedging.hedges"));
+        assertEquals(1, count("feign.hedging.wins"));
+        releasePrimary.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!primaryClosed.get() && System.nanoTime() < deadline) {
+            sleep(10);
+        }
+        assertTrue(primaryClosed.get());
+    }
+
+    @Test
+    void failedPrimary_returnsHedgeResponse() throws Exception {
+        CountDownLatch hedgeStarted = new CountDownLatch(1);
+        AtomicBoolean slow = new AtomicBoolean();
+        Client client = hedged((request, options) -> {
+            if (request.headers().containsKey(HEDGE_AVOID_HEADER)) {
+                hedgeStarted.countDown();
+                return response(null, "hedge");
+            }
+            if (slow.get()) {
+                await(hedgeStarted);
+                throw new SocketTimeoutException("Read timed out");
+            }
+            return response(null);
+        });
+        warmUp(client);
+        slow.set(true);
+
+        Response response = client.execute(request(), new Request.Options());
+
+        assertEquals("hedge", new String(response.body().asInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        assertEquals(1, count("feign.hedging.wins"));
+    }
+
+    @Test
+    void failedPrimary_withoutHedge_isRethrown() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean();
+        Client client = hedged((request, options) -> {
+            if (failing.get()) {
+                throw new SocketTimeoutException("Read timed out");
+            }
+            return response(null);
+        });
+        warmUp(client);
+        failing.set(true);
+
+        assertThrows(SocketTimeoutException.class, () -> client.execute(request(), new Request.Options()));
+        assertEquals(0, count("feign.hedging.hedges"));
+    }
+
+    private Client hedged(Client client) {
+        return capability.enrich(client);
+    }
+
+    // быстрые ответы набирают окно задержек; задержка дубля упирается в минимум 20 мс
+    private static void warmUp(Client client) throws IOException {
+        for (int i = 0; i < 32; i++) {
+            client.execute(request(), new Request.Options());
+        }
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("client", "user-service").counter().count();
+    }
+
+    private static Request request() {
+        RequestTemplate template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(Object.class, "user-service", "http://user-service"));
+        return Request.create(Request.HttpMethod.GET, "http://user-service/api/v1/users/1", Map.of(), null,
+                StandardCharsets.UTF_8, template);
+    }
+
+    private static Response response(AtomicBoolean closed) {
+        return response(closed, "true");
+    }
+
+    private static Response response(AtomicBoolean closed, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        return Response.builder()
+                .status(200)
+                .request(request())
+                .headers(Map.of())
+                .body(new ByteArrayInputStream(bytes) {
+                    @Override
+                    public void close() {
+                        if (closed != null) {
+                            closed.set(true);
+                        }
+                    }
+                }, bytes.length)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
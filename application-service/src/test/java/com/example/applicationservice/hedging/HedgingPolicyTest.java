@@ -0,0 +1,85 @@
+package com.example.applicationservice.hedging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgingPolicyTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void noDelay_untilWindowHasEnoughSamples() {
+        HedgingPolicy policy = new HedgingPolicy(0.95, 0, 0.05);
+
+        for (int i = 1; i < 32; i++) {
+            policy.record(i * MS);
+        }
+        assertEquals(-1, policy.delayNanos());
+        assertEquals(0, policy.delaySeconds());
+
+        policy.record(32 * MS);
+        // p95 из 32 значений 1..32 мс — 31-е по порядку
+        assertEquals(31 * MS, policy.delayNanos());
+    }
+
+    @Test
+    void delay_isRecomputedEverySixteenSamples() {
+        HedgingPolicy policy = new HedgingPolicy(0.5, 0, 0.05);
+        for (int i = 0; i < 32; i++) {
+            policy.record(10 * MS);
+        }
+        assertEquals(10 * MS, policy.delayNanos());
+
+        // между пересчётами задержка не меняется, даже когда медленных ответов уже большинство
+        for (int i = 0; i < 47; i++) {
+            policy.record(100 * MS);
+        }
+        assertEquals(10 * MS, policy.delayNanos());
+
+        policy.record(100 * MS);
+        assertEquals(100 * MS, policy.delayNanos());
+    }
+
+    @Test
+    void delay_isNotBelowMinimum() {
+        HedgingPolicy policy = new HedgingPolicy(0.95, 10 * MS, 0.05);
+        for (int i = 0; i < 32; i++) {
+            policy.record(MS);
+        }
+
+        assertEquals(10 * MS, policy.delayNanos());
+    }
+
+    @Test
+    void budget_startsWithOneHedge_andRefillsByRequestShare() {
+        HedgingPolicy policy = new HedgingPolicy(0.95, 0, 0.05);
+
+        assertTrue(policy.tryHedge());
+        assertFalse(policy.tryHedge());
+
+        // 5% от запросов: один дубль на 20 запросов
+        for (int i = 0; i < 19; i++) {
+            policy.onRequest();
+        }
+        assertFalse(policy.tryHedge());
+        policy.onRequest();
+        assertTrue(policy.tryHedge());
+    }
+
+    @Test
+    void budget_isCapped() {
+        HedgingPolicy policy = new HedgingPolicy(0.95, 0, 1.0);
+        for (int i = 0; i < 100; i++) {
+            policy.onRequest();
+        }
+
+        int hedges = 0;
+        while (policy.tryHedge()) {
+            hedges++;
+        }
+        assertEquals(10, hedges);
+    }
+}
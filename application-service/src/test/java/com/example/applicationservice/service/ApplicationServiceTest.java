@@ -10,6 +10,7 @@ import com.example.applicationservice.repository.*;
 import com.example.applicationservice.service.ApplicationService;
 import com.example.applicationservice.util.ApplicationPage;
 import com.example.applicationservice.util.CursorUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 import org.springframework.data.domain.*;
@@ -17,6 +18,9 @@ import org.springframework.data.domain.*;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,12 +49,16 @@ public class ApplicationServiceTest {
     @Mock
     private TagServiceClient tagServiceClient;
 
-    @InjectMocks
     private ApplicationService applicationService;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        TagNameResolver tagNameResolver = new TagNameResolver(tagServiceClient, new SimpleMeterRegistry(), 100);
+        PeerLookupCoalescer peerLookups =
+                new PeerLookupCoalescer(userServiceClient, productServiceClient, new SimpleMeterRegistry());
+        applicationService = new ApplicationService(applicationRepository, applicationHistoryRepository,
+                documentRepository, peerLookups, tagNameResolver);
     }
 
     // -----------------------
@@ -156,6 +164,55 @@ public class ApplicationServiceTest {
         verify(productServiceClient, times(1)).productExists(pid);
     }
 
+    @Test
+    public void createApplication_knownTags_skipsTagServiceCall() {
+        UUID aid = UUID.randomUUID();
+        UUID pid = UUID.randomUUID();
+
+        when(userServiceClient.userExists(aid)).thenReturn(true);
+        when(productServiceClient.productExists(pid)).thenReturn(true);
+        when(applicationRepository.save(any(Application.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(applicationHistoryRepository.save(any(ApplicationHistory.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TagDto tag1 = new TagDto();
+        tag1.setName("t1");
+        TagDto tag2 = new TagDto();
+        tag2.setName("t2");
+        when(tagServiceClient.createOrGetTagsBatch(List.of("t1"))).thenReturn(List.of(tag1));
+        when(tagServiceClient.createOrGetTagsBatch(List.of("t2"))).thenReturn(List.of(tag2));
+
+        // Первая заявка подтверждает t1 в tag-service
+        ApplicationRequest first = new ApplicationRequest();
+        first.setApplicantId(aid);
+        first.setProductId(pid);
+        first.setTags(List.of("t1"));
+        StepVerifier.create(applicationService.createApplication(first))
+                .assertNext(dto -> assertEquals(List.of("t1"), dto.getTags()))
+                .verifyComplete();
+
+        // Вторая заявка отправляет в tag-service только неизвестный t2
+        ApplicationRequest second = new ApplicationRequest();
+        second.setApplicantId(aid);
+        second.setProductId(pid);
+        second.setTags(List.of(" t1 ", "t2"));
+        StepVerifier.create(applicationService.createApplication(second))
+                .assertNext(dto -> assertEquals(Set.of("t1", "t2"), new HashSet<>(dto.getTags())))
+                .verifyComplete();
+
+        // Третья заявка с известными тегами обходится без удалённого вызова
+        ApplicationRequest third = new ApplicationRequest();
+        third.setApplicantId(aid);
+        third.setProductId(pid);
+        third.setTags(List.of("t2", "t1"));
+        StepVerifier.create(applicationService.createApplication(third))
+                .assertNext(dto -> assertEquals(2, dto.getTags().size()))
+                .verifyComplete();
+
+        verify(tagServiceClient, times(1)).createOrGetTagsBatch(List.of("t1"));
+        verify(tagServiceClient, times(1)).createOrGetTagsBatch(List.of("t2"));
+        verifyNoMoreInteractions(tagServiceClient);
+    }
+
     // -----------------------
     // findAll tests
     // -----------------------
@@ -674,4 +731,31 @@ public class ApplicationServiceTest {
                 .assertNext(count -> assertEquals(expectedCount, count))
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void peerLookups_concurrentIdenticalRoleRequests_shareSingleCall() throws Exception {
+        UUID actorId = UUID.randomUUID();
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userServiceClient.getUserRole(actorId)).thenAnswer(invocation -> {
+            callStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return UserRole.ROLE_MANAGER;
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PeerLookupCoalescer peerLookups =
+                new PeerLookupCoalescer(userServiceClient, productServiceClient, meterRegistry);
+
+        CompletableFuture<UserRole> leader = CompletableFuture.supplyAsync(() -> peerLookups.getUserRole(actorId));
+        assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<UserRole> follower = CompletableFuture.supplyAsync(() -> peerLookups.getUserRole(actorId));
+        // даём второму запросу присоединиться к выполняющемуся вызову
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(UserRole.ROLE_MANAGER, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(UserRole.ROLE_MANAGER, follower.get(5, TimeUnit.SECONDS));
+        verify(userServiceClient, times(1)).getUserRole(actorId);
+        assertEquals(0.5, meterRegistry.get("singleflight.collapse.ratio").tag("name", "user.role").gauge().value());
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.assignmentservice.controller;
 
+import com.example.assignmentservice.dto.AssignmentDeletionResult;
+import com.example.assignmentservice.dto.UserProductAssignmentBatchRequest;
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
 import com.example.assignmentservice.dto.UserProductAssignmentRequest;
+import com.example.assignmentservice.exception.BadRequestException;
 import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.service.AssignmentCleanupService;
 import com.example.assignmentservice.service.UserProductAssignmentService;
+import com.example.assignmentservice.util.AssignmentPage;
+import com.example.common.event.EntityDeletedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 import java.util.UUID;
@@ -23,11 +35,20 @@ import java.util.UUID;
 @RequestMapping("/api/v1/assignments")
 public class UserProductAssignmentController {
 
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final String NDJSON = "application/x-ndjson";
+
     private final UserProductAssignmentService service;
+    private final AssignmentCleanupService cleanupService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public UserProductAssignmentController(UserProductAssignmentService service) {
+    public UserProductAssignmentController(UserProductAssignmentService service,
+                                           AssignmentCleanupService cleanupService,
+                                           ObjectMapper objectMapper) {
         this.service = service;
+        this.cleanupService = cleanupService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Create a new user-product assignment",
@@ -54,6 +75,26 @@ public class UserProductAssignmentController {
         return ResponseEntity.created(location).body(dto);
     }
 
+    @Operation(summary = "Create or update user-product assignments in bulk",
+            description = "Deduplicates (user, product) pairs, validates users and products in bulk and upserts all assignments at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Assignments created or updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid batch"),
+            @ApiResponse(responseCode = "403", description = "Insufficient rights"),
+            @ApiResponse(responseCode = "404", description = "User, product or actor not found"),
+            @ApiResponse(responseCode = "503", description = "User or product service is unavailable now")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserProductAssignmentDto>> assignBatch(
+            @Valid @RequestBody UserProductAssignmentBatchRequest req,
+            @RequestParam("actorId") UUID actorId) {
+
+        List<UserProductAssignmentDto> dtos = service.assignBatch(actorId, req.getAssignments()).stream()
+                .map(service::toDto)
+                .toList();
+        return ResponseEntity.ok(dtos);
+    }
+
     @Operation(summary = "Read all user-product assignments",
             description = "Returns list of assignments")
     @ApiResponses(value = {
@@ -68,6 +109,52 @@ public class UserProductAssignmentController {
         return ResponseEntity.ok(list);
     }
 
+    // ReadAllByStream: GET "/api/v1/assignments/stream?cursor=<base64>&limit=20"
+    @Operation(summary = "Read assignments with endless scrolling",
+            description = "Returns a page of assignments ordered by assignment time and the cursor of the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of assignments"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit too large")
+    })
+    @GetMapping("/stream")
+    public ResponseEntity<AssignmentPage> listPage(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) UUID productId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException(String.format("Limit cannot be greater than %d", MAX_PAGE_SIZE));
+        }
+        return ResponseEntity.ok(service.listPage(userId, productId, cursor, limit));
+    }
+
+    @Operation(summary = "Export assignments",
+            description = "Streams all matching assignments as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "NDJSON stream of assignments"),
+    })
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) UUID productId) {
+
+        ObjectWriter writer = objectMapper.writerFor(UserProductAssignmentDto.class);
+        StreamingResponseBody body = out -> {
+            service.exportAssignments(userId, productId, dto -> {
+                try {
+                    out.write(writer.writeValueAsBytes(dto));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
     @Operation(summary = "Check if assignment exists",
             description = "Checks if a specific assignment exists")
     @ApiResponses(value = {
@@ -91,21 +178,28 @@ public class UserProductAssignmentController {
     }
 
     @Operation(summary = "Delete assignments",
-            description = "Deletes assignments based on criteria")
+            description = "Deletes assignments based on criteria and returns the number of deleted assignments")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "204", description = "Assignments deleted successfully"),
+            @ApiResponse(responseCode = "200", description = "Assignments deleted successfully"),
             @ApiResponse(responseCode = "401", description = "Actor is unauthorized"),
             @ApiResponse(responseCode = "403", description = "Insufficient rights"),
             @ApiResponse(responseCode = "404", description = "User or product not found"),
             @ApiResponse(responseCode = "503", description = "User or product service is unavailable now")
     })
     @DeleteMapping
-    public ResponseEntity<Void> deleteAssignments(
+    public ResponseEntity<AssignmentDeletionResult> deleteAssignments(
             @RequestParam UUID actorId,
             @RequestParam(required = false) UUID userId,
             @RequestParam(required = false) UUID productId) {
 
-        service.deleteAssignments(actorId, userId, productId);
-        return ResponseEntity.noContent().build();
+        long deleted = service.deleteAssignments(actorId, userId, productId);
+        return ResponseEntity.ok(new AssignmentDeletionResult(deleted));
+    }
+
+    // Internal endpoint: user-service и product-service сообщают об удалении пользователя или продукта
+    @PostMapping("/internal/events")
+    public ResponseEntity<Void> onEntityDeleted(@Valid @RequestBody EntityDeletedEvent event) {
+        cleanupService.accept(event);
+        return ResponseEntity.accepted().build();
     }
 }
\ No newline at end of file
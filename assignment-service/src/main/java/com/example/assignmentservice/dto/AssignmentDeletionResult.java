@@ -0,0 +1,15 @@
+package com.example.assignmentservice.dto;
+
+public class AssignmentDeletionResult {
+
+    private long deleted;
+
+    public AssignmentDeletionResult() {}
+
+    public AssignmentDeletionResult(long deleted) {
+        this.deleted = deleted;
+    }
+
+    public long getDeleted() { return deleted; }
+    public void setDeleted(long deleted) { this.deleted = deleted; }
+}
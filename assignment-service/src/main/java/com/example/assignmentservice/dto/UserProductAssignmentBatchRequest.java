@@ -0,0 +1,14 @@
+package com.example.assignmentservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+public class UserProductAssignmentBatchRequest {
+
+    @NotEmpty
+    private List<@Valid UserProductAssignmentRequest> assignments;
+
+    public List<UserProductAssignmentRequest> getAssignments() { return assignments; }
+    public void setAssignments(List<UserProductAssignmentRequest> assignments) { this.assignments = assignments; }
+}
@@ -20,6 +20,16 @@ public class UserProductAssignmentDto {
 
     private Instant assignedAt;
 
+    public UserProductAssignmentDto() {}
+
+    public UserProductAssignmentDto(UUID id, UUID userId, UUID productId, AssignmentRole role, Instant assignedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.productId = productId;
+        this.role = role;
+        this.assignedAt = assignedAt;
+    }
+
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
 
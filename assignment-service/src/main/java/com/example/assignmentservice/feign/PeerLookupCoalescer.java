@@ -0,0 +1,62 @@
+package com.example.assignmentservice.feign;
+
+import com.example.assignmentservice.exception.ServiceUnavailableException;
+import com.example.assignmentservice.model.enums.UserRole;
+import com.example.common.feign.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Частые проверки пользователей и продуктов: одинаковые одновременные запросы выполняются одним вызовом.
+// Разные id пользователей дополнительно собираются в batch-запросы через UserLookupBatcher.
+@Component
+public class PeerLookupCoalescer {
+
+    private final UserLookupBatcher userLookupBatcher;
+    private final ProductServiceClient productServiceClient;
+    private final SingleFlight<UUID, Boolean> userExists;
+    private final SingleFlight<UUID, UserRole> userRole;
+    private final SingleFlight<UUID, Boolean> productExists;
+
+    public PeerLookupCoalescer(UserLookupBatcher userLookupBatcher,
+                               ProductServiceClient productServiceClient,
+                               MeterRegistry meterRegistry) {
+        this.userLookupBatcher = userLookupBatcher;
+        this.productServiceClient = productServiceClient;
+        this.userExists = new SingleFlight<>("user.exists", meterRegistry);
+        this.userRole = new SingleFlight<>("user.role", meterRegistry);
+        this.productExists = new SingleFlight<>("product.exists", meterRegistry);
+    }
+
+    public Boolean userExists(UUID userId) {
+        return userExists.execute(userId, () -> userLookupBatcher.userExists(userId));
+    }
+
+    public UserRole getUserRole(UUID userId) {
+        return userRole.execute(userId, () -> userLookupBatcher.getUserRole(userId));
+    }
+
+    public Boolean productExists(UUID productId) {
+        return productExists.execute(productId, () -> productServiceClient.productExists(productId));
+    }
+
+    public Map<UUID, Boolean> usersExist(Collection<UUID> userIds) {
+        return userLookupBatcher.usersExist(userIds);
+    }
+
+    public Map<UUID, Boolean> productsExist(Collection<UUID> productIds) {
+        Map<UUID, Boolean> response = productServiceClient.productsExist(new ArrayList<>(productIds));
+        // пустой ответ нельзя считать "продуктов нет": по нему удаляются назначения
+        if (response == null) {
+            throw new ServiceUnavailableException("Product service is unavailable now");
+        }
+        Map<UUID, Boolean> result = new LinkedHashMap<>();
+        productIds.forEach(id -> result.put(id, Boolean.TRUE.equals(response.get(id))));
+        return result;
+    }
+}
@@ -3,7 +3,11 @@ package com.example.assignmentservice.feign;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @FeignClient(
@@ -14,4 +18,7 @@ public interface ProductServiceClient {
 
     @GetMapping("/api/v1/products/{productId}/exists")
     Boolean productExists(@PathVariable("productId") UUID productId);
+
+    @PostMapping("/api/v1/products/exists:batch")
+    Map<UUID, Boolean> productsExist(@RequestBody List<UUID> productIds);
 }
\ No newline at end of file
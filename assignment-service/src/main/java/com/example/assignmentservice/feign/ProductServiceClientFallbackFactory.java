@@ -1,20 +1,29 @@
 package com.example.assignmentservice.feign;
 
 import com.example.assignmentservice.exception.ServiceUnavailableException;
+import com.example.common.feign.FeignFallbacks;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Component
 public class ProductServiceClientFallbackFactory implements FallbackFactory<ProductServiceClient> {
     @Override
     public ProductServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new ProductServiceClient() {
             @Override
             public Boolean productExists(UUID productId) {
                 throw new ServiceUnavailableException("Product service is unavailable now");
             }
+
+            @Override
+            public Map<UUID, Boolean> productsExist(List<UUID> productIds) {
+                throw new ServiceUnavailableException("Product service is unavailable now");
+            }
         };
     }
 }
@@ -0,0 +1,214 @@
+package com.example.assignmentservice.feign;
+
+import com.example.assignmentservice.exception.NotFoundException;
+import com.example.assignmentservice.exception.ServiceUnavailableException;
+import com.example.assignmentservice.model.enums.UserRole;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CustomizableThreadCreator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Обёртка над UserServiceClient: одиночные запросы, пришедшие в течение короткого окна,
+// собираются в один batch-запрос к user-service. Если в окне оказался один id, используется обычный эндпоинт.
+// Таймер только отмеряет окно, сами запросы к user-service выполняются в отдельном ограниченном пуле,
+// а вызывающий ждёт результат не дольше заданного таймаута.
+@Component
+public class UserLookupBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserLookupBatcher.class);
+    private static final int FLUSH_QUEUE_CAPACITY = 64;
+
+    private final UserServiceClient userServiceClient;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long timeoutNanos;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService flushExecutor;
+    private final Coalescer<Boolean> existsLookup;
+    private final Coalescer<UserRole> roleLookup;
+
+    public UserLookupBatcher(UserServiceClient userServiceClient,
+                             @Value("${user-service.batch.window:5ms}") Duration window,
+                             @Value("${user-service.batch.max-size:100}") int maxBatchSize,
+                             @Value("${user-service.batch.timeout:3s}") Duration timeout,
+                             @Value("${user-service.batch.flush-threads:8}") int flushThreads) {
+        this.userServiceClient = userServiceClient;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutNanos = timeout.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-lookup-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CustomizableThreadCreator threads = new CustomizableThreadCreator("user-lookup-flush-");
+        threads.setDaemon(true);
+        // очередь ограничена: при переполнении batch сразу завершается отказом, а не копится за таймаутом
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(flushThreads, flushThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(FLUSH_QUEUE_CAPACITY), threads::createThread);
+        executor.allowCoreThreadTimeOut(true);
+        this.flushExecutor = executor;
+        this.existsLookup = new Coalescer<>(
+                userServiceClient::userExists,
+                userServiceClient::usersExist,
+                id -> Boolean.FALSE);
+        this.roleLookup = new Coalescer<>(
+                userServiceClient::getUserRole,
+                userServiceClient::getUserRoles,
+                id -> {
+                    throw new NotFoundException("User not found: " + id);
+                });
+    }
+
+    public Boolean userExists(UUID userId) {
+        return existsLookup.get(userId);
+    }
+
+    public UserRole getUserRole(UUID userId) {
+        return roleLookup.get(userId);
+    }
+
+    // Массовая проверка: список уже собран вызывающим, поэтому окно не нужно, только разбиение на части
+    public Map<UUID, Boolean> usersExist(Collection<UUID> userIds) {
+        Map<UUID, Boolean> result = new LinkedHashMap<>();
+        List<UUID> ids = new ArrayList<>(userIds);
+        for (int from = 0; from < ids.size(); from += maxBatchSize) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + maxBatchSize, ids.size()));
+            Map<UUID, Boolean> response = userServiceClient.usersExist(new ArrayList<>(chunk));
+            if (response == null) {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+            chunk.forEach(id -> result.put(id, Boolean.TRUE.equals(response.get(id))));
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flushExecutor.shutdownNow();
+    }
+
+    private final class Coalescer<V> {
+
+        private final Function<UUID, V> singleLookup;
+        private final Function<List<UUID>, Map<UUID, V>> batchLookup;
+        private final Function<UUID, V> missingValue;
+
+        private Map<UUID, CompletableFuture<V>> pending = new LinkedHashMap<>();
+        private boolean flushScheduled;
+
+        Coalescer(Function<UUID, V> singleLookup,
+                  Function<List<UUID>, Map<UUID, V>> batchLookup,
+                  Function<UUID, V> missingValue) {
+            this.singleLookup = singleLookup;
+            this.batchLookup = batchLookup;
+            this.missingValue = missingValue;
+        }
+
+        V get(UUID id) {
+            CompletableFuture<V> future;
+            boolean flushNow = false;
+            synchronized (this) {
+                future = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+                if (pending.size() >= maxBatchSize) {
+                    flushNow = true;
+                } else if (!flushScheduled) {
+                    flushScheduled = true;
+                    scheduler.schedule(this::dispatch, windowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            if (flushNow) {
+                dispatch();
+            }
+            try {
+                return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new ServiceUnavailableException("User lookup failed: " + e.getCause());
+            } catch (TimeoutException e) {
+                throw new ServiceUnavailableException("User lookup timed out: " + id);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServiceUnavailableException("Interrupted while waiting for user lookup: " + id);
+            }
+        }
+
+        // забирает накопленные id и отдаёт запрос пулу: ни таймер, ни вызывающий поток не блокируются на нём
+        void dispatch() {
+            Map<UUID, CompletableFuture<V>> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                flushScheduled = false;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                flushExecutor.execute(() -> flush(batch));
+            } catch (RejectedExecutionException e) {
+                ServiceUnavailableException rejected =
+                        new ServiceUnavailableException("User lookup queue is full, request rejected");
+                batch.values().forEach(future -> future.completeExceptionally(rejected));
+            }
+        }
+
+        private void flush(Map<UUID, CompletableFuture<V>> batch) {
+            if (batch.size() == 1) {
+                Map.Entry<UUID, CompletableFuture<V>> entry = batch.entrySet().iterator().next();
+                complete(entry.getValue(), () -> singleLookup.apply(entry.getKey()));
+                return;
+            }
+
+            Map<UUID, V> result;
+            try {
+                result = batchLookup.apply(new ArrayList<>(batch.keySet()));
+            } catch (RuntimeException e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+                return;
+            }
+            logger.debug("Coalesced {} user lookups into one batch request", batch.size());
+            batch.forEach((id, future) -> {
+                V value = result != null ? result.get(id) : null;
+                if (value != null) {
+                    future.complete(value);
+                } else {
+                    complete(future, () -> missingValue.apply(id));
+                }
+            });
+        }
+
+        private void complete(CompletableFuture<V> future, Supplier<V> supplier) {
+            try {
+                future.complete(supplier.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -4,7 +4,11 @@ import com.example.assignmentservice.model.enums.UserRole;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @FeignClient(
@@ -18,4 +22,10 @@ public interface UserServiceClient {
 
     @GetMapping("/api/v1/users/{userId}/role")
     UserRole getUserRole(@PathVariable("userId") UUID userId);
+
+    @PostMapping("/api/v1/users/exists:batch")
+    Map<UUID, Boolean> usersExist(@RequestBody List<UUID> userIds);
+
+    @PostMapping("/api/v1/users/roles:batch")
+    Map<UUID, UserRole> getUserRoles(@RequestBody List<UUID> userIds);
 }
\ No newline at end of file
@@ -2,15 +2,19 @@ package com.example.assignmentservice.feign;
 
 import com.example.assignmentservice.exception.ServiceUnavailableException;
 import com.example.assignmentservice.model.enums.UserRole;
+import com.example.common.feign.FeignFallbacks;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Component
 public class UserServiceClientFallbackFactory implements FallbackFactory<UserServiceClient> {
     @Override
     public UserServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new UserServiceClient() {
             @Override
             public Boolean userExists(UUID userId) {
@@ -21,6 +25,16 @@ public class UserServiceClientFallbackFactory implements FallbackFactory<UserSer
             public UserRole getUserRole(UUID userId) {
                 throw new ServiceUnavailableException("User service is unavailable now");
             }
+
+            @Override
+            public Map<UUID, Boolean> usersExist(List<UUID> userIds) {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
+
+            @Override
+            public Map<UUID, UserRole> getUserRoles(List<UUID> userIds) {
+                throw new ServiceUnavailableException("User service is unavailable now");
+            }
         };
     }
 }
\ No newline at end of file
@@ -1,16 +1,25 @@
 package com.example.assignmentservice.repository;
 
+import com.example.assignmentservice.dto.UserProductAssignmentDto;
 import com.example.assignmentservice.model.entity.UserProductAssignment;
 import com.example.assignmentservice.model.enums.AssignmentRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserProductAssignmentRepository extends JpaRepository<UserProductAssignment, UUID> {
@@ -20,18 +29,138 @@ public interface UserProductAssignmentRepository extends JpaRepository<UserProdu
 
     Optional<UserProductAssignment> findByUserIdAndProductId(UUID userId, UUID productId);
 
+    // Отдельный запрос на каждый фильтр: с "(:userId IS NULL OR ...)" план строится один на все сочетания
+    // параметров и индексы idx_upa_user / idx_upa_product не используются.
+    // Пара (user, product) уникальна, её ищет findByUserIdAndProductId.
+    // Курсор сравнивается как строка (assigned_at, id): такое условие Postgres превращает в одну границу
+    // диапазона по idx_upa_assigned_at_id, а "<" с "OR" по отдельности по индексу не ищется
+    String NEWEST_FIRST = " ORDER BY a.assignedAt DESC, a.id DESC";
+    String BEFORE_CURSOR = " (a.assignedAt, a.id) < (:timestamp, :id)";
+    String SELECT_DTO = "SELECT new com.example.assignmentservice.dto.UserProductAssignmentDto(" +
+            "a.id, a.userId, a.productId, a.roleOnProduct, a.assignedAt) FROM UserProductAssignment a";
+
+    @Query("SELECT a FROM UserProductAssignment a" + NEWEST_FIRST)
+    List<UserProductAssignment> findFirstPage(Pageable pageable);
+
+    @Query("SELECT a FROM UserProductAssignment a WHERE a.userId = :userId" + NEWEST_FIRST)
+    List<UserProductAssignment> findFirstPageByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("SELECT a FROM UserProductAssignment a WHERE a.productId = :productId" + NEWEST_FIRST)
+    List<UserProductAssignment> findFirstPageByProductId(@Param("productId") UUID productId, Pageable pageable);
+
+    @Query("SELECT a FROM UserProductAssignment a WHERE" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<UserProductAssignment> findPageByKeyset(@Param("timestamp") Instant timestamp,
+                                                 @Param("id") UUID id,
+                                                 Pageable pageable);
+
+    @Query("SELECT a FROM UserProductAssignment a WHERE a.userId = :userId AND" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<UserProductAssignment> findPageByUserIdAndKeyset(@Param("userId") UUID userId,
+                                                          @Param("timestamp") Instant timestamp,
+                                                          @Param("id") UUID id,
+                                                          Pageable pageable);
+
+    @Query("SELECT a FROM UserProductAssignment a WHERE a.productId = :productId AND" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<UserProductAssignment> findPageByProductIdAndKeyset(@Param("productId") UUID productId,
+                                                             @Param("timestamp") Instant timestamp,
+                                                             @Param("id") UUID id,
+                                                             Pageable pageable);
+
+    // курсор на стороне БД: строки читаются порциями по fetch size, а не все сразу;
+    // проекция в DTO не попадает в persistence context, поэтому память не растёт с размером выгрузки
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + NEWEST_FIRST)
+    Stream<UserProductAssignmentDto> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + " WHERE a.userId = :userId" + NEWEST_FIRST)
+    Stream<UserProductAssignmentDto> streamByUserId(@Param("userId") UUID userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + " WHERE a.productId = :productId" + NEWEST_FIRST)
+    Stream<UserProductAssignmentDto> streamByProductId(@Param("productId") UUID productId);
+
     boolean existsByUserIdAndProductIdAndRoleOnProduct(UUID userId, UUID productId, AssignmentRole role);
     boolean existsByUserIdAndProductId(UUID userId, UUID productId);
 
+    @Query("SELECT a.productId FROM UserProductAssignment a " +
+            "WHERE a.userId = :userId AND a.roleOnProduct = :role AND a.productId IN :productIds")
+    List<UUID> findProductIdsByUserIdAndRole(@Param("userId") UUID userId,
+                                             @Param("role") AssignmentRole role,
+                                             @Param("productIds") Collection<UUID> productIds);
+
+    // массовое назначение одним запросом; пары (user_id, product_id) во входных массивах должны быть уникальны
+    @Query(value = "INSERT INTO user_product_assignment (id, user_id, product_id, role_on_product, assigned_at) " +
+            "SELECT gen_random_uuid(), t.user_id, t.product_id, t.role_on_product, :assignedAt " +
+            "FROM unnest(CAST(ARRAY[:userIds] AS uuid[]), CAST(ARRAY[:productIds] AS uuid[]), " +
+            "            CAST(ARRAY[:roles] AS varchar[])) AS t(user_id, product_id, role_on_product) " +
+            "ON CONFLICT (user_id, product_id) DO UPDATE " +
+            "SET role_on_product = EXCLUDED.role_on_product, assigned_at = EXCLUDED.assigned_at " +
+            "RETURNING id, user_id, product_id, role_on_product, assigned_at",
+            nativeQuery = true)
+    List<UserProductAssignment> upsertAll(@Param("userIds") List<UUID> userIds,
+                                          @Param("productIds") List<UUID> productIds,
+                                          @Param("roles") List<String> roles,
+                                          @Param("assignedAt") Instant assignedAt);
+
+    @Transactional
     @Modifying
     @Query("DELETE FROM UserProductAssignment a WHERE a.userId = :userId AND a.productId = :productId")
-    void deleteByUserIdAndProductId(@Param("userId") UUID userId, @Param("productId") UUID productId);
+    int deleteByUserIdAndProductId(@Param("userId") UUID userId, @Param("productId") UUID productId);
 
+    // удаление порциями: каждая порция - отдельная короткая транзакция, если вызывающий не открыл свою
+    @Transactional
     @Modifying
-    @Query("DELETE FROM UserProductAssignment a WHERE a.userId = :userId")
-    void deleteByUserId(@Param("userId") UUID userId);
+    @Query(value = "DELETE FROM user_product_assignment WHERE id IN (" +
+            "SELECT id FROM user_product_assignment WHERE user_id = :userId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") UUID userId, @Param("limit") int limit);
 
+    @Transactional
     @Modifying
-    @Query("DELETE FROM UserProductAssignment a WHERE a.productId = :productId")
-    void deleteByProductId(@Param("productId") UUID productId);
+    @Query(value = "DELETE FROM user_product_assignment WHERE id IN (" +
+            "SELECT id FROM user_product_assignment WHERE product_id = :productId LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByProductId(@Param("productId") UUID productId, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM user_product_assignment WHERE id IN (" +
+            "SELECT id FROM user_product_assignment WHERE user_id IN (:userIds) LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByUserIds(@Param("userIds") Collection<UUID> userIds, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM user_product_assignment WHERE id IN (" +
+            "SELECT id FROM user_product_assignment WHERE product_id IN (:productIds) LIMIT :limit)",
+            nativeQuery = true)
+    int deleteChunkByProductIds(@Param("productIds") Collection<UUID> productIds, @Param("limit") int limit);
+
+    // постраничный обход различных id для поиска "осиротевших" назначений
+    @Query(value = "SELECT DISTINCT user_id FROM user_product_assignment " +
+            "WHERE user_id > :after ORDER BY user_id LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findUserIdsAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    @Query(value = "SELECT DISTINCT product_id FROM user_product_assignment " +
+            "WHERE product_id > :after ORDER BY product_id LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findProductIdsAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "LOCK TABLE user_product_assignment IN ACCESS EXCLUSIVE MODE", nativeQuery = true)
+    void lockTable();
+
+    @Modifying
+    @Query(value = "TRUNCATE TABLE user_product_assignment", nativeQuery = true)
+    void truncateTable();
+
+    // полная очистка без загрузки сущностей; блокировка нужна, чтобы счётчик совпал с удалённым
+    @Transactional
+    default long truncateAll() {
+        lockTable();
+        long deleted = count();
+        truncateTable();
+        return deleted;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.example.assignmentservice.service;
+
+import com.example.assignmentservice.exception.ServiceUnavailableException;
+import com.example.assignmentservice.feign.PeerLookupCoalescer;
+import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import com.example.common.event.EntityDeletedEvent;
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Удаление назначений удалённых пользователей и продуктов.
+// События от user-service и product-service копятся и обрабатываются пачками;
+// периодический sweeper находит назначения, событие о которых было потеряно.
+@Service
+public class AssignmentCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentCleanupService.class);
+    private static final int SWEEP_PAGE_SIZE = 500;
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final UserProductAssignmentService assignmentService;
+    private final UserProductAssignmentRepository repo;
+    private final PeerLookupCoalescer peerLookups;
+    private final Set<UUID> deletedUsers = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> deletedProducts = ConcurrentHashMap.newKeySet();
+
+    public AssignmentCleanupService(UserProductAssignmentService assignmentService,
+                                    UserProductAssignmentRepository repo,
+                                    PeerLookupCoalescer peerLookups) {
+        this.assignmentService = assignmentService;
+        this.repo = repo;
+        this.peerLookups = peerLookups;
+    }
+
+    public void accept(EntityDeletedEvent event) {
+        logger.info("Received deletion event: {} {}", event.getEntityType(), event.getEntityId());
+        switch (event.getEntityType()) {
+            case USER -> deletedUsers.add(event.getEntityId());
+            case PRODUCT -> deletedProducts.add(event.getEntityId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${assignment.cleanup.flush-interval:PT1S}")
+    public void processPendingEvents() {
+        flush(deletedUsers, assignmentService::deleteByUserIds, "users");
+        flush(deletedProducts, assignmentService::deleteByProductIds, "products");
+    }
+
+    @Scheduled(fixedDelayString = "${assignment.cleanup.sweep-interval:PT1H}",
+            initialDelayString = "${assignment.cleanup.sweep-interval:PT1H}")
+    public void sweepOrphans() {
+        try {
+            long users = sweep(repo::findUserIdsAfter, peerLookups::usersExist, assignmentService::deleteByUserIds);
+            long products = sweep(repo::findProductIdsAfter, peerLookups::productsExist,
+                    assignmentService::deleteByProductIds);
+            logger.info("Orphan sweep finished: {} assignments of deleted users, {} of deleted products",
+                    users, products);
+        } catch (FeignException | ServiceUnavailableException e) {
+            // без достоверного ответа соседнего сервиса ничего не удаляем
+            logger.warn("Orphan sweep aborted: {}", e.getMessage());
+        }
+    }
+
+    private void flush(Set<UUID> pending, Function<Collection<UUID>, Long> delete, String kind) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<UUID> batch = new ArrayList<>(pending);
+        pending.removeAll(batch);
+        try {
+            long deleted = delete.apply(batch);
+            logger.info("Deleted {} assignments of {} deleted {}", deleted, batch.size(), kind);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to delete assignments of deleted {}, will retry: {}", kind, e.getMessage());
+            pending.addAll(batch);
+        }
+    }
+
+    private long sweep(BiFunction<UUID, Integer, List<UUID>> page,
+                       Function<Collection<UUID>, Map<UUID, Boolean>> exists,
+                       Function<Collection<UUID>, Long> delete) {
+        long deleted = 0;
+        UUID after = MIN_UUID;
+        List<UUID> ids;
+        do {
+            ids = page.apply(after, SWEEP_PAGE_SIZE);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Map<UUID, Boolean> found = exists.apply(ids);
+            List<UUID> orphans = ids.stream()
+                    .filter(id -> Boolean.FALSE.equals(found.get(id)))
+                    .toList();
+            deleted += delete.apply(orphans);
+            after = ids.get(ids.size() - 1);
+        } while (ids.size() == SWEEP_PAGE_SIZE);
+        return deleted;
+    }
+}
@@ -1,43 +1,55 @@
 package com.example.assignmentservice.service;
 
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
+import com.example.assignmentservice.dto.UserProductAssignmentRequest;
 import com.example.assignmentservice.exception.*;
-import com.example.assignmentservice.feign.ProductServiceClient;
-import com.example.assignmentservice.feign.UserServiceClient;
+import com.example.assignmentservice.feign.PeerLookupCoalescer;
 import com.example.assignmentservice.model.entity.UserProductAssignment;
 import com.example.assignmentservice.model.enums.AssignmentRole;
 import com.example.assignmentservice.model.enums.UserRole;
 import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import com.example.assignmentservice.util.AssignmentPage;
+import com.example.assignmentservice.util.CursorUtil;
 import feign.FeignException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
 public class UserProductAssignmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserProductAssignmentService.class);
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int DELETE_CHUNK_SIZE = 5000;
 
     private final UserProductAssignmentRepository repo;
-    private final UserServiceClient userServiceClient;
-    private final ProductServiceClient productServiceClient;
+    private final PeerLookupCoalescer peerLookups;
 
     @Autowired
     public UserProductAssignmentService(
             UserProductAssignmentRepository repo,
-            UserServiceClient userServiceClient,
-            ProductServiceClient productServiceClient) {
+            PeerLookupCoalescer peerLookups) {
         this.repo = repo;
-        this.userServiceClient = userServiceClient;
-        this.productServiceClient = productServiceClient;
+        this.peerLookups = peerLookups;
     }
 
     @Transactional
@@ -69,6 +81,48 @@ public class UserProductAssignmentService {
         return repo.save(assignment);
     }
 
+    @Transactional
+    public List<UserProductAssignment> assignBatch(UUID actorId, List<UserProductAssignmentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("At least one assignment is required");
+        }
+
+        // повторяющиеся пары (user, product) схлопываются, побеждает последняя роль
+        Map<AssignmentKey, AssignmentRole> unique = new LinkedHashMap<>();
+        for (UserProductAssignmentRequest req : requests) {
+            if (req == null || req.getUserId() == null || req.getProductId() == null || req.getRole() == null) {
+                throw new BadRequestException("User ID, product ID and role are required for every assignment");
+            }
+            unique.put(new AssignmentKey(req.getUserId(), req.getProductId()), req.getRole());
+        }
+        if (unique.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch size cannot exceed " + MAX_BATCH_SIZE);
+        }
+
+        Set<UUID> userIds = new LinkedHashSet<>();
+        Set<UUID> productIds = new LinkedHashSet<>();
+        unique.keySet().forEach(key -> {
+            userIds.add(key.userId());
+            productIds.add(key.productId());
+        });
+        logger.info("Creating {} assignments: users={}, products={}, actor={}",
+                unique.size(), userIds.size(), productIds.size(), actorId);
+
+        checkActorRights(actorId, productIds);
+        checkUsersExist(userIds);
+        checkProductsExist(productIds);
+
+        List<UUID> batchUserIds = new ArrayList<>(unique.size());
+        List<UUID> batchProductIds = new ArrayList<>(unique.size());
+        List<String> batchRoles = new ArrayList<>(unique.size());
+        unique.forEach((key, role) -> {
+            batchUserIds.add(key.userId());
+            batchProductIds.add(key.productId());
+            batchRoles.add(role.name());
+        });
+        return repo.upsertAll(batchUserIds, batchProductIds, batchRoles, Instant.now());
+    }
+
     @Transactional(readOnly = true)
     public List<UserProductAssignmentDto> list(UUID userId, UUID productId) {
         List<UserProductAssignment> assignments;
@@ -86,8 +140,86 @@ public class UserProductAssignmentService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
-    public void deleteAssignments(UUID actorId, UUID userId, UUID productId) {
+    @Transactional(readOnly = true)
+    public AssignmentPage listPage(UUID userId, UUID productId, String cursor, int limit) {
+        if (limit <= 0) {
+            throw new BadRequestException("limit must be greater than 0");
+        }
+        PageRequest page = PageRequest.of(0, limit);
+
+        List<UserProductAssignment> assignments;
+        if (cursor == null || cursor.isBlank()) {
+            assignments = findFirstPage(userId, productId, page);
+        } else {
+            CursorUtil.Decoded decoded = CursorUtil.decode(cursor);
+            if (decoded == null) {
+                throw new BadRequestException("Invalid cursor format");
+            }
+            assignments = findPageByKeyset(userId, productId, decoded, page);
+        }
+
+        List<UserProductAssignmentDto> items = assignments.stream()
+                .map(this::toDto)
+                .toList();
+        String nextCursor = null;
+        if (assignments.size() == limit) {
+            UserProductAssignment last = assignments.get(assignments.size() - 1);
+            nextCursor = CursorUtil.encode(last.getAssignedAt(), last.getId());
+        }
+        return new AssignmentPage(items, nextCursor);
+    }
+
+    // Выгрузка без материализации всей таблицы: строки идут из курсора БД прямо в sink
+    @Transactional(readOnly = true)
+    public void exportAssignments(UUID userId, UUID productId, Consumer<UserProductAssignmentDto> sink) {
+        try (Stream<UserProductAssignmentDto> rows = streamAll(userId, productId)) {
+            rows.forEach(sink);
+        }
+    }
+
+    // для каждого сочетания фильтров свой запрос, чтобы планировщик видел конкретное условие
+    private List<UserProductAssignment> findFirstPage(UUID userId, UUID productId, PageRequest page) {
+        if (userId != null && productId != null) {
+            return repo.findByUserIdAndProductId(userId, productId).stream().toList();
+        } else if (userId != null) {
+            return repo.findFirstPageByUserId(userId, page);
+        } else if (productId != null) {
+            return repo.findFirstPageByProductId(productId, page);
+        }
+        return repo.findFirstPage(page);
+    }
+
+    private List<UserProductAssignment> findPageByKeyset(UUID userId, UUID productId, CursorUtil.Decoded cursor,
+                                                         PageRequest page) {
+        if (userId != null && productId != null) {
+            // строки uuid сравниваются как в Postgres; UUID.compareTo сравнивает знаковые long
+            return repo.findByUserIdAndProductId(userId, productId)
+                    .filter(a -> a.getAssignedAt().isBefore(cursor.timestamp)
+                            || (a.getAssignedAt().equals(cursor.timestamp)
+                                && a.getId().toString().compareTo(cursor.id.toString()) < 0))
+                    .stream()
+                    .toList();
+        } else if (userId != null) {
+            return repo.findPageByUserIdAndKeyset(userId, cursor.timestamp, cursor.id, page);
+        } else if (productId != null) {
+            return repo.findPageByProductIdAndKeyset(productId, cursor.timestamp, cursor.id, page);
+        }
+        return repo.findPageByKeyset(cursor.timestamp, cursor.id, page);
+    }
+
+    private Stream<UserProductAssignmentDto> streamAll(UUID userId, UUID productId) {
+        if (userId != null && productId != null) {
+            return repo.findByUserIdAndProductId(userId, productId).stream().map(this::toDto);
+        } else if (userId != null) {
+            return repo.streamByUserId(userId);
+        } else if (productId != null) {
+            return repo.streamByProductId(productId);
+        }
+        return repo.streamAll();
+    }
+
+    // Без общей транзакции: массовые удаления идут порциями в собственных транзакциях
+    public long deleteAssignments(UUID actorId, UUID userId, UUID productId) {
         logger.info("Deleting assignments: actor={}, user={}, product={}",
                 actorId, userId, productId);
 
@@ -99,23 +231,28 @@ public class UserProductAssignmentService {
 
         if (userId != null && productId != null) {
             checkUserAndProductExist(userId, productId);
-            repo.deleteByUserIdAndProductId(userId, productId);
-            logger.info("Deleted assignment for user {} and product {}", userId, productId);
-
         } else if (userId != null) {
             checkUserExists(userId);
-            repo.deleteByUserId(userId);
-            logger.info("Deleted all assignments for user {}", userId);
-
         } else if (productId != null) {
             checkProductExists(productId);
-            repo.deleteByProductId(productId);
-            logger.info("Deleted all assignments for product {}", productId);
+        }
+
+        long deleted;
+        if (userId != null && productId != null) {
+            deleted = repo.deleteByUserIdAndProductId(userId, productId);
+            logger.info("Deleted {} assignment(s) for user {} and product {}", deleted, userId, productId);
+
+        } else if (userId != null) {
+            deleted = deleteInChunks("user " + userId, limit -> repo.deleteChunkByUserId(userId, limit));
+
+        } else if (productId != null) {
+            deleted = deleteInChunks("product " + productId, limit -> repo.deleteChunkByProductId(productId, limit));
 
         } else {
-            repo.deleteAll();
-            logger.info("Deleted all assignments");
+            deleted = repo.truncateAll();
+            logger.info("Deleted all {} assignments", deleted);
         }
+        return deleted;
     }
 
     @Transactional(readOnly = true)
@@ -123,27 +260,74 @@ public class UserProductAssignmentService {
         return repo.existsByUserIdAndProductIdAndRoleOnProduct(userId, productId, role);
     }
 
-    @Transactional
-    public void deleteByProductId(UUID productId) {
-        repo.deleteByProductId(productId);
+    public long deleteByProductId(UUID productId) {
+        return deleteInChunks("product " + productId, limit -> repo.deleteChunkByProductId(productId, limit));
     }
 
-    @Transactional
-    public void deleteByUserId(UUID userId) {
-        repo.deleteByUserId(userId);
+    public long deleteByUserId(UUID userId) {
+        return deleteInChunks("user " + userId, limit -> repo.deleteChunkByUserId(userId, limit));
+    }
+
+    public long deleteByUserIds(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        return deleteInChunks(userIds.size() + " user(s)", limit -> repo.deleteChunkByUserIds(userIds, limit));
+    }
+
+    public long deleteByProductIds(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        return deleteInChunks(productIds.size() + " product(s)",
+                limit -> repo.deleteChunkByProductIds(productIds, limit));
     }
 
     // Вспомогательные методы
+
+    private long deleteInChunks(String scope, IntUnaryOperator deleteChunk) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = deleteChunk.applyAsInt(DELETE_CHUNK_SIZE);
+            total += deleted;
+            if (deleted == DELETE_CHUNK_SIZE) {
+                logger.info("Deleting assignments for {}: {} deleted so far", scope, total);
+            }
+        } while (deleted == DELETE_CHUNK_SIZE);
+        logger.info("Deleted {} assignments for {}", total, scope);
+        return total;
+    }
+
     private void checkActorRights(UUID actorId, UUID productId) {
         try {
-            UserRole actorRole = userServiceClient.getUserRole(actorId);
+            UserRole actorRole = peerLookups.getUserRole(actorId);
             boolean isAdmin = actorRole == UserRole.ROLE_ADMIN;
             boolean isOwner = repo.existsByUserIdAndProductIdAndRoleOnProduct(
                     actorId, productId, AssignmentRole.PRODUCT_OWNER);
             if (!isAdmin && !isOwner) {
                 throw new ForbiddenException("Only ADMIN or PRODUCT_OWNER can assign products");
             }
-        } catch (FeignException.NotFound e) {
+        } catch (FeignException.NotFound | NotFoundException e) {
+            throw new NotFoundException("Actor not found: " + actorId);
+        } catch (FeignException | ServiceUnavailableException e) {
+            logger.error("Error checking actor rights: {}", e.getMessage());
+            throw new ServiceUnavailableException("Cannot verify user rights. User service is unavailable now");
+        }
+    }
+
+    private void checkActorRights(UUID actorId, Set<UUID> productIds) {
+        try {
+            UserRole actorRole = peerLookups.getUserRole(actorId);
+            if (actorRole == UserRole.ROLE_ADMIN) {
+                return;
+            }
+            Set<UUID> ownedProducts = new HashSet<>(repo.findProductIdsByUserIdAndRole(
+                    actorId, AssignmentRole.PRODUCT_OWNER, productIds));
+            if (!ownedProducts.containsAll(productIds)) {
+                throw new ForbiddenException("Only ADMIN or PRODUCT_OWNER can assign products");
+            }
+        } catch (FeignException.NotFound | NotFoundException e) {
             throw new NotFoundException("Actor not found: " + actorId);
         } catch (FeignException | ServiceUnavailableException e) {
             logger.error("Error checking actor rights: {}", e.getMessage());
@@ -153,11 +337,11 @@ public class UserProductAssignmentService {
 
     private void checkAdminRights(UUID actorId) {
         try {
-            UserRole actorRole = userServiceClient.getUserRole(actorId);
+            UserRole actorRole = peerLookups.getUserRole(actorId);
             if (actorRole != UserRole.ROLE_ADMIN) {
                 throw new ForbiddenException("Only ADMIN can delete assignments");
             }
-        } catch (FeignException.NotFound e) {
+        } catch (FeignException.NotFound | NotFoundException e) {
             throw new NotFoundException("Actor not found: " + actorId);
         } catch (FeignException | ServiceUnavailableException e) {
             logger.error("Error checking admin rights: {}", e.getMessage());
@@ -172,7 +356,7 @@ public class UserProductAssignmentService {
 
     private void checkUserExists(UUID userId) {
         try {
-            Boolean exists = userServiceClient.userExists(userId);
+            Boolean exists = peerLookups.userExists(userId);
             if (!exists) {
                 throw new NotFoundException("User not found: " + userId);
             }
@@ -182,9 +366,39 @@ public class UserProductAssignmentService {
         }
     }
 
+    private void checkUsersExist(Set<UUID> userIds) {
+        Map<UUID, Boolean> exists;
+        try {
+            exists = peerLookups.usersExist(userIds);
+        } catch (FeignException | ServiceUnavailableException e) {
+            logger.error("Error checking users existence: {}", e.getMessage());
+            throw new ServiceUnavailableException("Cannot verify users. User service unavailable now");
+        }
+        exists.forEach((userId, found) -> {
+            if (!found) {
+                throw new NotFoundException("User not found: " + userId);
+            }
+        });
+    }
+
+    private void checkProductsExist(Set<UUID> productIds) {
+        Map<UUID, Boolean> exists;
+        try {
+            exists = peerLookups.productsExist(productIds);
+        } catch (FeignException | ServiceUnavailableException e) {
+            logger.error("Error checking products existence: {}", e.getMessage());
+            throw new ServiceUnavailableException("Cannot verify products. Product service unavailable now");
+        }
+        exists.forEach((productId, found) -> {
+            if (!found) {
+                throw new NotFoundException("Product not found: " + productId);
+            }
+        });
+    }
+
     private void checkProductExists(UUID productId) {
         try {
-            Boolean exists = productServiceClient.productExists(productId);
+            Boolean exists = peerLookups.productExists(productId);
             if (!exists) {
                 throw new NotFoundException("Product not found: " + productId);
             }
@@ -203,4 +417,6 @@ public class UserProductAssignmentService {
         dto.setAssignedAt(assignment.getAssignedAt());
         return dto;
     }
-}
\ No newline at end of file
+
+    private record AssignmentKey(UUID userId, UUID productId) { }
+}
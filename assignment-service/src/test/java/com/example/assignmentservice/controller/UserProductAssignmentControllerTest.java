@@ -1,25 +1,39 @@
 package com.example.assignmentservice.controller;
 
 import com.example.assignmentservice.controller.UserProductAssignmentController;
+import com.example.assignmentservice.dto.AssignmentDeletionResult;
+import com.example.assignmentservice.dto.UserProductAssignmentBatchRequest;
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
 import com.example.assignmentservice.dto.UserProductAssignmentRequest;
+import com.example.assignmentservice.exception.BadRequestException;
 import com.example.assignmentservice.model.entity.UserProductAssignment;
 import com.example.assignmentservice.model.enums.AssignmentRole;
+import com.example.assignmentservice.service.AssignmentCleanupService;
 import com.example.assignmentservice.service.UserProductAssignmentService;
+import com.example.assignmentservice.util.AssignmentPage;
+import com.example.common.event.DeletedEntityType;
+import com.example.common.event.EntityDeletedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +43,12 @@ class UserProductAssignmentControllerTest {
     @Mock
     private UserProductAssignmentService service;
 
+    @Mock
+    private AssignmentCleanupService cleanupService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private UserProductAssignmentController controller;
 
@@ -54,6 +74,74 @@ class UserProductAssignmentControllerTest {
         testAssignment.setRoleOnProduct(AssignmentRole.PRODUCT_OWNER);
     }
 
+    @Test
+    void assignBatch_Success_ReturnsOk() {
+        // Arrange
+        UserProductAssignmentRequest item = new UserProductAssignmentRequest();
+        item.setUserId(testUserId);
+        item.setProductId(testProductId);
+        item.setRole(AssignmentRole.PRODUCT_OWNER);
+        UserProductAssignmentBatchRequest req = new UserProductAssignmentBatchRequest();
+        req.setAssignments(List.of(item));
+
+        when(service.assignBatch(actorId, req.getAssignments())).thenReturn(List.of(testAssignment));
+        when(service.toDto(testAssignment)).thenReturn(testDto);
+
+        // Act
+        ResponseEntity<List<UserProductAssignmentDto>> response = controller.assignBatch(req, actorId);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(testDto);
+    }
+
+    @Test
+    void listPage_LimitTooLarge_ThrowsBadRequest() {
+        assertThatThrownBy(() -> controller.listPage(null, null, null, 51))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void listPage_Success_ReturnsPage() {
+        AssignmentPage page = new AssignmentPage(List.of(testDto), "cursor");
+        when(service.listPage(testUserId, null, null, 20)).thenReturn(page);
+
+        ResponseEntity<AssignmentPage> response = controller.listPage(testUserId, null, null, 20);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(page);
+    }
+
+    @Test
+    void export_WritesOneJsonLinePerAssignment() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserProductAssignmentDto> sink = invocation.getArgument(2);
+            sink.accept(testDto);
+            sink.accept(testDto);
+            return null;
+        }).when(service).exportAssignments(eq(null), eq(testProductId), any());
+
+        ResponseEntity<StreamingResponseBody> response = controller.export(null, testProductId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(response.getHeaders().getContentType().toString()).isEqualTo("application/x-ndjson");
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], UserProductAssignmentDto.class).getId()).isEqualTo(assignmentId);
+    }
+
+    @Test
+    void onEntityDeleted_QueuesEventAndReturnsAccepted() {
+        EntityDeletedEvent event = new EntityDeletedEvent(DeletedEntityType.PRODUCT, testProductId);
+
+        ResponseEntity<Void> response = controller.onEntityDeleted(event);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        verify(cleanupService).accept(event);
+    }
+
     @Test
     void assign_Success_ReturnsCreated() {
         // Arrange
@@ -155,13 +243,14 @@ class UserProductAssignmentControllerTest {
     @Test
     void deleteAssignments_WithAllParams_DeletesWithFilters() {
         // Arrange
-        doNothing().when(service).deleteAssignments(actorId, testUserId, testProductId);
+        when(service.deleteAssignments(actorId, testUserId, testProductId)).thenReturn(3L);
 
         // Act
-        ResponseEntity<Void> response = controller.deleteAssignments(actorId, testUserId, testProductId);
+        ResponseEntity<AssignmentDeletionResult> response = controller.deleteAssignments(actorId, testUserId, testProductId);
 
         // Assert
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getDeleted()).isEqualTo(3L);
 
         verify(service).deleteAssignments(actorId, testUserId, testProductId);
     }
@@ -169,13 +258,14 @@ class UserProductAssignmentControllerTest {
     @Test
     void deleteAssignments_WithoutFilters_DeletesAll() {
         // Arrange
-        doNothing().when(service).deleteAssignments(actorId, null, null);
+        when(service.deleteAssignments(actorId, null, null)).thenReturn(3L);
 
         // Act
-        ResponseEntity<Void> response = controller.deleteAssignments(actorId, null, null);
+        ResponseEntity<AssignmentDeletionResult> response = controller.deleteAssignments(actorId, null, null);
 
         // Assert
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getDeleted()).isEqualTo(3L);
 
         verify(service).deleteAssignments(actorId, null, null);
     }
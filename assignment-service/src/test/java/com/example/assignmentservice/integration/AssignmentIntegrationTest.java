@@ -1,6 +1,8 @@
 package com.example.assignmentservice.integration;
 
 import com.example.assignmentservice.AssignmentServiceApplication;
+import com.example.assignmentservice.dto.AssignmentDeletionResult;
+import com.example.assignmentservice.dto.UserProductAssignmentBatchRequest;
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
 import com.example.assignmentservice.dto.UserProductAssignmentRequest;
 import com.example.assignmentservice.feign.ProductServiceClient;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.*;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -24,8 +27,10 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -371,88 +376,92 @@ public class AssignmentIntegrationTest {
     }
 
     @Test
-    void deleteAssignments_asAdmin_deleteByUserAndProduct_shouldReturnNoContent() {
+    void deleteAssignments_asAdmin_deleteByUserAndProduct_shouldReturnDeletedCount() {
         // Создаем назначение для удаления
         createAssignmentAsOwner();
 
-        ResponseEntity<Void> response = restTemplate.exchange(
+        ResponseEntity<AssignmentDeletionResult> response = restTemplate.exchange(
                 "/api/v1/assignments?actorId={actorId}&userId={userId}&productId={productId}",
                 HttpMethod.DELETE,
                 null,
-                Void.class,
+                AssignmentDeletionResult.class,
                 adminUserId, productOwnerUserId, productId
         );
 
-        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getDeleted());
         assertFalse(assignmentRepository.existsByUserIdAndProductId(productOwnerUserId, productId));
     }
 
     @Test
-    void deleteAssignments_asAdmin_deleteAllUserAssignments_shouldReturnNoContent() {
+    void deleteAssignments_asAdmin_deleteAllUserAssignments_shouldReturnDeletedCount() {
         // Создаем несколько назначений для пользователя
         createTestAssignments();
 
         List<UserProductAssignment> userAssignments = assignmentRepository.findByUserId(regularUserId);
         long beforeCount = userAssignments.stream().count();
 
-        ResponseEntity<Void> response = restTemplate.exchange(
+        ResponseEntity<AssignmentDeletionResult> response = restTemplate.exchange(
                 "/api/v1/assignments?actorId={actorId}&userId={userId}",
                 HttpMethod.DELETE,
                 null,
-                Void.class,
+                AssignmentDeletionResult.class,
                 adminUserId, regularUserId
         );
 
         List<UserProductAssignment> userAssignmentsAfter = assignmentRepository.findByUserId(regularUserId);
         long afterCount = userAssignmentsAfter.stream().count();
 
-        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(0, afterCount);
         assertTrue(beforeCount > 0);
+        assertEquals(beforeCount, response.getBody().getDeleted());
     }
 
     @Test
-    void deleteAssignments_asAdmin_deleteAllProductAssignments_shouldReturnNoContent() {
+    void deleteAssignments_asAdmin_deleteAllProductAssignments_shouldReturnDeletedCount() {
         // Создаем несколько назначений для продукта
         createTestAssignments();
 
         List<UserProductAssignment> productAssignments = assignmentRepository.findByProductId(productId);
         long beforeCount = productAssignments.stream().count();
 
-        ResponseEntity<Void> response = restTemplate.exchange(
+        ResponseEntity<AssignmentDeletionResult> response = restTemplate.exchange(
                 "/api/v1/assignments?actorId={actorId}&productId={productId}",
                 HttpMethod.DELETE,
                 null,
-                Void.class,
+                AssignmentDeletionResult.class,
                 adminUserId, productId
         );
 
         List<UserProductAssignment> productAssignmentsAfter = assignmentRepository.findByProductId(productId);
         long afterCount = productAssignmentsAfter.stream().count();
 
-        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(0, afterCount);
         assertTrue(beforeCount > 0);
+        assertEquals(beforeCount, response.getBody().getDeleted());
     }
 
     @Test
-    void deleteAssignments_asAdmin_deleteAll_shouldReturnNoContent() {
+    void deleteAssignments_asAdmin_deleteAll_shouldReturnDeletedCount() {
         // Создаем несколько назначений
         createTestAssignments();
 
         long beforeCount = assignmentRepository.count();
 
-        ResponseEntity<Void> response = restTemplate.exchange(
+        ResponseEntity<AssignmentDeletionResult> response = restTemplate.exchange(
                 "/api/v1/assignments?actorId={actorId}",
                 HttpMethod.DELETE,
                 null,
-                Void.class,
+                AssignmentDeletionResult.class,
                 adminUserId
         );
 
-        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(0, assignmentRepository.count());
         assertTrue(beforeCount > 0);
+        assertEquals(beforeCount, response.getBody().getDeleted());
     }
 
     @Test
@@ -518,7 +527,98 @@ public class AssignmentIntegrationTest {
         assertEquals(AssignmentRole.RESELLER, updated.get().getRoleOnProduct());
     }
 
+    @Test
+    void assignBatch_asAdmin_shouldUpsertAllAssignments() {
+        UserProductAssignment existing = new UserProductAssignment();
+        existing.setId(UUID.randomUUID());
+        existing.setUserId(regularUserId);
+        existing.setProductId(productId);
+        existing.setRoleOnProduct(AssignmentRole.VIEWER);
+        existing.setAssignedAt(Instant.now());
+        assignmentRepository.save(existing);
+
+        when(userServiceClient.usersExist(any())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> true));
+        });
+        when(productServiceClient.productsExist(any())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> true));
+        });
+
+        UserProductAssignmentBatchRequest request = new UserProductAssignmentBatchRequest();
+        request.setAssignments(List.of(
+                batchItem(regularUserId, productId, AssignmentRole.RESELLER),
+                batchItem(regularUserId, anotherProductId, AssignmentRole.SUPPORT),
+                batchItem(productOwnerUserId, productId, AssignmentRole.VIEWER),
+                batchItem(productOwnerUserId, productId, AssignmentRole.PRODUCT_OWNER)));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<UserProductAssignmentDto[]> response = restTemplate.exchange(
+                "/api/v1/assignments/batch?actorId={actorId}",
+                HttpMethod.POST,
+                new HttpEntity<>(request, headers),
+                UserProductAssignmentDto[].class,
+                adminUserId
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, response.getBody().length);
+        assertEquals(3, assignmentRepository.count());
+
+        var updated = assignmentRepository.findByUserIdAndProductId(regularUserId, productId);
+        assertTrue(updated.isPresent());
+        assertEquals(existing.getId(), updated.get().getId());
+        assertEquals(AssignmentRole.RESELLER, updated.get().getRoleOnProduct());
+        assertEquals(AssignmentRole.PRODUCT_OWNER,
+                assignmentRepository.findByUserIdAndProductId(productOwnerUserId, productId).get().getRoleOnProduct());
+    }
+
     // Вспомогательные методы
+    private UserProductAssignmentRequest batchItem(UUID userId, UUID productId, AssignmentRole role) {
+        UserProductAssignmentRequest request = new UserProductAssignmentRequest();
+        request.setUserId(userId);
+        request.setProductId(productId);
+        request.setRole(role);
+        return request;
+    }
+
+    @Test
+    void keysetPages_withEqualAssignedAt_coverAllRowsInOrder() {
+        // одинаковое время назначения: порядок внутри страницы и между страницами задаёт только id
+        Instant assignedAt = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            UserProductAssignment assignment = new UserProductAssignment();
+            assignment.setId(UUID.randomUUID());
+            assignment.setUserId(regularUserId);
+            assignment.setProductId(UUID.randomUUID());
+            assignment.setRoleOnProduct(AssignmentRole.VIEWER);
+            assignment.setAssignedAt(assignedAt);
+            assignmentRepository.save(assignment);
+        }
+        List<UUID> expected = assignmentRepository.findFirstPageByUserId(regularUserId, PageRequest.of(0, 10))
+                .stream().map(UserProductAssignment::getId).toList();
+
+        PageRequest page = PageRequest.of(0, 2);
+        List<UserProductAssignment> all = new ArrayList<>(assignmentRepository.findFirstPage(page));
+        List<UserProductAssignment> byUser = new ArrayList<>(assignmentRepository.findFirstPageByUserId(regularUserId, page));
+        for (int i = 0; i < 2; i++) {
+            UserProductAssignment lastOfAll = all.get(all.size() - 1);
+            all.addAll(assignmentRepository.findPageByKeyset(lastOfAll.getAssignedAt(), lastOfAll.getId(), page));
+            UserProductAssignment lastOfUser = byUser.get(byUser.size() - 1);
+            byUser.addAll(assignmentRepository.findPageByUserIdAndKeyset(
+                    regularUserId, lastOfUser.getAssignedAt(), lastOfUser.getId(), page));
+        }
+
+        assertEquals(5, expected.size());
+        assertEquals(expected, all.stream().map(UserProductAssignment::getId).toList());
+        assertEquals(expected, byUser.stream().map(UserProductAssignment::getId).toList());
+        UserProductAssignment last = byUser.get(byUser.size() - 1);
+        assertTrue(assignmentRepository.findPageByUserIdAndKeyset(
+                regularUserId, last.getAssignedAt(), last.getId(), page).isEmpty());
+    }
+
     private void createAssignmentAsOwner() {
         UserProductAssignment assignment = new UserProductAssignment();
         assignment.setId(UUID.randomUUID());
@@ -1,32 +1,52 @@
 package com.example.assignmentservice.service;
 
 import com.example.assignmentservice.dto.UserProductAssignmentDto;
+import com.example.assignmentservice.dto.UserProductAssignmentRequest;
+import com.example.assignmentservice.exception.BadRequestException;
 import com.example.assignmentservice.exception.ForbiddenException;
 import com.example.assignmentservice.exception.NotFoundException;
 import com.example.assignmentservice.exception.ServiceUnavailableException;
 import com.example.assignmentservice.exception.UnauthorizedException;
+import com.example.assignmentservice.feign.PeerLookupCoalescer;
 import com.example.assignmentservice.feign.ProductServiceClient;
+import com.example.assignmentservice.feign.UserLookupBatcher;
 import com.example.assignmentservice.feign.UserServiceClient;
 import com.example.assignmentservice.model.entity.UserProductAssignment;
 import com.example.assignmentservice.model.enums.AssignmentRole;
 import com.example.assignmentservice.model.enums.UserRole;
 import com.example.assignmentservice.repository.UserProductAssignmentRepository;
+import com.example.assignmentservice.service.AssignmentCleanupService;
 import com.example.assignmentservice.service.UserProductAssignmentService;
+import com.example.assignmentservice.util.AssignmentPage;
+import com.example.assignmentservice.util.CursorUtil;
+import com.example.common.event.DeletedEntityType;
+import com.example.common.event.EntityDeletedEvent;
 import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,7 +61,8 @@ class AssignmentServiceTest {
     @Mock
     private ProductServiceClient productServiceClient;
 
-    @InjectMocks
+    private PeerLookupCoalescer peerLookups;
+
     private UserProductAssignmentService svc;
 
     private UUID actorId;
@@ -53,6 +74,10 @@ class AssignmentServiceTest {
         actorId = UUID.randomUUID();
         userId = UUID.randomUUID();
         productId = UUID.randomUUID();
+        peerLookups = new PeerLookupCoalescer(
+                new UserLookupBatcher(userServiceClient, Duration.ZERO, 100, Duration.ofSeconds(5), 2),
+                productServiceClient, new SimpleMeterRegistry());
+        svc = new UserProductAssignmentService(repo, peerLookups);
     }
 
     // -----------------------
@@ -316,7 +341,7 @@ class AssignmentServiceTest {
         svc.deleteAssignments(actorId, userId, null);
 
         // Assert
-        verify(repo, times(1)).deleteByUserId(userId);
+        verify(repo, times(1)).deleteChunkByUserId(eq(userId), anyInt());
         verify(userServiceClient, times(1)).userExists(userId);
         verify(productServiceClient, never()).productExists(any());
     }
@@ -331,7 +356,7 @@ class AssignmentServiceTest {
         svc.deleteAssignments(actorId, null, productId);
 
         // Assert
-        verify(repo, times(1)).deleteByProductId(productId);
+        verify(repo, times(1)).deleteChunkByProductId(eq(productId), anyInt());
         verify(productServiceClient, times(1)).productExists(productId);
         verify(userServiceClient, never()).userExists(any());
     }
@@ -345,11 +370,37 @@ class AssignmentServiceTest {
         svc.deleteAssignments(actorId, null, null);
 
         // Assert
-        verify(repo, times(1)).deleteAll();
+        verify(repo, times(1)).truncateAll();
+        verify(repo, never()).deleteAll();
         verify(userServiceClient, never()).userExists(any());
         verify(productServiceClient, never()).productExists(any());
     }
 
+    @Test
+    void deleteAssignments_deleteByProduct_deletesInChunksAndReturnsCount() {
+        // Arrange
+        when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_ADMIN);
+        when(productServiceClient.productExists(productId)).thenReturn(true);
+        when(repo.deleteChunkByProductId(eq(productId), anyInt())).thenReturn(5000, 5000, 12);
+
+        // Act
+        long deleted = svc.deleteAssignments(actorId, null, productId);
+
+        // Assert
+        assertEquals(10012, deleted);
+        verify(repo, times(3)).deleteChunkByProductId(eq(productId), anyInt());
+    }
+
+    @Test
+    void deleteAssignments_deleteAll_returnsTruncatedCount() {
+        // Arrange
+        when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_ADMIN);
+        when(repo.truncateAll()).thenReturn(42L);
+
+        // Act & Assert
+        assertEquals(42, svc.deleteAssignments(actorId, null, null));
+    }
+
     @Test
     void deleteAssignments_throwsNotFoundException_whenUserNotFound() {
         // Arrange
@@ -360,7 +411,7 @@ class AssignmentServiceTest {
         assertThrows(NotFoundException.class,
                 () -> svc.deleteAssignments(actorId, userId, null));
 
-        verify(repo, never()).deleteByUserId(any());
+        verify(repo, never()).deleteChunkByUserId(any(), anyInt());
     }
 
     @Test
@@ -422,7 +473,7 @@ class AssignmentServiceTest {
         svc.deleteByProductId(productId);
 
         // Assert
-        verify(repo, times(1)).deleteByProductId(productId);
+        verify(repo, times(1)).deleteChunkByProductId(eq(productId), anyInt());
     }
 
     @Test
@@ -431,7 +482,7 @@ class AssignmentServiceTest {
         svc.deleteByUserId(userId);
 
         // Assert
-        verify(repo, times(1)).deleteByUserId(userId);
+        verify(repo, times(1)).deleteChunkByUserId(eq(userId), anyInt());
     }
 
     // -----------------------
@@ -496,4 +547,276 @@ class AssignmentServiceTest {
         // Act & Assert
         assertThrows(ServiceUnavailableException.class, () -> svc.deleteAssignments(actorId, null, null));
     }
+
+    // -----------------------
+    // user lookup batching
+    // -----------------------
+    @Test
+    void userLookupBatcher_coalescesConcurrentLookupsIntoSingleBatchCall() {
+        UUID otherUserId = UUID.randomUUID();
+        when(userServiceClient.getUserRoles(any()))
+                .thenReturn(Map.of(userId, UserRole.ROLE_ADMIN, otherUserId, UserRole.ROLE_CLIENT));
+        UserLookupBatcher batcher = new UserLookupBatcher(userServiceClient, Duration.ofSeconds(5), 2, Duration.ofSeconds(5), 2);
+
+        CompletableFuture<UserRole> first = CompletableFuture.supplyAsync(() -> batcher.getUserRole(userId));
+        CompletableFuture<UserRole> second = CompletableFuture.supplyAsync(() -> batcher.getUserRole(otherUserId));
+
+        assertEquals(UserRole.ROLE_ADMIN, first.join());
+        assertEquals(UserRole.ROLE_CLIENT, second.join());
+        verify(userServiceClient, times(1)).getUserRoles(any());
+        verify(userServiceClient, never()).getUserRole(any());
+        batcher.shutdown();
+    }
+
+    @Test
+    void userLookupBatcher_missingRoleInBatch_throwsNotFound() {
+        UUID otherUserId = UUID.randomUUID();
+        when(userServiceClient.getUserRoles(any())).thenReturn(Map.of(userId, UserRole.ROLE_ADMIN));
+        UserLookupBatcher batcher = new UserLookupBatcher(userServiceClient, Duration.ofSeconds(5), 2, Duration.ofSeconds(5), 2);
+
+        CompletableFuture<UserRole> first = CompletableFuture.supplyAsync(() -> batcher.getUserRole(userId));
+        CompletableFuture<UserRole> second = CompletableFuture.supplyAsync(() -> batcher.getUserRole(otherUserId));
+
+        assertEquals(UserRole.ROLE_ADMIN, first.join());
+        Exception ex = assertThrows(Exception.class, second::join);
+        assertInstanceOf(NotFoundException.class, ex.getCause());
+        batcher.shutdown();
+    }
+
+    @Test
+    void userLookupBatcher_flushesOnPool_notOnCallerThread() {
+        UUID otherUserId = UUID.randomUUID();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(userServiceClient.getUserRoles(any())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return Map.of(userId, UserRole.ROLE_ADMIN, otherUserId, UserRole.ROLE_CLIENT);
+        });
+        UserLookupBatcher batcher = new UserLookupBatcher(userServiceClient, Duration.ofSeconds(5), 2,
+                Duration.ofSeconds(5), 2);
+
+        CompletableFuture<UserRole> first = CompletableFuture.supplyAsync(() -> batcher.getUserRole(userId));
+        CompletableFuture<UserRole> second = CompletableFuture.supplyAsync(() -> batcher.getUserRole(otherUserId));
+
+        assertEquals(UserRole.ROLE_ADMIN, first.join());
+        assertEquals(UserRole.ROLE_CLIENT, second.join());
+        assertEquals(1, threads.size());
+        assertTrue(threads.get(0).startsWith("user-lookup-flush-"), threads.get(0));
+        batcher.shutdown();
+    }
+
+    @Test
+    void userLookupBatcher_slowUserService_timesOutWithServiceUnavailable() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userServiceClient.getUserRole(userId)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return UserRole.ROLE_ADMIN;
+        });
+        UserLookupBatcher batcher = new UserLookupBatcher(userServiceClient, Duration.ZERO, 100,
+                Duration.ofMillis(50), 2);
+
+        try {
+            assertThrows(ServiceUnavailableException.class, () -> batcher.getUserRole(userId));
+        } finally {
+            release.countDown();
+            batcher.shutdown();
+        }
+    }
+
+    // -----------------------
+    // assignBatch tests
+    // -----------------------
+    @Test
+    void assignBatch_admin_deduplicatesAndUpsertsInOneStatement() {
+        UUID otherUserId = UUID.randomUUID();
+        when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_ADMIN);
+        when(userServiceClient.usersExist(any())).thenReturn(Map.of(userId, true, otherUserId, true));
+        when(productServiceClient.productsExist(any())).thenReturn(Map.of(productId, true));
+        when(repo.upsertAll(any(), any(), any(), any())).thenReturn(List.of(new UserProductAssignment()));
+
+        List<UserProductAssignmentRequest> requests = List.of(
+                batchItem(userId, productId, AssignmentRole.RESELLER),
+                batchItem(otherUserId, productId, AssignmentRole.VIEWER),
+                batchItem(userId, productId, AssignmentRole.PRODUCT_OWNER));
+
+        svc.assignBatch(actorId, requests);
+
+        verify(repo, times(1)).upsertAll(
+                eq(List.of(userId, otherUserId)),
+                eq(List.of(productId, productId)),
+                eq(List.of(AssignmentRole.PRODUCT_OWNER.name(), AssignmentRole.VIEWER.name())),
+                any());
+        verify(userServiceClient, never()).userExists(any());
+        verify(productServiceClient, never()).productExists(any());
+    }
+
+    @Test
+    void assignBatch_notOwnerOfEveryProduct_throwsForbidden() {
+        UUID otherProductId = UUID.randomUUID();
+        when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_CLIENT);
+        when(repo.findProductIdsByUserIdAndRole(eq(actorId), eq(AssignmentRole.PRODUCT_OWNER), any()))
+                .thenReturn(List.of(productId));
+
+        List<UserProductAssignmentRequest> requests = List.of(
+                batchItem(userId, productId, AssignmentRole.VIEWER),
+                batchItem(userId, otherProductId, AssignmentRole.VIEWER));
+
+        assertThrows(ForbiddenException.class, () -> svc.assignBatch(actorId, requests));
+        verify(repo, never()).upsertAll(any(), any(), any(), any());
+    }
+
+    @Test
+    void assignBatch_unknownUser_throwsNotFound() {
+        when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_ADMIN);
+        when(userServiceClient.usersExist(any())).thenReturn(Map.of(userId, false));
+
+        List<UserProductAssignmentRequest> requests = List.of(batchItem(userId, productId, AssignmentRole.VIEWER));
+
+        assertThrows(NotFoundException.class, () -> svc.assignBatch(actorId, requests));
+        verify(repo, never()).upsertAll(any(), any(), any(), any());
+    }
+
+    @Test
+    void assignBatch_emptyList_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> svc.assignBatch(actorId, List.of()));
+        verifyNoInteractions(userServiceClient, productServiceClient, repo);
+    }
+
+    private UserProductAssignmentRequest batchItem(UUID userId, UUID productId, AssignmentRole role) {
+        UserProductAssignmentRequest request = new UserProductAssignmentRequest();
+        request.setUserId(userId);
+        request.setProductId(productId);
+        request.setRole(role);
+        return request;
+    }
+
+    // -----------------------
+    // listPage / export tests
+    // -----------------------
+    @Test
+    void listPage_fullFirstPage_returnsNextCursorOfLastItem() {
+        UserProductAssignment first = assignment(Instant.parse("2025-01-02T00:00:00Z"));
+        UserProductAssignment second = assignment(Instant.parse("2025-01-01T00:00:00Z"));
+        when(repo.findFirstPageByUserId(eq(userId), any())).thenReturn(List.of(first, second));
+
+        AssignmentPage page = svc.listPage(userId, null, null, 2);
+
+        assertEquals(2, page.items().size());
+        CursorUtil.Decoded cursor = CursorUtil.decode(page.nextCursor());
+        assertNotNull(cursor);
+        assertEquals(second.getAssignedAt(), cursor.timestamp);
+        assertEquals(second.getId(), cursor.id);
+    }
+
+    @Test
+    void listPage_withCursor_usesKeysetAndStopsOnShortPage() {
+        Instant ts = Instant.parse("2025-01-01T00:00:00Z");
+        UUID lastId = UUID.randomUUID();
+        when(repo.findPageByProductIdAndKeyset(eq(productId), eq(ts), eq(lastId), any()))
+                .thenReturn(List.of(assignment(ts.minusSeconds(1))));
+
+        AssignmentPage page = svc.listPage(null, productId, CursorUtil.encode(ts, lastId), 20);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+        verify(repo, never()).findFirstPageByProductId(any(), any());
+    }
+
+    @Test
+    void listPage_withoutFilters_usesUnfilteredQuery() {
+        when(repo.findFirstPage(any())).thenReturn(List.of());
+
+        svc.listPage(null, null, null, 20);
+
+        verify(repo).findFirstPage(any());
+        verify(repo, never()).findFirstPageByUserId(any(), any());
+        verify(repo, never()).findFirstPageByProductId(any(), any());
+    }
+
+    @Test
+    void listPage_userAndProduct_usesUniquePairLookup() {
+        UserProductAssignment only = assignment(Instant.parse("2025-01-01T00:00:00Z"));
+        when(repo.findByUserIdAndProductId(userId, productId)).thenReturn(Optional.of(only));
+
+        AssignmentPage first = svc.listPage(userId, productId, null, 1);
+        AssignmentPage next = svc.listPage(userId, productId, first.nextCursor(), 1);
+
+        assertEquals(1, first.items().size());
+        assertTrue(next.items().isEmpty());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    void listPage_invalidCursor_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> svc.listPage(null, null, "not-a-cursor", 20));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void exportAssignments_passesEveryRowToSink() {
+        UserProductAssignmentDto row = new UserProductAssignmentDto(
+                UUID.randomUUID(), userId, productId, AssignmentRole.VIEWER, Instant.now());
+        when(repo.streamByUserId(userId)).thenReturn(Stream.of(row, row));
+
+        List<UserProductAssignmentDto> exported = new ArrayList<>();
+        svc.exportAssignments(userId, null, exported::add);
+
+        assertEquals(2, exported.size());
+    }
+
+    private UserProductAssignment assignment(Instant assignedAt) {
+        UserProductAssignment assignment = new UserProductAssignment();
+        assignment.setId(UUID.randomUUID());
+        assignment.setUserId(userId);
+        assignment.setProductId(productId);
+        assignment.setRoleOnProduct(AssignmentRole.VIEWER);
+        assignment.setAssignedAt(assignedAt);
+        return assignment;
+    }
+
+    // -----------------------
+    // cleanup tests
+    // -----------------------
+    @Test
+    void cleanup_deletionEvents_areBatchedIntoOneDeletePerKind() {
+        AssignmentCleanupService cleanup = new AssignmentCleanupService(svc, repo, peerLookups);
+        UUID otherUserId = UUID.randomUUID();
+        cleanup.accept(new EntityDeletedEvent(DeletedEntityType.USER, userId));
+        cleanup.accept(new EntityDeletedEvent(DeletedEntityType.USER, otherUserId));
+        cleanup.accept(new EntityDeletedEvent(DeletedEntityType.PRODUCT, productId));
+        when(repo.deleteChunkByUserIds(any(), anyInt())).thenReturn(3);
+        when(repo.deleteChunkByProductIds(any(), anyInt())).thenReturn(1);
+
+        cleanup.processPendingEvents();
+        cleanup.processPendingEvents();
+
+        verify(repo, times(1)).deleteChunkByUserIds(argThat(ids -> ids.containsAll(List.of(userId, otherUserId))), anyInt());
+        verify(repo, times(1)).deleteChunkByProductIds(eq(List.of(productId)), anyInt());
+    }
+
+    @Test
+    void cleanup_sweep_deletesOnlyAssignmentsOfConfirmedMissingEntities() {
+        AssignmentCleanupService cleanup = new AssignmentCleanupService(svc, repo, peerLookups);
+        UUID deletedUserId = UUID.randomUUID();
+        when(repo.findUserIdsAfter(any(), anyInt())).thenReturn(List.of(userId, deletedUserId));
+        when(userServiceClient.usersExist(any())).thenReturn(Map.of(userId, true, deletedUserId, false));
+        when(repo.findProductIdsAfter(any(), anyInt())).thenReturn(List.of(productId));
+        when(productServiceClient.productsExist(any())).thenReturn(Map.of(productId, true));
+
+        cleanup.sweepOrphans();
+
+        verify(repo, times(1)).deleteChunkByUserIds(eq(List.of(deletedUserId)), anyInt());
+        verify(repo, never()).deleteChunkByProductIds(any(), anyInt());
+    }
+
+    @Test
+    void cleanup_sweep_peerUnavailable_deletesNothing() {
+        AssignmentCleanupService cleanup = new AssignmentCleanupService(svc, repo, peerLookups);
+        when(repo.findUserIdsAfter(any(), anyInt())).thenReturn(List.of(userId));
+        when(userServiceClient.usersExist(any())).thenReturn(null);
+
+        cleanup.sweepOrphans();
+
+        verify(repo, never()).deleteChunkByUserIds(any(), anyInt());
+        verify(repo, never()).deleteChunkByProductIds(any(), anyInt());
+    }
 }
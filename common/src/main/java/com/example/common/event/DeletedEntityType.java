@@ -0,0 +1,6 @@
+package com.example.common.event;
+
+public enum DeletedEntityType {
+    USER,
+    PRODUCT
+}
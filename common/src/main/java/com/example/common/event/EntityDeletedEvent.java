@@ -0,0 +1,35 @@
+package com.example.common.event;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+
+// Событие для assignment-service: удалённый пользователь или продукт
+public class EntityDeletedEvent {
+
+    @NotNull
+    private DeletedEntityType entityType;
+
+    @NotNull
+    private UUID entityId;
+
+    public EntityDeletedEvent() {}
+
+    public EntityDeletedEvent(DeletedEntityType entityType, UUID entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    public static EntityDeletedEvent user(UUID userId) {
+        return new EntityDeletedEvent(DeletedEntityType.USER, userId);
+    }
+
+    public static EntityDeletedEvent product(UUID productId) {
+        return new EntityDeletedEvent(DeletedEntityType.PRODUCT, productId);
+    }
+
+    public DeletedEntityType getEntityType() { return entityType; }
+    public void setEntityType(DeletedEntityType entityType) { this.entityType = entityType; }
+
+    public UUID getEntityId() { return entityId; }
+    public void setEntityId(UUID entityId) { this.entityId = entityId; }
+}
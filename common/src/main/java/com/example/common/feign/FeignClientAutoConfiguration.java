@@ -0,0 +1,79 @@
+package com.example.common.feign;
+
+import feign.Feign;
+import feign.RequestInterceptor;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+// Общая обвязка Feign-клиентов сервисов: метрики, трасса, контекст в пулах предохранителя и пул соединений.
+// Автоконфигурация, а не @Configuration, и без вложенных конфигураций: gateway сканирует com.example целиком,
+// а Feign у него нет. Сканирование пропускает только сами классы автоконфигурации, вложенные оно бы подхватило
+@AutoConfiguration
+@ConditionalOnClass({Feign.class, Tracer.class, Resilience4JCircuitBreakerFactory.class, ContextExecutorService.class,
+        DefaultConnectionKeepAliveStrategy.class})
+public class FeignClientAutoConfiguration {
+
+    @Bean
+    public FeignMetricsCapability feignMetricsCapability(MeterRegistry meterRegistry) {
+        return new FeignMetricsCapability(meterRegistry);
+    }
+
+    // W3C traceparent текущего спана: вызываемый сервис продолжает ту же трассу.
+    // Заголовок заменяется, а не добавляется — при повторе запроса интерцепторы применяются снова
+    @Bean
+    public RequestInterceptor tracingRequestInterceptor(Tracer tracer, Propagator propagator) {
+        return requestTemplate -> {
+            Span span = tracer.currentSpan();
+            if (span == null) {
+                return;
+            }
+            propagator.inject(span.context(), requestTemplate, (template, key, value) -> {
+                template.removeHeader(key);
+                template.header(key, value);
+            });
+        };
+    }
+
+    // Под предохранителем Feign-вызов (вместе с интерцепторами) выполняется в пуле Resilience4J — он нужен TimeLimiter.
+    // Пулы по умолчанию не переносят контекст наблюдения, и traceparent терялся; оборачиваем их
+    @Bean
+    public Customizer<Resilience4JCircuitBreakerFactory> contextPropagatingCircuitBreakerExecutors() {
+        return factory -> {
+            factory.configureExecutorService(ContextExecutorService.wrap(Executors.newCachedThreadPool()));
+            factory.configureGroupExecutorService(group -> ContextExecutorService.wrap(Executors.newCachedThreadPool()));
+        };
+    }
+
+    // Пул соединений Apache HC5 для Feign; размеры пула — spring.cloud.openfeign.httpclient.*.
+    // Соединение держится не дольше keep-alive (короче таймаута простоя на стороне сервера),
+    // простаивающие соединения закрываются фоновым потоком, чтобы не получить обрыв на «протухшем» сокете.
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer feignHttpClientCustomizer(
+            @Value("${feign.pool.keep-alive:15s}") Duration keepAlive,
+            @Value("${feign.pool.idle-eviction:10s}") Duration idleEviction) {
+        long keepAliveMillis = keepAlive.toMillis();
+        return builder -> builder
+                .setKeepAliveStrategy((response, context) -> {
+                    // Keep-Alive: timeout=N от сервера учитываем, но не дольше своего лимита
+                    TimeValue server = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    long serverMillis = server != null ? server.toMilliseconds() : -1;
+                    return TimeValue.ofMilliseconds(serverMillis >= 0 ? Math.min(serverMillis, keepAliveMillis) : keepAliveMillis);
+                })
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()));
+    }
+}
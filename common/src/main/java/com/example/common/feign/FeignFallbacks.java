@@ -0,0 +1,38 @@
+package com.example.common.feign;
+
+import feign.FeignException;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+// Fallback вызывается на любую ошибку вызова, в том числе на 4xx, которые предохранитель не считает сбоем.
+// Ответ соседа по существу (404, 403, 409, 400) пробрасывается без изменений — как FeignClientException
+// или как исключение сервиса с @ResponseStatus 4xx от CustomErrorDecoder,
+// а в "сервис недоступен" превращаются только настоящие сбои: 5xx, 429, таймауты, открытый предохранитель.
+public final class FeignFallbacks {
+
+    private FeignFallbacks() {
+    }
+
+    public static void rethrowClientError(Throwable cause) {
+        Throwable error = cause;
+        while ((error instanceof ExecutionException || error instanceof CompletionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof FeignException.FeignClientException clientError
+                && !(clientError instanceof FeignException.TooManyRequests)) {
+            throw clientError;
+        }
+        if (error instanceof RuntimeException runtimeException && isClientError(runtimeException)) {
+            throw runtimeException;
+        }
+    }
+
+    private static boolean isClientError(RuntimeException error) {
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+        return status != null && status.code().is4xxClientError() && status.code() != HttpStatus.TOO_MANY_REQUESTS;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.common.feign;
+
+import feign.Capability;
+import feign.FeignException;
+import feign.InvocationHandlerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.lang.reflect.InvocationHandler;
+
+// Таймер feign.client.requests на каждый метод Feign-клиента (client, method, outcome, exception).
+// Оборачивает весь вызов метода — с повторами, hedging, circuit breaker и декодированием ответа,
+// то есть ровно то время, которое ждёт вызывающий код.
+public class FeignMetricsCapability implements Capability {
+
+    private final MeterRegistry meterRegistry;
+
+    public FeignMetricsCapability(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public InvocationHandlerFactory enrich(InvocationHandlerFactory factory) {
+        return (target, dispatch) -> {
+            InvocationHandler handler = factory.create(target, dispatch);
+            return (proxy, method, args) -> {
+                if (method.getDeclaringClass() == Object.class) {
+                    return handler.invoke(proxy, method, args);
+                }
+                Timer.Sample sample = Timer.start(meterRegistry);
+                Throwable error = null;
+                try {
+                    return handler.invoke(proxy, method, args);
+                } catch (Throwable e) {
+                    error = e;
+                    throw e;
+                } finally {
+                    sample.stop(Timer.builder("feign.client.requests")
+                            .tag("client", target.name())
+                            .tag("method", method.getName())
+                            .tag("outcome", outcome(error))
+                            .tag("exception", error != null ? error.getClass().getSimpleName() : "none")
+                            .register(meterRegistry));
+                }
+            };
+        };
+    }
+
+    // ошибки ответа уже превращены CustomErrorDecoder/фолбэками в исключения сервиса с @ResponseStatus
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return Outcome.SUCCESS.name();
+        }
+        if (error instanceof FeignException feignException && feignException.status() > 0) {
+            return Outcome.forStatus(feignException.status()).name();
+        }
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+        if (status != null) {
+            return Outcome.forStatus(status.code().value()).name();
+        }
+        return Outcome.UNKNOWN.name();
+    }
+}
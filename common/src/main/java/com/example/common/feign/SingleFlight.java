@@ -0,0 +1,72 @@
+package com.example.common.feign;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Схлопывает одновременные одинаковые запросы к соседнему сервису в один вызов:
+// пока вызов по ключу выполняется, остальные потоки ждут его результат (или исключение).
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter requests;
+    private final Counter executions;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.requests = Counter.builder("singleflight.requests")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.executions = Counter.builder("singleflight.executions")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("singleflight.collapse.ratio", this, SingleFlight::collapseRatio)
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> call) {
+        requests.increment();
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            own.complete(call.get());
+        } catch (Throwable e) {
+            own.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, own);
+        }
+        return await(own);
+    }
+
+    // доля запросов, обслуженных чужим вызовом
+    public double collapseRatio() {
+        double total = requests.count();
+        return total == 0 ? 0.0 : 1.0 - executions.count() / total;
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
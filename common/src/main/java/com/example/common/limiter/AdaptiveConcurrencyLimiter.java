@@ -0,0 +1,103 @@
+package com.example.common.limiter;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Адаптивный лимит одновременных запросов в духе Gradient2: лимит растёт, пока текущий RTT близок к базовому,
+// и сжимается, когда RTT растёт (у сервиса копится очередь). Сверх лимита запрос сразу отклоняется, а не ждёт.
+public class AdaptiveConcurrencyLimiter {
+
+    // во сколько раз текущий RTT может превышать базовый, прежде чем лимит начнёт снижаться
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    // множитель лимита при таймауте, обрыве соединения или 503 от сервиса
+    private static final double BACKOFF = 0.9;
+    private static final int LONG_WINDOW = 600;
+    private static final int SHORT_WINDOW = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Counter rejections;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    // -1: замеров ещё не было; обе оценки меняются только под монитором
+    private double longRtt = -1;
+    private double shortRtt = -1;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Counter rejections) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rejections = rejections;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejections.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long rttNanos) {
+        update(rttNanos, inFlight.getAndDecrement(), false);
+    }
+
+    public void onDropped() {
+        update(0, inFlight.getAndDecrement(), true);
+    }
+
+    // отмена или ошибка, не связанная с нагрузкой (например, 4xx): только освобождаем место
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    // 503/429 — сервис сам сообщает о перегрузке, 504 — не дождался своего соседа; на 4xx и прочие 5xx лимит не реагирует
+    public static boolean isOverloaded(int status) {
+        return status == 503 || status == 504 || status == 429;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtSample, boolean dropped) {
+        double current = limit;
+        double next;
+        if (dropped) {
+            next = current * BACKOFF;
+        } else {
+            if (longRtt < 0) {
+                longRtt = rttNanos;
+                shortRtt = rttNanos;
+            }
+            shortRtt += (rttNanos - shortRtt) * 2 / (SHORT_WINDOW + 1);
+            if (rttNanos < longRtt) {
+                // сервис стал отвечать быстрее — базовый RTT снижаем сразу
+                longRtt += (rttNanos - longRtt) * 2 / (SHORT_WINDOW + 1);
+            } else if (shortRtt <= longRtt * TOLERANCE || current <= minLimit) {
+                // под перегрузкой базовый RTT не растёт, иначе он «догонит» очередь и лимит перестанет сжиматься;
+                // если медленно даже на минимальном лимите, значит, это новая норма сервиса
+                longRtt += (rttNanos - longRtt) * 2 / (LONG_WINDOW + 1);
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+            next = current * gradient + Math.sqrt(current);
+            // лимит используется меньше чем наполовину — сигнала для роста нет
+            if (inFlightAtSample < current / 2) {
+                next = Math.min(next, current);
+            }
+            next = current * (1 - SMOOTHING) + next * SMOOTHING;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
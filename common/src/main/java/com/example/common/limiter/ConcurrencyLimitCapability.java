@@ -0,0 +1,54 @@
+package com.example.common.limiter;
+
+import feign.Capability;
+import feign.Client;
+import feign.Response;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+
+// Оборачивает клиент каждого Feign-клиента адаптивным лимитером по имени вызываемого сервиса.
+// Сверх лимита вызов отклоняется сразу, не занимая поток ожиданием ответа деградировавшего сервиса;
+// fallback клиента превращает отказ (503) в ServiceUnavailableException своего сервиса.
+public class ConcurrencyLimitCapability implements Capability, Ordered {
+
+    private final ConcurrencyLimiters limiters;
+
+    public ConcurrencyLimitCapability(ConcurrencyLimiters limiters) {
+        this.limiters = limiters;
+    }
+
+    // ближе к транспорту, чем hedging: основной и дублирующий запросы занимают лимит по отдельности
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            String name = request.requestTemplate().feignTarget().name();
+            AdaptiveConcurrencyLimiter limiter = limiters.forName(name);
+            if (!limiter.tryAcquire()) {
+                throw new ConcurrencyLimitExceededException(name + " is overloaded, request rejected");
+            }
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = client.execute(request, options);
+            } catch (IOException e) {
+                limiter.onDropped();
+                throw e;
+            } catch (RuntimeException | Error e) {
+                limiter.onIgnore();
+                throw e;
+            }
+            if (AdaptiveConcurrencyLimiter.isOverloaded(response.status())) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(System.nanoTime() - start);
+            }
+            return response;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.common.limiter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Вызов отклонён адаптивным лимитером: вызываемый сервис перегружен
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
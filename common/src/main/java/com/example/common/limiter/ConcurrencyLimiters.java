@@ -0,0 +1,45 @@
+package com.example.common.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// По одному адаптивному лимитеру на имя (маршрут gateway или вызываемый сервис); текущий лимит, запросы в полёте и отказы — в метриках
+public class ConcurrencyLimiters {
+
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final String tag;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    public ConcurrencyLimiters(MeterRegistry meterRegistry, String tag, int initialLimit, int minLimit, int maxLimit) {
+        this.meterRegistry = meterRegistry;
+        this.tag = tag;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public AdaptiveConcurrencyLimiter forName(String name) {
+        return limiters.computeIfAbsent(name, this::register);
+    }
+
+    private AdaptiveConcurrencyLimiter register(String name) {
+        Counter rejections = Counter.builder("concurrency.limit.rejected")
+                .tag(tag, name)
+                .register(meterRegistry);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, rejections);
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag(tag, name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag(tag, name)
+                .register(meterRegistry);
+        return limiter;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.common.limiter;
+
+import feign.Feign;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+// Адаптивный лимит одновременных вызовов для всех Feign-клиентов сервиса.
+// У gateway Feign нет: его маршруты ограничивает собственный ConcurrencyLimitConfig
+@AutoConfiguration
+@ConditionalOnClass(Feign.class)
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class FeignConcurrencyLimitAutoConfiguration {
+
+    @Bean
+    public ConcurrencyLimiters feignConcurrencyLimiters(MeterRegistry meterRegistry,
+                                                        @Value("${concurrency-limit.initial-limit:20}") int initialLimit,
+                                                        @Value("${concurrency-limit.min-limit:4}") int minLimit,
+                                                        @Value("${concurrency-limit.max-limit:200}") int maxLimit) {
+        return new ConcurrencyLimiters(meterRegistry, "client", initialLimit, minLimit, maxLimit);
+    }
+
+    @Bean
+    public ConcurrencyLimitCapability concurrencyLimitCapability(ConcurrencyLimiters feignConcurrencyLimiters) {
+        return new ConcurrencyLimitCapability(feignConcurrencyLimiters);
+    }
+}
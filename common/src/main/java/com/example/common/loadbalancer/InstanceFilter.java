@@ -0,0 +1,14 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+
+import java.util.List;
+
+// Сужает список экземпляров до выбора P2C, например чтобы дублирующий запрос не ушёл на экземпляр основного.
+// Бин этого типа в контексте приложения подхватывается PeakEwmaLoadBalancerConfiguration.
+@FunctionalInterface
+public interface InstanceFilter {
+
+    List<ServiceInstance> filter(Request<?> request, List<ServiceInstance> instances);
+}
@@ -0,0 +1,200 @@
+package com.example.common.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Пиковая EWMA задержки и число запросов в полёте по каждому экземпляру сервиса.
+// Заполняется через LoadBalancerLifecycle: в gateway его вызывает ReactiveLoadBalancerClientFilter для маршрутов lb://,
+// в сервисах — FeignBlockingLoadBalancerClient.
+public class InstanceLatencyStats implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    // стоимость экземпляра без замеров, пока к нему уже идёт пробный запрос
+    static final double UNKNOWN_PENALTY = 1e12;
+
+    private final ConcurrentMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+
+    public InstanceLatencyStats(MeterRegistry meterRegistry, Duration decay, Duration failurePenalty) {
+        this.meterRegistry = meterRegistry;
+        this.decayNanos = decay.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        if (lbResponse != null && lbResponse.hasServer()) {
+            statsFor(lbResponse.getServer()).inFlight.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats instance = statsFor(lbResponse.getServer());
+        instance.inFlight.updateAndGet(current -> Math.max(0, current - 1));
+
+        long now = System.nanoTime();
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || isServerError(completionContext.getClientResponse());
+        (failed ? instance.failures : instance.successes).increment();
+
+        Request<Object> request = completionContext.getLoadBalancerRequest();
+        if (request != null && request.getContext() instanceof TimedRequestContext timed
+                && timed.getRequestStartTime() > 0) {
+            instance.observe(now - timed.getRequestStartTime(), failed, failurePenaltyNanos, now, decayNanos);
+        }
+    }
+
+    // Стоимость по Peak-EWMA: текущая оценка задержки, умноженная на (запросы в полёте + 1)
+    public double cost(ServiceInstance serviceInstance) {
+        InstanceStats instance = stats.get(key(serviceInstance));
+        if (instance == null) {
+            return 0;
+        }
+        return instance.cost(System.nanoTime(), decayNanos);
+    }
+
+    // Задержка сервиса — лучшая из оценок его экземпляров: если медленно отвечает даже лучший, сервис перегружен.
+    // Учитываются только успешные ответы: штраф за ошибку нужен балансировщику, а сброс нагрузки
+    // по нему срабатывал бы от единственного 500
+    public double serviceLatencyNanos(String serviceId) {
+        String id = serviceId.toLowerCase();
+        long now = System.nanoTime();
+        double best = -1;
+        for (InstanceStats instance : stats.values()) {
+            if (instance.serviceId.equals(id)) {
+                double ewma = instance.currentSuccessEwmaNanos(now, decayNanos);
+                if (ewma >= 0 && (best < 0 || ewma < best)) {
+                    best = ewma;
+                }
+            }
+        }
+        return Math.max(best, 0);
+    }
+
+    private boolean isServerError(Object clientResponse) {
+        return clientResponse instanceof ResponseData data
+                && data.getHttpStatus() != null
+                && data.getHttpStatus().is5xxServerError();
+    }
+
+    private InstanceStats statsFor(ServiceInstance serviceInstance) {
+        return stats.computeIfAbsent(key(serviceInstance), k -> register(serviceInstance));
+    }
+
+    private InstanceStats register(ServiceInstance serviceInstance) {
+        String serviceId = String.valueOf(serviceInstance.getServiceId()).toLowerCase();
+        String address = serviceInstance.getHost() + ":" + serviceInstance.getPort();
+        InstanceStats instance = new InstanceStats(serviceId,
+                Counter.builder("loadbalancer.instance.requests")
+                        .tag("serviceId", serviceId).tag("serviceInstance", address).tag("outcome", "success")
+                        .register(meterRegistry),
+                Counter.builder("loadbalancer.instance.requests")
+                        .tag("serviceId", serviceId).tag("serviceInstance", address).tag("outcome", "failure")
+                        .register(meterRegistry));
+        Gauge.builder("loadbalancer.instance.latency.ewma", instance, s -> s.currentEwmaSeconds(System.nanoTime(), decayNanos))
+                .tag("serviceId", serviceId).tag("serviceInstance", address)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("loadbalancer.instance.inflight", instance, s -> s.inFlight.get())
+                .tag("serviceId", serviceId).tag("serviceInstance", address)
+                .register(meterRegistry);
+        return instance;
+    }
+
+    private static String key(ServiceInstance serviceInstance) {
+        return serviceInstance.getServiceId() + "/" + serviceInstance.getHost() + ":" + serviceInstance.getPort();
+    }
+
+    static final class InstanceStats {
+        final String serviceId;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final Counter successes;
+        final Counter failures;
+        // -1: замеров ещё не было
+        private double ewmaNanos = -1;
+        private long lastObserved;
+        // то же только по успешным ответам, без штрафа за ошибки
+        private double successEwmaNanos = -1;
+        private long lastSuccess;
+
+        InstanceStats(String serviceId, Counter successes, Counter failures) {
+            this.serviceId = serviceId;
+            this.successes = successes;
+            this.failures = failures;
+        }
+
+        synchronized void observe(long latencyNanos, boolean failed, long failurePenaltyNanos, long now, long decayNanos) {
+            // ошибка считается медленным ответом, чтобы сбойный экземпляр реже выбирался
+            ewmaNanos = peakEwma(ewmaNanos, lastObserved, failed ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos,
+                    now, decayNanos);
+            lastObserved = now;
+            if (!failed) {
+                successEwmaNanos = peakEwma(successEwmaNanos, lastSuccess, latencyNanos, now, decayNanos);
+                lastSuccess = now;
+            }
+        }
+
+        synchronized double cost(long now, long decayNanos) {
+            int pending = inFlight.get();
+            if (ewmaNanos < 0) {
+                return pending == 0 ? 0 : UNKNOWN_PENALTY + pending;
+            }
+            return decayed(now, decayNanos) * (pending + 1);
+        }
+
+        synchronized double currentEwmaSeconds(long now, long decayNanos) {
+            return ewmaNanos < 0 ? 0 : decayed(now, decayNanos) / 1e9;
+        }
+
+        // -1, если успешных ответов ещё не было
+        synchronized double currentSuccessEwmaNanos(long now, long decayNanos) {
+            return successEwmaNanos < 0 ? -1 : successEwmaNanos * Math.exp(-(double) (now - lastSuccess) / decayNanos);
+        }
+
+        // без новых замеров оценка затухает, и «исправившийся» экземпляр снова получает запросы
+        private double decayed(long now, long decayNanos) {
+            return ewmaNanos * Math.exp(-(double) (now - lastObserved) / decayNanos);
+        }
+
+        private static double peakEwma(double current, long last, long sample, long now, long decayNanos) {
+            if (current < 0 || sample > current) {
+                // пик учитывается сразу, а снижение — плавно
+                return sample;
+            }
+            double weight = Math.exp(-(double) (now - last) / decayNanos);
+            return current * weight + sample * (1 - weight);
+        }
+    }
+}
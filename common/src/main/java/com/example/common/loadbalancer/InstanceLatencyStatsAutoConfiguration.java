@@ -0,0 +1,20 @@
+package com.example.common.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+// Задержки экземпляров собираются и при выключенном Peak-EWMA: по ним gateway ещё и сбрасывает нагрузку
+@AutoConfiguration
+public class InstanceLatencyStatsAutoConfiguration {
+
+    @Bean
+    public InstanceLatencyStats instanceLatencyStats(MeterRegistry meterRegistry,
+                                                     @Value("${loadbalancer.peak-ewma.decay:10s}") Duration decay,
+                                                     @Value("${loadbalancer.peak-ewma.failure-penalty:1s}") Duration failurePenalty) {
+        return new InstanceLatencyStats(meterRegistry, decay, failurePenalty);
+    }
+}
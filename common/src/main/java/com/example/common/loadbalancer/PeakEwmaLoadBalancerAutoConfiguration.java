@@ -0,0 +1,16 @@
+package com.example.common.loadbalancer;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+
+// Вместо round-robin по умолчанию все клиенты LoadBalancer — маршруты lb:// gateway и Feign-клиенты
+// сервисов — балансируются по задержке (P2C + Peak-EWMA)
+@AutoConfiguration(after = InstanceLatencyStatsAutoConfiguration.class)
+@ConditionalOnClass(LoadBalancerClientFactory.class)
+@ConditionalOnProperty(name = "loadbalancer.peak-ewma.enabled", havingValue = "true", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class PeakEwmaLoadBalancerAutoConfiguration {
+}
@@ -0,0 +1,104 @@
+package com.example.common.metrics;
+
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+// Время каждого публичного метода @Service: таймер service.method (class, method, outcome, exception)
+// и service.method.active — вызовы, которые выполняются прямо сейчас.
+// Для Mono/Flux время считается от подписки до завершения, а не до сборки цепочки.
+@Aspect
+public class ServiceMethodMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMethodMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(com.example..*) "
+            + "&& @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Invocation invocation = new Invocation(className, method);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            invocation.finish(SignalType.ON_ERROR, e);
+            throw e;
+        }
+        if (result instanceof Mono<?> mono) {
+            invocation.discard();
+            return Mono.defer(() -> {
+                Invocation subscription = new Invocation(className, method);
+                return mono.doOnError(subscription::fail).doFinally(subscription::finish);
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            invocation.discard();
+            return Flux.defer(() -> {
+                Invocation subscription = new Invocation(className, method);
+                return flux.doOnError(subscription::fail).doFinally(subscription::finish);
+            });
+        }
+        invocation.finish(SignalType.ON_COMPLETE, null);
+        return result;
+    }
+
+    private final class Invocation {
+
+        private final String className;
+        private final String method;
+        private final Timer.Sample sample;
+        private final LongTaskTimer.Sample active;
+        private Throwable error;
+
+        Invocation(String className, String method) {
+            this.className = className;
+            this.method = method;
+            this.active = LongTaskTimer.builder("service.method.active")
+                    .tag("class", className)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .start();
+            this.sample = Timer.start(meterRegistry);
+        }
+
+        void fail(Throwable error) {
+            this.error = error;
+        }
+
+        void finish(SignalType signal) {
+            finish(signal, error);
+        }
+
+        void finish(SignalType signal, Throwable error) {
+            active.stop();
+            String outcome = switch (signal) {
+                case ON_ERROR -> "error";
+                // клиент отключился или сработал таймаут выше по цепочке
+                case CANCEL -> "cancelled";
+                default -> "success";
+            };
+            sample.stop(Timer.builder("service.method")
+                    .tag("class", className)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .tag("exception", error != null ? error.getClass().getSimpleName() : "none")
+                    .register(meterRegistry));
+        }
+
+        // вызов лишь собрал реактивную цепочку — измеряется подписка на неё
+        void discard() {
+            active.stop();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.weaver.Advice;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+
+// Таймеры сервисного слоя; таймеры Feign-клиентов добавляет FeignClientAutoConfiguration.
+// Вызовы репозиториев измеряет сам Spring Data (spring.data.repository.invocations);
+// гистограммы включаются в management.metrics.distribution.
+// Только при spring-boot-starter-aop: у gateway его нет
+@AutoConfiguration
+@ConditionalOnClass(Advice.class)
+public class ServiceMethodMetricsAutoConfiguration {
+
+    @Bean
+    public ServiceMethodMetricsAspect serviceMethodMetricsAspect(MeterRegistry meterRegistry) {
+        return new ServiceMethodMetricsAspect(meterRegistry);
+    }
+}
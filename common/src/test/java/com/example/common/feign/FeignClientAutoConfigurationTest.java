@@ -0,0 +1,53 @@
+package com.example.common.feign;
+
+import com.example.common.limiter.ConcurrencyLimitCapability;
+import com.example.common.limiter.FeignConcurrencyLimitAutoConfiguration;
+import feign.Feign;
+import feign.RequestInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeignClientAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            // @Value с Duration, как в приложении
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(FeignClientAutoConfiguration.class,
+                    FeignConcurrencyLimitAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(Tracer.class, () -> Tracer.NOOP)
+            .withBean(Propagator.class, () -> Propagator.NOOP);
+
+    @Test
+    void servicesWithFeign_getSharedClientSetup() {
+        contextRunner.run(context -> {
+            assertNull(context.getStartupFailure());
+            assertEquals(1, context.getBeansOfType(FeignMetricsCapability.class).size());
+            assertTrue(context.containsBean("tracingRequestInterceptor"));
+            assertTrue(context.containsBean("contextPropagatingCircuitBreakerExecutors"));
+            assertEquals(1, context.getBeansOfType(HttpClient5FeignConfiguration.HttpClientBuilderCustomizer.class).size());
+            assertEquals(1, context.getBeansOfType(ConcurrencyLimitCapability.class).size());
+        });
+    }
+
+    @Test
+    void gatewayWithoutFeign_getsNothing() {
+        contextRunner.withClassLoader(new FilteredClassLoader(Feign.class)).run(context -> {
+            assertNull(context.getStartupFailure());
+            assertTrue(context.getBeansOfType(RequestInterceptor.class).isEmpty());
+            assertFalse(context.containsBean("feignMetricsCapability"));
+            assertFalse(context.containsBean("feignConcurrencyLimiters"));
+        });
+    }
+}
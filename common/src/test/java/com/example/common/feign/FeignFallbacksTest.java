@@ -0,0 +1,56 @@
+package com.example.common.feign;
+
+import com.example.common.limiter.ConcurrencyLimitExceededException;
+import feign.FeignException;
+import feign.Request;
+import feign.RequestTemplate;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeignFallbacksTest {
+
+    @Test
+    void feignClientError_isRethrown() {
+        FeignException notFound = feignError(404);
+
+        assertSame(notFound, assertThrows(FeignException.NotFound.class,
+                () -> FeignFallbacks.rethrowClientError(notFound)));
+    }
+
+    @Test
+    void serviceClientError_isRethrown_evenIfWrapped() {
+        NotFound notFound = new NotFound();
+
+        assertSame(notFound, assertThrows(NotFound.class,
+                () -> FeignFallbacks.rethrowClientError(new CompletionException(notFound))));
+    }
+
+    @Test
+    void failures_goToFallback() {
+        assertDoesNotThrow(() -> FeignFallbacks.rethrowClientError(feignError(429)));
+        assertDoesNotThrow(() -> FeignFallbacks.rethrowClientError(feignError(503)));
+        assertDoesNotThrow(() -> FeignFallbacks.rethrowClientError(new ConcurrencyLimitExceededException("busy")));
+        assertDoesNotThrow(() -> FeignFallbacks.rethrowClientError(new IllegalStateException("open")));
+    }
+
+    private static FeignException feignError(int status) {
+        Request request = Request.create(Request.HttpMethod.GET, "http://user-service/api/v1/users/1", Map.of(),
+                null, StandardCharsets.UTF_8, new RequestTemplate());
+        return FeignException.errorStatus("UserServiceClient#get", feign.Response.builder()
+                .status(status)
+                .request(request)
+                .headers(Map.of())
+                .build());
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    private static class NotFound extends RuntimeException {
+    }
+}
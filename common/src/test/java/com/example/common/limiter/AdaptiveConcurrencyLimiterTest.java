@@ -0,0 +1,134 @@
+package com.example.common.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// У лимитера нет своих часов: RTT передаёт вызывающий, поэтому время здесь задаётся явно
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long RTT = Duration.ofMillis(10).toNanos();
+
+    private final Counter rejections = Counter.builder("rejected").register(new SimpleMeterRegistry());
+
+    @Test
+    void fullyUsedLimit_growsWhileRttStaysAtBaseline() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 100);
+
+        for (int round = 0; round < 10; round++) {
+            saturate(limiter, RTT);
+        }
+
+        assertTrue(limiter.getLimit() > 10, String.valueOf(limiter.getLimit()));
+    }
+
+    @Test
+    void underusedLimit_doesNotGrow() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 1, 100);
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onSuccess(RTT);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void growingRtt_shrinksLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(50, 1, 100);
+        saturate(limiter, RTT);
+        int baseline = limiter.getLimit();
+
+        // очередь у сервиса: RTT вдесятеро выше базового
+        for (int round = 0; round < 10; round++) {
+            saturate(limiter, 10 * RTT);
+        }
+
+        assertTrue(limiter.getLimit() < baseline, limiter.getLimit() + " >= " + baseline);
+    }
+
+    @Test
+    void drop_backsOffMultiplicatively() {
+        AdaptiveConcurrencyLimiter limiter = limiter(20, 1, 100);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.onDropped();
+
+        assertEquals(18, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limit_isClampedToMinAndMax() {
+        AdaptiveConcurrencyLimiter limiter = limiter(5, 4, 6);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.onDropped();
+        }
+        assertEquals(4, limiter.getLimit());
+
+        for (int round = 0; round < 50; round++) {
+            saturate(limiter, RTT);
+        }
+        assertEquals(6, limiter.getLimit());
+
+        // начальный лимит вне границ приводится к ним
+        assertEquals(4, limiter(1, 4, 6).getLimit());
+        assertEquals(6, limiter(100, 4, 6).getLimit());
+    }
+
+    @Test
+    void requestsOverLimit_areRejectedAndCounted() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        assertEquals(1, rejections.count());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void ignore_releasesPermit_withoutTouchingLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 10);
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        // отмена запроса клиентом или 4xx
+        limiter.onIgnore();
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(1, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void overloadStatuses_areShared() {
+        assertTrue(AdaptiveConcurrencyLimiter.isOverloaded(503));
+        assertTrue(AdaptiveConcurrencyLimiter.isOverloaded(504));
+        assertTrue(AdaptiveConcurrencyLimiter.isOverloaded(429));
+        assertFalse(AdaptiveConcurrencyLimiter.isOverloaded(500));
+        assertFalse(AdaptiveConcurrencyLimiter.isOverloaded(404));
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initial, int min, int max) {
+        return new AdaptiveConcurrencyLimiter(initial, min, max, rejections);
+    }
+
+    // занимаем весь текущий лимит и отпускаем все запросы с одинаковым RTT
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.onSuccess(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.common.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Время задаётся явно: now передаётся в InstanceStats, как это делает InstanceLatencyStats
+public class InstanceLatencyStatsTest {
+
+    private static final long MS = Duration.ofMillis(1).toNanos();
+    private static final long DECAY = Duration.ofSeconds(10).toNanos();
+    private static final long PENALTY = Duration.ofSeconds(1).toNanos();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void peak_isTakenImmediately() {
+        InstanceLatencyStats.InstanceStats stats = stats();
+        stats.observe(10 * MS, false, PENALTY, 0, DECAY);
+        stats.observe(100 * MS, false, PENALTY, 1, DECAY);
+
+        assertEquals(100 * MS, stats.cost(1, DECAY), MS);
+    }
+
+    @Test
+    void drop_isSmoothedByTimeSinceLastSample() {
+        InstanceLatencyStats.InstanceStats stats = stats();
+        stats.observe(100 * MS, false, PENALTY, 0, DECAY);
+        // через decay вес старой оценки e^-1
+        stats.observe(10 * MS, false, PENALTY, DECAY, DECAY);
+
+        double weight = Math.exp(-1);
+        assertEquals(100 * MS * weight + 10 * MS * (1 - weight), stats.cost(DECAY, DECAY), MS);
+    }
+
+    @Test
+    void estimate_decaysWithoutSamples() {
+        InstanceLatencyStats.InstanceStats stats = stats();
+        stats.observe(100 * MS, false, PENALTY, 0, DECAY);
+
+        assertEquals(100 * MS * Math.exp(-1), stats.cost(DECAY, DECAY), MS);
+        assertEquals(100 * MS * Math.exp(-3), stats.cost(3 * DECAY, DECAY), MS);
+    }
+
+    @Test
+    void cost_growsWithRequestsInFlight() {
+        InstanceLatencyStats.InstanceStats stats = stats();
+        stats.observe(10 * MS, false, PENALTY, 0, DECAY);
+        stats.inFlight.set(3);
+
+        assertEquals(40 * MS, stats.cost(0, DECAY), MS);
+    }
+
+    @Test
+    void unmeasuredInstance_isFreeUntilProbed_thenAvoidedWhileProbeIsPending() {
+        InstanceLatencyStats.InstanceStats stats = stats();
+        // новый экземпляр получает пробный запрос первым
+        assertEquals(0, stats.cost(0, DECAY));
+
+        stats.inFlight.incrementAndGet();
+        // пока проба не вернулась, остальные запросы идут на экземпляры с замерами
+        assertTrue(stats.cost(0, DECAY) >= InstanceLatencyStats.UNKNOWN_PENALTY);
+
+        stats.inFlight.decrementAndGet();
+        stats.observe(5 * MS, false, PENALTY, 0, DECAY);
+        assertEquals(5 * MS, stats.cost(0, DECAY), MS);
+    }
+
+    @Test
+    void failure_isPenalized_butNotCountedAsSuccessLatency() {
+        InstanceLatencyStats.InstanceStats stats = stats();
+        stats.observe(10 * MS, false, PENALTY, 0, DECAY);
+        stats.observe(MS, true, PENALTY, 1, DECAY);
+
+        assertEquals(PENALTY, stats.cost(1, DECAY), MS);
+        assertEquals(10 * MS, stats.currentSuccessEwmaNanos(1, DECAY), MS);
+    }
+
+    private InstanceLatencyStats.InstanceStats stats() {
+        return new InstanceLatencyStats.InstanceStats("product-service",
+                Counter.builder("successes").register(registry), Counter.builder("failures").register(registry));
+    }
+}
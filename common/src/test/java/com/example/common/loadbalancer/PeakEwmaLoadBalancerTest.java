@@ -0,0 +1,123 @@
+package com.example.common.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PeakEwmaLoadBalancerTest {
+
+    private final InstanceLatencyStats stats =
+            new InstanceLatencyStats(new SimpleMeterRegistry(), Duration.ofSeconds(10), Duration.ofSeconds(1));
+    private final ServiceInstance fast = instance("product-1");
+    private final ServiceInstance slow = instance("product-2");
+
+    @Test
+    void noInstances_givesEmptyResponse() {
+        assertFalse(balancer(List.of()).choose(List.of()).hasServer());
+    }
+
+    @Test
+    void singleInstance_isChosenRegardlessOfCost() {
+        record(slow, 50);
+
+        assertSame(slow, balancer(List.of(slow)).choose(List.of(slow)).getServer());
+    }
+
+    @Test
+    void ofTwoCandidates_cheaperIsChosen() {
+        record(fast, 0);
+        record(slow, 50);
+        PeakEwmaLoadBalancer balancer = balancer(List.of(fast, slow));
+
+        // при двух экземплярах P2C всегда сравнивает оба
+        for (int i = 0; i < 20; i++) {
+            assertSame(fast, balancer.choose(List.of(fast, slow)).getServer());
+        }
+    }
+
+    @Test
+    void unmeasuredInstance_isProbedOnce_notFlooded() {
+        record(fast, 0);
+        ServiceInstance fresh = instance("product-3");
+        PeakEwmaLoadBalancer balancer = balancer(List.of(fast, fresh));
+
+        Response<ServiceInstance> probe = balancer.choose(List.of(fast, fresh));
+        assertSame(fresh, probe.getServer());
+        stats.onStartRequest(new DefaultRequest<>(new RequestDataContext()), probe);
+
+        // проба ещё в полёте: следующий запрос идёт на экземпляр с замерами
+        assertSame(fast, balancer.choose(List.of(fast, fresh)).getServer());
+    }
+
+    @Test
+    void instanceFilter_narrowsCandidatesBeforeChoice() {
+        record(fast, 0);
+        record(slow, 50);
+        PeakEwmaLoadBalancer balancer = balancer(List.of(fast, slow),
+                (request, instances) -> instances.stream().filter(instance -> instance != fast).toList());
+
+        Response<ServiceInstance> response = balancer.choose(new DefaultRequest<>(new RequestDataContext())).block();
+
+        assertSame(slow, response.getServer());
+    }
+
+    private PeakEwmaLoadBalancer balancer(List<ServiceInstance> instances) {
+        return balancer(instances, (request, candidates) -> candidates);
+    }
+
+    private PeakEwmaLoadBalancer balancer(List<ServiceInstance> instances, InstanceFilter filter) {
+        ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "product-service";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(instances);
+            }
+        };
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("supplier", supplier));
+        return new PeakEwmaLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                "product-service", stats, filter);
+    }
+
+    // один успешный запрос через жизненный цикл балансировщика с заданной задержкой
+    private void record(ServiceInstance instance, long latencyMillis) {
+        Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+        DefaultResponse response = new DefaultResponse(instance);
+        stats.onStartRequest(request, response);
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        stats.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response,
+                new ResponseData(HttpStatus.OK, new HttpHeaders(), null, null)));
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "product-service", id, 8080, false);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bff;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Карточка заявки одним ответом; части, которые не удалось получить, — null и причина в errors
+public class ApplicationDetails {
+    private JsonNode application;
+    private JsonNode applicant;
+    private JsonNode product;
+    private JsonNode history;
+    private Map<String, String> errors = new LinkedHashMap<>();
+
+    public JsonNode getApplication() { return application; }
+    public void setApplication(JsonNode application) { this.application = application; }
+
+    public JsonNode getApplicant() { return applicant; }
+    public void setApplicant(JsonNode applicant) { this.applicant = applicant; }
+
+    public JsonNode getProduct() { return product; }
+    public void setProduct(JsonNode product) { this.product = product; }
+
+    public JsonNode getHistory() { return history; }
+    public void setHistory(JsonNode history) { this.history = history; }
+
+    public Map<String, String> getErrors() { return errors; }
+    public void setErrors(Map<String, String> errors) { this.errors = errors; }
+
+    public boolean isPartial() { return !errors.isEmpty(); }
+}
@@ -0,0 +1,37 @@
+package com.example.bff;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/bff")
+public class ApplicationDetailsController {
+
+    private final ApplicationDetailsService applicationDetailsService;
+
+    public ApplicationDetailsController(ApplicationDetailsService applicationDetailsService) {
+        this.applicationDetailsService = applicationDetailsService;
+    }
+
+    // ReadDetails: GET "/api/v1/bff/applications/{id}?actorId={actorId}" — заявка, заявитель, продукт и история
+    @GetMapping("/applications/{id}")
+    public Mono<ResponseEntity<ApplicationDetails>> getApplicationDetails(
+            @PathVariable UUID id,
+            @RequestParam(value = "actorId", required = false) UUID actorId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return applicationDetailsService.load(id, actorId, authorization)
+                .map(details -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .body(details));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.bff;
+
+import com.example.config.BffProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+// Собирает карточку заявки из application-, user- и product-service за один запрос к gateway.
+// История запрашивается параллельно с заявкой, заявитель и продукт — параллельно друг с другом сразу после неё.
+// Без заявки ответа нет; остальные части необязательны: при ошибке или превышении бюджета часть пуста, а причина — в errors.
+@Service
+public class ApplicationDetailsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationDetailsService.class);
+
+    static final String APPLICATION = "application";
+    static final String APPLICANT = "applicant";
+    static final String PRODUCT = "product";
+    static final String HISTORY = "history";
+
+    private final WebClient webClient;
+    private final BffProperties properties;
+
+    public ApplicationDetailsService(WebClient bffWebClient, BffProperties properties) {
+        this.webClient = bffWebClient;
+        this.properties = properties;
+    }
+
+    public Mono<ApplicationDetails> load(UUID id, UUID actorId, String authorization) {
+        Mono<Part> history = actorId == null
+                ? Mono.just(Part.SKIPPED)
+                : optional(HISTORY, get(HISTORY, authorization,
+                        properties.getApplicationServiceUri() + "/api/v1/applications/{id}/history?actorId={actorId}", id, actorId));
+
+        Mono<ApplicationDetails> withRelated = get(APPLICATION, authorization,
+                properties.getApplicationServiceUri() + "/api/v1/applications/{id}", id)
+                .onErrorMap(ApplicationDetailsService::toResponseStatus)
+                // 2xx без тела — сбой сервиса, а не пустая карточка: иначе клиент получил бы 200 без ответа
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.BAD_GATEWAY,
+                        "Application service responded without a body")))
+                .flatMap(application -> Mono.zip(
+                        related(APPLICANT, application, "applicantId", authorization,
+                                properties.getUserServiceUri() + "/api/v1/users/{id}"),
+                        related(PRODUCT, application, "productId", authorization,
+                                properties.getProductServiceUri() + "/api/v1/products/{id}"))
+                        .map(parts -> {
+                            ApplicationDetails details = new ApplicationDetails();
+                            details.setApplication(application);
+                            apply(details, APPLICANT, parts.getT1());
+                            apply(details, PRODUCT, parts.getT2());
+                            return details;
+                        }));
+
+        // zip подписывается на обе ветки сразу; если заявки нет, история отменяется
+        return Mono.zip(withRelated, history).map(result -> {
+            ApplicationDetails details = result.getT1();
+            apply(details, HISTORY, result.getT2());
+            return details;
+        });
+    }
+
+    private Mono<Part> related(String part, JsonNode application, String field, String authorization, String uri) {
+        JsonNode relatedId = application.get(field);
+        if (relatedId == null || relatedId.isNull()) {
+            return Mono.just(Part.SKIPPED);
+        }
+        return optional(part, get(part, authorization, uri, relatedId.asText()));
+    }
+
+    private Mono<JsonNode> get(String part, String authorization, String uri, Object... variables) {
+        Duration timeout = properties.timeoutFor(part);
+        return webClient.get()
+                .uri(uri, variables)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (authorization != null) {
+                        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(timeout);
+    }
+
+    private Mono<Part> optional(String part, Mono<JsonNode> call) {
+        return call.map(Part::of)
+                .defaultIfEmpty(Part.SKIPPED)
+                .onErrorResume(e -> {
+                    log.debug("Application details: {} is unavailable: {}", part, e.toString());
+                    return Mono.just(Part.failed(describe(e)));
+                });
+    }
+
+    private static void apply(ApplicationDetails details, String part, Part value) {
+        if (value.error() != null) {
+            details.getErrors().put(part, value.error());
+            return;
+        }
+        switch (part) {
+            case APPLICANT -> details.setApplicant(value.body());
+            case PRODUCT -> details.setProduct(value.body());
+            case HISTORY -> details.setHistory(value.body());
+            default -> throw new IllegalArgumentException(part);
+        }
+    }
+
+    private static String describe(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().value() + " " + response.getStatusText();
+        }
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        return "unavailable";
+    }
+
+    // 4xx заявки (нет такой, нет прав) отдаём как есть, сбой сервиса — 502/504/503
+    private static Throwable toResponseStatus(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            HttpStatus status = response.getStatusCode().is4xxClientError()
+                    ? HttpStatus.valueOf(response.getStatusCode().value())
+                    : HttpStatus.BAD_GATEWAY;
+            return new ResponseStatusException(status, "Application service responded " + response.getStatusCode().value(), e);
+        }
+        if (e instanceof TimeoutException) {
+            return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Application service did not respond in time", e);
+        }
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Application service is unavailable now", e);
+    }
+
+    private record Part(JsonNode body, String error) {
+        static final Part SKIPPED = new Part(null, null);
+
+        static Part of(JsonNode body) {
+            return new Part(body, null);
+        }
+
+        static Part failed(String error) {
+            return new Part(null, error);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.config;
+
+import com.example.filter.BffAdmissionFilter;
+import com.example.filter.ConcurrencyLimitFilter;
+import com.example.filter.RateLimitFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(BffProperties.class)
+public class BffConfig {
+
+    // отдельный клиент, а не общий @LoadBalanced WebClient.Builder, чтобы не менять поведение остальных WebClient
+    @Bean
+    public WebClient bffWebClient(WebClient.Builder builder, ReactorLoadBalancerExchangeFilterFunction loadBalancer) {
+        return builder.filter(loadBalancer).build();
+    }
+
+    @Bean
+    public BffAdmissionFilter bffAdmissionFilter(ObjectProvider<RateLimitFilter> rateLimitFilter,
+                                                 ObjectProvider<ConcurrencyLimitFilter> concurrencyLimitFilter) {
+        List<GlobalFilter> filters = new ArrayList<>();
+        rateLimitFilter.ifAvailable(filters::add);
+        concurrencyLimitFilter.ifAvailable(filters::add);
+        return new BffAdmissionFilter(filters);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.bff")
+public class BffProperties {
+
+    // адреса сервисов; хост — serviceId для балансировщика
+    private String applicationServiceUri = "http://application-service";
+    private String userServiceUri = "http://user-service";
+    private String productServiceUri = "http://product-service";
+    // бюджет на каждый подзапрос, если для части не задан свой
+    private Duration defaultTimeout = Duration.ofSeconds(1);
+    // application, applicant, product, history
+    private Map<String, Duration> timeouts = new HashMap<>();
+
+    public String getApplicationServiceUri() { return applicationServiceUri; }
+    public void setApplicationServiceUri(String applicationServiceUri) { this.applicationServiceUri = applicationServiceUri; }
+
+    public String getUserServiceUri() { return userServiceUri; }
+    public void setUserServiceUri(String userServiceUri) { this.userServiceUri = userServiceUri; }
+
+    public String getProductServiceUri() { return productServiceUri; }
+    public void setProductServiceUri(String productServiceUri) { this.productServiceUri = productServiceUri; }
+
+    public Duration getDefaultTimeout() { return defaultTimeout; }
+    public void setDefaultTimeout(Duration defaultTimeout) { this.defaultTimeout = defaultTimeout; }
+
+    public Map<String, Duration> getTimeouts() { return timeouts; }
+    public void setTimeouts(Map<String, Duration> timeouts) { this.timeouts = timeouts; }
+
+    public Duration timeoutFor(String part) {
+        return timeouts.getOrDefault(part, defaultTimeout);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.config;
+
+import com.example.filter.ConcurrencyLimitFilter;
+import com.example.common.limiter.ConcurrencyLimiters;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Адаптивный лимит одновременных запросов для каждого маршрута
+@Configuration
+@ConditionalOnProperty(name = "concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public ConcurrencyLimiters routeConcurrencyLimiters(MeterRegistry meterRegistry,
+                                                        @Value("${concurrency-limit.initial-limit:100}") int initialLimit,
+                                                        @Value("${concurrency-limit.min-limit:10}") int minLimit,
+                                                        @Value("${concurrency-limit.max-limit:1000}") int maxLimit) {
+        return new ConcurrencyLimiters(meterRegistry, "routeId", initialLimit, minLimit, maxLimit);
+    }
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(ConcurrencyLimiters routeConcurrencyLimiters) {
+        return new ConcurrencyLimitFilter(routeConcurrencyLimiters);
+    }
+}
@@ -2,6 +2,8 @@ package com.example.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsWebFilter;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
@@ -12,17 +14,24 @@ import java.util.Collections;
 @Configuration
 public class CorsConfig {
 
+    // первым среди WebFilter-ов: в том числе раньше допуска BFF-запросов
     @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
     public CorsWebFilter corsWebFilter() {
         CorsConfiguration corsConfig = new CorsConfiguration();
         corsConfig.setAllowedOrigins(Collections.singletonList("*"));
         corsConfig.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         corsConfig.setAllowedHeaders(Arrays.asList(
                 "Origin", "Content-Type", "Accept", "Authorization",
-                "X-Requested-With", "X-XSRF-TOKEN", "Cache-Control"
+                "X-Requested-With", "X-XSRF-TOKEN", "Cache-Control",
+                "If-None-Match", "If-Match"
         ));
         corsConfig.setExposedHeaders(Arrays.asList(
-                "Authorization", "Content-Type", "Content-Disposition"
+                "Authorization", "Content-Type", "Content-Disposition",
+                // условные запросы: браузер должен видеть ETag и политику кэширования от сервисов
+                "ETag", "Cache-Control",
+                // ответ 429 от ограничителя запросов
+                "Retry-After"
         ));
         corsConfig.setAllowCredentials(true);
         corsConfig.setMaxAge(3600L);
@@ -0,0 +1,21 @@
+package com.example.config;
+
+import com.example.filter.RateLimitFilter;
+import com.example.common.loadbalancer.InstanceLatencyStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties, InstanceLatencyStats latencyStats,
+                                           MeterRegistry meterRegistry) {
+        return new RateLimitFilter(properties, latencyStats, meterRegistry);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    // лимит на одного клиента для запросов, не попавших ни в одно правило
+    private Bucket defaultClientLimit = new Bucket(100, 50);
+    private Priority defaultPriority = Priority.NORMAL;
+    // бакеты клиентов хранятся в памяти, неактивные вытесняются
+    private long maxClients = 100_000;
+    private Duration clientIdleTimeout = Duration.ofMinutes(10);
+    private Shedding shedding = new Shedding();
+    private List<Rule> rules = new ArrayList<>();
+
+    public Bucket getDefaultClientLimit() { return defaultClientLimit; }
+    public void setDefaultClientLimit(Bucket defaultClientLimit) { this.defaultClientLimit = defaultClientLimit; }
+
+    public Priority getDefaultPriority() { return defaultPriority; }
+    public void setDefaultPriority(Priority defaultPriority) { this.defaultPriority = defaultPriority; }
+
+    public long getMaxClients() { return maxClients; }
+    public void setMaxClients(long maxClients) { this.maxClients = maxClients; }
+
+    public Duration getClientIdleTimeout() { return clientIdleTimeout; }
+    public void setClientIdleTimeout(Duration clientIdleTimeout) { this.clientIdleTimeout = clientIdleTimeout; }
+
+    public Shedding getShedding() { return shedding; }
+    public void setShedding(Shedding shedding) { this.shedding = shedding; }
+
+    public List<Rule> getRules() { return rules; }
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+
+    // CRITICAL не сбрасывается никогда, остальные — начиная с LOW по мере роста задержки
+    public enum Priority { CRITICAL, HIGH, NORMAL, LOW }
+
+    public static class Bucket {
+        // сколько запросов можно сделать разом
+        private long capacity;
+        // скорость пополнения, запросов в секунду
+        private double rate;
+
+        public Bucket() { }
+
+        public Bucket(long capacity, double rate) {
+            this.capacity = capacity;
+            this.rate = rate;
+        }
+
+        public long getCapacity() { return capacity; }
+        public void setCapacity(long capacity) { this.capacity = capacity; }
+
+        public double getRate() { return rate; }
+        public void setRate(double rate) { this.rate = rate; }
+    }
+
+    public static class Rule {
+        // шаблон пути в синтаксисе PathPattern
+        private String path;
+        // пусто — любой метод
+        private List<String> methods = new ArrayList<>();
+        private Priority priority;
+        // лимит на одного клиента; если не задан — default-client-limit
+        private Bucket clientLimit;
+        // общий лимит маршрута на всех клиентов; если не задан — без ограничения
+        private Bucket routeLimit;
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+
+        public Priority getPriority() { return priority; }
+        public void setPriority(Priority priority) { this.priority = priority; }
+
+        public Bucket getClientLimit() { return clientLimit; }
+        public void setClientLimit(Bucket clientLimit) { this.clientLimit = clientLimit; }
+
+        public Bucket getRouteLimit() { return routeLimit; }
+        public void setRouteLimit(Bucket routeLimit) { this.routeLimit = routeLimit; }
+    }
+
+    public static class Shedding {
+        private boolean enabled = true;
+        // порог задержки сервиса маршрута (Peak-EWMA), выше которого приоритет сбрасывается
+        private Map<Priority, Duration> latencyThresholds = new EnumMap<>(Map.of(
+                Priority.LOW, Duration.ofMillis(500),
+                Priority.NORMAL, Duration.ofSeconds(1),
+                Priority.HIGH, Duration.ofSeconds(2)));
+        private Duration retryAfter = Duration.ofSeconds(2);
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public Map<Priority, Duration> getLatencyThresholds() { return latencyThresholds; }
+        public void setLatencyThresholds(Map<Priority, Duration> latencyThresholds) { this.latencyThresholds = latencyThresholds; }
+
+        public Duration getRetryAfter() { return retryAfter; }
+        public void setRetryAfter(Duration retryAfter) { this.retryAfter = retryAfter; }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.config;
+
+import com.example.filter.ResponseCacheFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "gateway.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public ResponseCacheFilter responseCacheFilter(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ResponseCacheFilter(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    // суммарный объём тел ответов в кэше
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    private DataSize maxEntrySize = DataSize.ofKilobytes(512);
+    // сколько хранить запись после записи, включая время, когда она уже устарела
+    private Duration retention = Duration.ofMinutes(10);
+    // заголовки запроса, входящие в ключ; ответ с Vary по другим заголовкам не кэшируется
+    private List<String> varyHeaders = new ArrayList<>(List.of("Accept", "Accept-Encoding", "Accept-Language"));
+    private List<Rule> rules = new ArrayList<>();
+    // изменения одного ресурса, меняющие ответы другого (удаление пользователя удаляет его заявки)
+    private List<Cascade> cascades = new ArrayList<>();
+
+    public DataSize getMaxSize() { return maxSize; }
+    public void setMaxSize(DataSize maxSize) { this.maxSize = maxSize; }
+
+    public DataSize getMaxEntrySize() { return maxEntrySize; }
+    public void setMaxEntrySize(DataSize maxEntrySize) { this.maxEntrySize = maxEntrySize; }
+
+    public Duration getRetention() { return retention; }
+    public void setRetention(Duration retention) { this.retention = retention; }
+
+    public List<String> getVaryHeaders() { return varyHeaders; }
+    public void setVaryHeaders(List<String> varyHeaders) { this.varyHeaders = varyHeaders; }
+
+    public List<Rule> getRules() { return rules; }
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+
+    public List<Cascade> getCascades() { return cascades; }
+    public void setCascades(List<Cascade> cascades) { this.cascades = cascades; }
+
+    public static class Rule {
+        // шаблон пути в синтаксисе PathPattern, например /api/v1/products/**
+        private String path;
+        // верхняя граница свежести; max-age/s-maxage от сервиса могут её только уменьшить
+        private Duration ttl;
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+    }
+
+    public static class Cascade {
+        // ресурс в виде /api/v1/users: изменение любого его пути
+        private String scope;
+        // ресурсы, кэш которых сбрасывается вместе с ним
+        private List<String> invalidates = new ArrayList<>();
+
+        public String getScope() { return scope; }
+        public void setScope(String scope) { this.scope = scope; }
+
+        public List<String> getInvalidates() { return invalidates; }
+        public void setInvalidates(List<String> invalidates) { this.invalidates = invalidates; }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.filter;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+
+// BFF (/api/v1/bff/**) — контроллер gateway, а не маршрут, и GlobalFilter-ы его запросы не видят.
+// Прогоняем их через те же фильтры допуска (токен-бакеты, сброс нагрузки, адаптивный лимит) как маршрут "bff":
+// без карточки заявки ответа нет, поэтому сброс нагрузки смотрит на задержку application-service.
+public class BffAdmissionFilter implements WebFilter, Ordered {
+
+    // после CorsWebFilter (CorsConfig): отказ 429/503 тоже должен нести CORS-заголовки
+    public static final int ORDER = 0;
+    public static final String ROUTE_ID = "bff";
+
+    private static final PathPattern BFF_PATHS = PathPatternParser.defaultInstance.parse("/api/v1/bff/**");
+
+    private final Route route = Route.async()
+            .id(ROUTE_ID)
+            .uri("lb://application-service")
+            .predicate(exchange -> true)
+            .build();
+    private final List<GlobalFilter> filters;
+
+    public BffAdmissionFilter(List<? extends GlobalFilter> filters) {
+        this.filters = filters.stream()
+                .sorted(Comparator.comparingInt(filter -> filter instanceof Ordered ordered
+                        ? ordered.getOrder() : Ordered.LOWEST_PRECEDENCE))
+                .map(GlobalFilter.class::cast)
+                .toList();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!BFF_PATHS.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+            return chain.filter(exchange);
+        }
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return admit(0, chain).filter(exchange);
+    }
+
+    private GatewayFilterChain admit(int index, WebFilterChain chain) {
+        if (index == filters.size()) {
+            return chain::filter;
+        }
+        return exchange -> filters.get(index).filter(exchange, admit(index + 1, chain));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.filter;
+
+import com.example.common.limiter.AdaptiveConcurrencyLimiter;
+import com.example.common.limiter.ConcurrencyLimiters;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+// Адаптивный лимит одновременных запросов на маршрут: при росте задержки сервиса лимит сжимается,
+// и лишние запросы сразу получают 503, а не копятся в очереди к деградировавшему сервису.
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    // после кэша ответов (попадания в кэш не занимают место), до выбора экземпляра
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+
+    private final ConcurrencyLimiters limiters;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimiters limiters) {
+        this.limiters = limiters;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        AdaptiveConcurrencyLimiter limiter = limiters.forName(route.getId());
+        if (!limiter.tryAcquire()) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return response.setComplete();
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            boolean overloaded = status != null && AdaptiveConcurrencyLimiter.isOverloaded(status.value());
+            if (signal == SignalType.CANCEL) {
+                limiter.onIgnore();
+            } else if (signal == SignalType.ON_ERROR || overloaded) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(System.nanoTime() - start);
+            }
+        });
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.filter;
+
+import com.example.config.RateLimitProperties;
+import com.example.config.RateLimitProperties.Bucket;
+import com.example.config.RateLimitProperties.Priority;
+import com.example.common.loadbalancer.InstanceLatencyStats;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Допуск запросов в gateway: токен-бакеты на клиента и на маршрут (в памяти, без Redis)
+// и сброс нагрузки по приоритету, когда задержка сервиса маршрута превышает порог.
+// Отказ — 429 с Retry-After.
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    // до кэша ответов и балансировщика: отклонённый запрос не должен ничего стоить
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+    static final String REJECT_REASON_HEADER = "X-RateLimit-Reason";
+
+    private final List<Rule> rules;
+    private final Rule defaultRule;
+    private final Cache<String, TokenBucket> clientBuckets;
+    private final InstanceLatencyStats latencyStats;
+    private final boolean sheddingEnabled;
+    private final Map<Priority, Long> shedThresholdNanos;
+    private final Duration shedRetryAfter;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, InstanceLatencyStats latencyStats, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        List<RateLimitProperties.Rule> configured = properties.getRules();
+        this.rules = IntStream.range(0, configured.size())
+                .mapToObj(i -> rule(i, configured.get(i), properties))
+                .toList();
+        this.defaultRule = new Rule(-1, null, Set.of(), properties.getDefaultPriority(),
+                properties.getDefaultClientLimit(), null);
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getClientIdleTimeout())
+                .build();
+        this.latencyStats = latencyStats;
+        this.sheddingEnabled = properties.getShedding().isEnabled();
+        this.shedThresholdNanos = new EnumMap<>(Priority.class);
+        properties.getShedding().getLatencyThresholds()
+                .forEach((priority, threshold) -> shedThresholdNanos.put(priority, threshold.toNanos()));
+        // критичные маршруты (вход в систему) не сбрасываются даже при явной настройке
+        shedThresholdNanos.remove(Priority.CRITICAL);
+        this.shedRetryAfter = properties.getShedding().getRetryAfter();
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() == HttpMethod.OPTIONS) {
+            return chain.filter(exchange);
+        }
+        Rule rule = ruleFor(request);
+        long now = System.nanoTime();
+
+        String serviceId = serviceId(exchange);
+        Long threshold = shedThresholdNanos.get(rule.priority);
+        if (sheddingEnabled && threshold != null && serviceId != null) {
+            double latency = latencyStats.serviceLatencyNanos(serviceId);
+            if (latency > threshold) {
+                log.debug("Shedding {} {} (priority {}): {} latency {} ms", request.getMethod(),
+                        request.getPath(), rule.priority, serviceId, (long) (latency / 1e6));
+                return reject(exchange, rule, "shed", shedRetryAfter.toNanos());
+            }
+        }
+
+        if (rule.clientLimit != null) {
+            String key = rule.index + "|" + clientKey(request);
+            long wait = clientBuckets.get(key, k -> new TokenBucket(rule.clientLimit.getCapacity(), rule.clientLimit.getRate()))
+                    .tryAcquire(now);
+            if (wait > 0) {
+                return reject(exchange, rule, "client_limit", wait);
+            }
+        }
+        if (rule.routeBucket != null) {
+            long wait = rule.routeBucket.tryAcquire(now);
+            if (wait > 0) {
+                return reject(exchange, rule, "route_limit", wait);
+            }
+        }
+        return chain.filter(exchange);
+    }
+
+    private Rule ruleFor(ServerHttpRequest request) {
+        String method = request.getMethod().name();
+        for (Rule rule : rules) {
+            if ((rule.methods.isEmpty() || rule.methods.contains(method))
+                    && rule.pattern.matches(request.getPath().pathWithinApplication())) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    // Клиент — адрес источника. Заголовок Authorization gateway не проверяет, и ключ по нему позволял бы
+    // получить свежий бакет на каждый выдуманный токен
+    private static String clientKey(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return "anonymous";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    // Для lb://-маршрутов — идентификатор сервиса, по задержке которого принимается решение о сбросе
+    private static String serviceId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return null;
+        }
+        URI uri = route.getUri();
+        return "lb".equalsIgnoreCase(uri.getScheme()) ? uri.getHost() : null;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, Rule rule, String reason, long waitNanos) {
+        rejections.computeIfAbsent(reason + "|" + rule.priority, k -> Counter.builder("gateway.requests.rejected")
+                        .tag("reason", reason)
+                        .tag("priority", rule.priority.name().toLowerCase())
+                        .register(meterRegistry))
+                .increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        // Retry-After — целые секунды, округляем вверх
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.getHeaders().set(REJECT_REASON_HEADER, reason);
+        return response.setComplete();
+    }
+
+    private static Rule rule(int index, RateLimitProperties.Rule rule, RateLimitProperties properties) {
+        Set<String> methods = rule.getMethods().stream()
+                .map(method -> HttpMethod.valueOf(method.toUpperCase()).name())
+                .collect(Collectors.toUnmodifiableSet());
+        return new Rule(index,
+                PathPatternParser.defaultInstance.parse(rule.getPath()),
+                methods,
+                rule.getPriority() != null ? rule.getPriority() : properties.getDefaultPriority(),
+                rule.getClientLimit() != null ? rule.getClientLimit() : properties.getDefaultClientLimit(),
+                rule.getRouteLimit() != null
+                        ? new TokenBucket(rule.getRouteLimit().getCapacity(), rule.getRouteLimit().getRate())
+                        : null);
+    }
+
+    private record Rule(int index, PathPattern pattern, Set<String> methods, Priority priority,
+                        Bucket clientLimit, TokenBucket routeBucket) { }
+}
@@ -0,0 +1,436 @@
+package com.example.filter;
+
+import com.example.config.ResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Кэш ответов на GET для маршрутов из gateway.response-cache.rules.
+// Уважает Cache-Control сервиса (no-store/private не кэшируются, max-age/s-maxage сокращают TTL маршрута,
+// no-cache — хранить, но перепроверять) и перепроверяет устаревшие копии через If-None-Match.
+// Запросы с Authorization идут мимо кэша, а изменяющие запросы сбрасывают кэш своего ресурса
+// и зависимых от него (gateway.response-cache.cascades), в том числе пришедшие через discovery locator.
+// Изменения в обход gateway (Feign между сервисами) кэш не видит: они становятся видны по истечении TTL правила.
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    // раньше NettyWriteResponseFilter, чтобы перехватить тело ответа сервиса
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final Set<HttpMethod> MUTATIONS = Set.of(
+            HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Set<String> NOT_STORED_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding", "te", "trailer", "upgrade",
+            "content-length", "date", "age", CACHE_STATUS_HEADER.toLowerCase(Locale.ROOT));
+    // Vary от CorsWebFilter самого gateway: CORS-заголовки считаются заново на каждый запрос
+    private static final Set<String> GATEWAY_VARY_HEADERS = Set.of(
+            "origin", "access-control-request-method", "access-control-request-headers");
+
+    private final List<Rule> rules;
+    private final List<String> varyHeaders;
+    private final long maxEntryBytes;
+    private final Map<String, List<String>> cascades;
+    private final Cache<String, CachedResponse> cache;
+    // поколение scope растёт с каждым изменением; ответ, начатый в прошлом поколении, не сохраняется
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidations;
+    private final Counter bypasses;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.rules = properties.getRules().stream()
+                .map(rule -> new Rule(PathPatternParser.defaultInstance.parse(rule.getPath()), rule.getTtl()))
+                .toList();
+        this.varyHeaders = properties.getVaryHeaders().stream()
+                .map(header -> header.toLowerCase(Locale.ROOT))
+                .toList();
+        this.maxEntryBytes = properties.getMaxEntrySize().toBytes();
+        this.cascades = properties.getCascades().stream()
+                .collect(Collectors.toMap(ResponseCacheProperties.Cascade::getScope,
+                        ResponseCacheProperties.Cascade::getInvalidates, (first, second) -> {
+                            List<String> merged = new ArrayList<>(first);
+                            merged.addAll(second);
+                            return merged;
+                        }));
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.body.length)
+                // устаревшие копии с ETag держим дольше TTL: по ним идёт дешёвая перепроверка
+                .expireAfterWrite(properties.getRetention())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response.cache");
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.revalidations = counter(meterRegistry, "revalidated");
+        this.bypasses = counter(meterRegistry, "bypass");
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+
+        if (MUTATIONS.contains(request.getMethod())) {
+            String scope = resourceScope(path);
+            return chain.filter(exchange).doFinally(signal -> invalidate(scope));
+        }
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        Duration ttl = ttlFor(request);
+        if (ttl == null) {
+            return chain.filter(exchange);
+        }
+        if (request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+            bypasses.increment();
+            return chain.filter(exchange);
+        }
+
+        String key = key(request);
+        String scope = resourceScope(path);
+        // поколение берём до обращения к сервису: изменение во время запроса сделает ответ непригодным
+        long generation = generations.computeIfAbsent(scope, s -> new AtomicLong()).get();
+        CachedResponse cached = cache.getIfPresent(key);
+        long now = System.nanoTime();
+        if (cached != null && cached.isFresh(now) && !clientRequiresRevalidation(request.getHeaders())) {
+            hits.increment();
+            return writeCached(exchange.getResponse(), request, cached, "HIT");
+        }
+
+        ServerHttpRequest forwarded = request;
+        CachedResponse revalidating = null;
+        if (cached != null && cached.etag != null && !request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            // устаревшая копия с ETag: сервис ответит 304 без тела, если она всё ещё актуальна
+            revalidating = cached;
+            String etag = cached.etag;
+            forwarded = request.mutate().headers(headers -> headers.set(HttpHeaders.IF_NONE_MATCH, etag)).build();
+        } else {
+            misses.increment();
+        }
+
+        CachingResponse response = new CachingResponse(exchange.getResponse(), request, key, scope, generation,
+                ttl, revalidating);
+        return chain.filter(exchange.mutate().request(forwarded).response(response).build());
+    }
+
+    private Duration ttlFor(ServerHttpRequest request) {
+        for (Rule rule : rules) {
+            if (rule.pattern.matches(request.getPath().pathWithinApplication())) {
+                return rule.ttl;
+            }
+        }
+        return null;
+    }
+
+    private String key(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getPath().pathWithinApplication().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : varyHeaders) {
+            List<String> values = request.getHeaders().get(header);
+            key.append('|');
+            if (values != null) {
+                key.append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    // /api/v1/products/42 -> /api/v1/products: любое изменение ресурса сбрасывает и карточки, и списки.
+    // Маршруты discovery locator (/product-service/api/v1/products/42) относятся к тому же ресурсу
+    static String resourceScope(String path) {
+        int service = path.indexOf('/', 1);
+        if (!path.startsWith("/api/") && service > 0 && path.startsWith("/api/", service)) {
+            path = path.substring(service);
+        }
+        String[] segments = path.split("/", 5);
+        return segments.length >= 4 ? String.join("/", segments[0], segments[1], segments[2], segments[3]) : path;
+    }
+
+    private void invalidate(String scope) {
+        List<String> scopes = new ArrayList<>();
+        scopes.add(scope);
+        scopes.addAll(cascades.getOrDefault(scope, List.of()));
+        // сначала поколение, потом удаление: запись, проверившая поколение раньше, будет удалена,
+        // а проверяющая позже — отброшена
+        for (String affected : scopes) {
+            AtomicLong generation = generations.get(affected);
+            if (generation != null) {
+                generation.incrementAndGet();
+            }
+        }
+        cache.asMap().keySet().removeIf(key -> scopes.stream().anyMatch(affected -> inScope(key, affected)));
+    }
+
+    private static boolean inScope(String key, String scope) {
+        return key.equals(scope) || key.startsWith(scope + "/")
+                || key.startsWith(scope + "?") || key.startsWith(scope + "|");
+    }
+
+    // проверка поколения и запись атомарны относительно удаления того же ключа в invalidate
+    private void store(String key, String scope, long generation, CachedResponse response) {
+        AtomicLong current = generations.get(scope);
+        cache.asMap().compute(key, (k, existing) -> current.get() == generation ? response : existing);
+    }
+
+    private static boolean clientRequiresRevalidation(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null) {
+            String lower = cacheControl.toLowerCase(Locale.ROOT);
+            if (lower.contains("no-cache") || lower.contains("no-store") || lower.contains("max-age=0")) {
+                return true;
+            }
+        }
+        return "no-cache".equalsIgnoreCase(headers.getFirst(HttpHeaders.PRAGMA));
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, ServerHttpRequest request,
+                                   CachedResponse cached, String cacheStatus) {
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers);
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(System.nanoTime())));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (cached.etag != null && etagMatches(request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), cached.etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body.length);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body)));
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String expected = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || (trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed).equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Свежесть по Cache-Control сервиса, ограниченная TTL маршрута; null — ответ хранить нельзя
+    private Duration freshness(HttpHeaders headers, Duration routeTtl) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        String vary = headers.getFirst(HttpHeaders.VARY);
+        if (vary != null) {
+            for (String header : vary.split(",")) {
+                String name = header.trim().toLowerCase(Locale.ROOT);
+                if (!name.isEmpty() && !varyHeaders.contains(name) && !GATEWAY_VARY_HEADERS.contains(name)) {
+                    return null;
+                }
+            }
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return routeTtl;
+        }
+        Duration maxAge = null;
+        Duration sharedMaxAge = null;
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            String trimmed = directive.trim();
+            if (trimmed.equals("no-store") || trimmed.equals("private")) {
+                return null;
+            }
+            if (trimmed.equals("no-cache")) {
+                return Duration.ZERO;
+            }
+            if (trimmed.startsWith("s-maxage=")) {
+                sharedMaxAge = parseSeconds(trimmed.substring("s-maxage=".length()));
+            } else if (trimmed.startsWith("max-age=")) {
+                maxAge = parseSeconds(trimmed.substring("max-age=".length()));
+            }
+        }
+        Duration allowed = sharedMaxAge != null ? sharedMaxAge : maxAge;
+        return allowed != null && allowed.compareTo(routeTtl) < 0 ? allowed : routeTtl;
+    }
+
+    private static Duration parseSeconds(String value) {
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            return Duration.ZERO;
+        }
+    }
+
+    private static HttpHeaders storableHeaders(HttpHeaders source) {
+        HttpHeaders copy = new HttpHeaders();
+        source.forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (!NOT_STORED_HEADERS.contains(lower) && !lower.startsWith("access-control-")) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return copy;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache.requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerHttpRequest request;
+        private final String key;
+        private final String scope;
+        private final long generation;
+        private final Duration routeTtl;
+        private final CachedResponse revalidating;
+
+        CachingResponse(ServerHttpResponse delegate, ServerHttpRequest request, String key, String scope,
+                        long generation, Duration routeTtl, CachedResponse revalidating) {
+            super(delegate);
+            this.request = request;
+            this.key = key;
+            this.scope = scope;
+            this.generation = generation;
+            this.routeTtl = routeTtl;
+            this.revalidating = revalidating;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (revalidating != null && hasStatus(HttpStatus.NOT_MODIFIED)) {
+                return Flux.from(body).doOnNext(DataBufferUtils::release).then(Mono.defer(this::serveRevalidated));
+            }
+            if (revalidating != null) {
+                misses.increment();
+            }
+            Duration fresh = hasStatus(HttpStatus.OK) ? freshness(getHeaders(), routeTtl) : null;
+            if (fresh == null || (fresh.isZero() && getHeaders().getETag() == null)) {
+                return super.writeWith(body);
+            }
+            return Flux.from(body).collectList().flatMap(buffers -> {
+                long size = buffers.stream().mapToLong(DataBuffer::readableByteCount).sum();
+                if (size > maxEntryBytes) {
+                    return super.writeWith(Flux.fromIterable(buffers));
+                }
+                byte[] bytes = new byte[(int) size];
+                int offset = 0;
+                for (DataBuffer buffer : buffers) {
+                    int length = buffer.readableByteCount();
+                    buffer.read(bytes, offset, length);
+                    offset += length;
+                    DataBufferUtils.release(buffer);
+                }
+                store(key, scope, generation, new CachedResponse(storableHeaders(getHeaders()), bytes,
+                        getHeaders().getETag(), System.nanoTime(), fresh));
+                getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            if (revalidating != null && hasStatus(HttpStatus.NOT_MODIFIED)) {
+                return serveRevalidated();
+            }
+            return super.setComplete();
+        }
+
+        private boolean hasStatus(HttpStatus status) {
+            return getStatusCode() != null && getStatusCode().value() == status.value();
+        }
+
+        // сервис подтвердил копию: продлеваем её с новыми Cache-Control/ETag и отдаём клиенту
+        private Mono<Void> serveRevalidated() {
+            revalidations.increment();
+            Duration fresh = freshness(getHeaders(), routeTtl);
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(revalidating.headers);
+            String cacheControl = getHeaders().getCacheControl();
+            if (cacheControl != null) {
+                headers.setCacheControl(cacheControl);
+            }
+            CachedResponse refreshed = new CachedResponse(headers, revalidating.body, revalidating.etag,
+                    System.nanoTime(), fresh != null ? fresh : Duration.ZERO);
+            if (fresh != null) {
+                store(key, scope, generation, refreshed);
+            } else {
+                cache.invalidate(key);
+            }
+            log.debug("Revalidated cached response for {}", key);
+            return writeCached(getDelegate(), request, refreshed, "REVALIDATED");
+        }
+    }
+
+    private record Rule(PathPattern pattern, Duration ttl) { }
+
+    private static final class CachedResponse {
+        final HttpHeaders headers;
+        final byte[] body;
+        final String etag;
+        final long storedAt;
+        final long freshNanos;
+
+        CachedResponse(HttpHeaders headers, byte[] body, String etag, long storedAt, Duration fresh) {
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+            this.body = body;
+            this.etag = etag;
+            this.storedAt = storedAt;
+            this.freshNanos = fresh.toNanos();
+        }
+
+        boolean isFresh(long now) {
+            return now - storedAt < freshNanos;
+        }
+
+        long ageSeconds(long now) {
+            return Duration.ofNanos(now - storedAt).toSeconds();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Токен-бакет в форме GCRA: всё состояние — «теоретическое время прибытия» следующего запроса в одном AtomicLong,
+// поэтому взятие токена — один CAS без блокировок.
+public final class TokenBucket {
+
+    // время пополнения одного токена
+    private final long intervalNanos;
+    // полный бакет, выраженный во времени
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, double tokensPerSecond) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and rate must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        // без истории бакет полный: бакет создаётся уже после того, как фильтр взял now,
+        // и стартовое System.nanoTime() отнимало бы у первого запроса токен
+        this.theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    // 0 — токен взят, иначе сколько наносекунд ждать до появления следующего
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
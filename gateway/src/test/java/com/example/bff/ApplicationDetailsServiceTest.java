@@ -0,0 +1,61 @@
+package com.example.bff;
+
+import com.example.config.BffProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ApplicationDetailsServiceTest {
+
+    @Test
+    void applicationWithoutBody_isBadGateway() {
+        ApplicationDetailsService service = service(ClientResponse.create(HttpStatus.OK).build());
+
+        StepVerifier.create(service.load(UUID.randomUUID(), null, null))
+                .expectErrorSatisfies(e -> assertEquals(HttpStatus.BAD_GATEWAY,
+                        ((ResponseStatusException) e).getStatusCode()))
+                .verify();
+    }
+
+    @Test
+    void missingApplication_isNotFound() {
+        ApplicationDetailsService service = service(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+
+        StepVerifier.create(service.load(UUID.randomUUID(), null, null))
+                .expectErrorSatisfies(e -> assertEquals(HttpStatus.NOT_FOUND,
+                        ((ResponseStatusException) e).getStatusCode()))
+                .verify();
+    }
+
+    @Test
+    void application_withoutRelatedIds_isReturned() {
+        ApplicationDetailsService service = service(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"status\":\"SUBMITTED\"}")
+                .build());
+
+        StepVerifier.create(service.load(UUID.randomUUID(), null, null))
+                .assertNext(details -> {
+                    assertEquals("SUBMITTED", details.getApplication().get("status").asText());
+                    assertFalse(details.isPartial());
+                })
+                .verifyComplete();
+    }
+
+    private static ApplicationDetailsService service(ClientResponse applicationResponse) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(applicationResponse))
+                .build();
+        return new ApplicationDetailsService(webClient, new BffProperties());
+    }
+}
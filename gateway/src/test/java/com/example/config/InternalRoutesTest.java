@@ -0,0 +1,49 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+// служебные эндпоинты сервисов не маршрутизируются через gateway
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "eureka.client.enabled=false",
+        "spring.cloud.config.enabled=false",
+        "spring.cloud.discovery.client.simple.instances.assignment-service[0].uri=http://localhost:1"
+})
+@AutoConfigureWebTestClient
+public class InternalRoutesTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void internalEvents_areNotRouted() {
+        webTestClient.post().uri("/api/v1/assignments/internal/events").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void internalApplicationCleanup_isNotRouted() {
+        webTestClient.delete().uri("/api/v1/applications/internal/by-user?userId=" + UUID.randomUUID()).exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/v1/applications/internal/by-product?productId=" + UUID.randomUUID()).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void internalEvents_areNotRouted_throughDiscoveryLocator() {
+        webTestClient.post().uri("/assignment-service/api/v1/assignments/internal/events").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void publicAssignments_areStillRouted() {
+        // экземпляр недоступен, но запрос дошёл до маршрута сервиса
+        webTestClient.get().uri("/api/v1/assignments").exchange()
+                .expectStatus().is5xxServerError();
+    }
+}
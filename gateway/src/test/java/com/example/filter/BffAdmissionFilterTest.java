@@ -0,0 +1,78 @@
+package com.example.filter;
+
+import com.example.common.limiter.AdaptiveConcurrencyLimiter;
+import com.example.common.limiter.ConcurrencyLimiters;
+import com.example.config.RateLimitProperties;
+import com.example.config.RateLimitProperties.Bucket;
+import com.example.common.loadbalancer.InstanceLatencyStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BffAdmissionFilterTest {
+
+    private final ConcurrencyLimiters limiters = new ConcurrencyLimiters(new SimpleMeterRegistry(), "routeId", 20, 1, 100);
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    @Test
+    void bffRequests_areRateLimited() {
+        BffAdmissionFilter filter = filter(new Bucket(1, 0.001));
+
+        assertNull(status(filter, "/api/v1/bff/applications/1"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(filter, "/api/v1/bff/applications/1"));
+        assertEquals(1, forwarded.get());
+    }
+
+    @Test
+    void bffRequests_holdConcurrencyPermitOfBffRoute() {
+        BffAdmissionFilter filter = filter(new Bucket(100, 100));
+        AdaptiveConcurrencyLimiter limiter = limiters.forName(BffAdmissionFilter.ROUTE_ID);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, status(filter, "/api/v1/bff/applications/1"));
+        assertEquals(0, forwarded.get());
+    }
+
+    @Test
+    void otherPaths_areLeftToGatewayFilters() {
+        BffAdmissionFilter filter = filter(new Bucket(1, 0.001));
+
+        assertNull(status(filter, "/api/v1/applications/1"));
+        assertNull(status(filter, "/api/v1/applications/1"));
+        assertEquals(2, forwarded.get());
+        assertEquals(0, limiters.forName(BffAdmissionFilter.ROUTE_ID).getInFlight());
+    }
+
+    private BffAdmissionFilter filter(Bucket clientLimit) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setDefaultClientLimit(clientLimit);
+        InstanceLatencyStats latencyStats = new InstanceLatencyStats(new SimpleMeterRegistry(),
+                Duration.ofSeconds(10), Duration.ofSeconds(1));
+        // порядок передачи не важен: фильтры сортируются по getOrder()
+        return new BffAdmissionFilter(List.of(
+                new ConcurrencyLimitFilter(limiters),
+                new RateLimitFilter(properties, latencyStats, new SimpleMeterRegistry())));
+    }
+
+    private HttpStatus status(BffAdmissionFilter filter, String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 40000)));
+        filter.filter(exchange, e -> {
+            forwarded.incrementAndGet();
+            return Mono.empty();
+        }).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.filter;
+
+import com.example.common.limiter.AdaptiveConcurrencyLimiter;
+import com.example.common.limiter.ConcurrencyLimiters;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimiters limiters = new ConcurrencyLimiters(new SimpleMeterRegistry(), "routeId", 20, 1, 100);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limiters);
+    private final AdaptiveConcurrencyLimiter limiter = limiters.forName("product-service");
+
+    @Test
+    void gatewayTimeout_countsAsOverload() {
+        filter.filter(exchange(), exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+            return Mono.empty();
+        }).block();
+
+        assertEquals(18, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void cancelledRequest_releasesPermit_withoutBackoff() {
+        StepVerifier.create(filter.filter(exchange(), exchange -> Mono.never()))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(10))
+                .thenCancel()
+                .verify();
+
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void requestOverLimit_isRejectedWith503() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, e -> fail("over-limit request must not be forwarded")).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products"));
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("product-service").uri("lb://product-service").predicate(e -> true).build());
+        return exchange;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.filter;
+
+import com.example.config.RateLimitProperties;
+import com.example.config.RateLimitProperties.Bucket;
+import com.example.config.RateLimitProperties.Priority;
+import com.example.common.loadbalancer.InstanceLatencyStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private InstanceLatencyStats latencyStats;
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        latencyStats = new InstanceLatencyStats(new SimpleMeterRegistry(), Duration.ofSeconds(10), Duration.ofSeconds(1));
+    }
+
+    @Test
+    void firstMatchingRule_byPathAndMethod_isApplied() {
+        properties.setRules(List.of(
+                rule("/api/v1/products/**", List.of("POST"), null, new Bucket(1, 0.001)),
+                rule("/api/v1/products/**", List.of(), null, new Bucket(100, 100))));
+        RateLimitFilter filter = filter();
+
+        assertNull(status(filter, MockServerHttpRequest.post("/api/v1/products").remoteAddress(address("10.0.0.1"))));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                status(filter, MockServerHttpRequest.post("/api/v1/products").remoteAddress(address("10.0.0.2"))));
+        // GET попадает во второе правило со своим бакетом
+        assertNull(status(filter, MockServerHttpRequest.get("/api/v1/products/1").remoteAddress(address("10.0.0.1"))));
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    void unmatchedRequest_usesDefaultClientLimit() {
+        properties.setDefaultClientLimit(new Bucket(1, 0.001));
+        properties.setRules(List.of(rule("/api/v1/products/**", List.of(), null, null)));
+        RateLimitFilter filter = filter();
+
+        assertNull(status(filter, MockServerHttpRequest.get("/api/v1/users/1").remoteAddress(address("10.0.0.1"))));
+        MockServerWebExchange rejected = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/v1/users/2").remoteAddress(address("10.0.0.1")));
+        filter.filter(rejected, this::forward).block();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("client_limit", rejected.getResponse().getHeaders().getFirst(RateLimitFilter.REJECT_REASON_HEADER));
+        // Retry-After округляется вверх до целых секунд
+        assertTrue(Long.parseLong(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)) >= 1);
+    }
+
+    @Test
+    void clientLimit_isKeyedByRemoteAddress_notByAuthorizationHeader() {
+        properties.setDefaultClientLimit(new Bucket(1, 0.001));
+        RateLimitFilter filter = filter();
+
+        assertNull(status(filter, MockServerHttpRequest.get("/api/v1/users")
+                .remoteAddress(address("10.0.0.1")).header(HttpHeaders.AUTHORIZATION, "Bearer first")));
+        // выдуманный токен не даёт нового бакета
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, status(filter, MockServerHttpRequest.get("/api/v1/users")
+                .remoteAddress(address("10.0.0.1")).header(HttpHeaders.AUTHORIZATION, "Bearer second")));
+        assertNull(status(filter, MockServerHttpRequest.get("/api/v1/users").remoteAddress(address("10.0.0.2"))));
+    }
+
+    @Test
+    void singleServerError_doesNotShedLowPriorityRoute() {
+        properties.setRules(List.of(rule("/api/v1/products/**", List.of(), Priority.LOW, null)));
+        properties.getShedding().setLatencyThresholds(Map.of(Priority.LOW, Duration.ofMillis(500)));
+        RateLimitFilter filter = filter();
+
+        // быстрый 500: балансировщик штрафует экземпляр, но на задержку для сброса это не влияет
+        complete(instance(), HttpStatus.INTERNAL_SERVER_ERROR, 0);
+
+        assertNull(status(filter, routed(MockServerHttpRequest.get("/api/v1/products"))));
+    }
+
+    @Test
+    void slowSuccessfulResponses_shedLowPriority_butNotCritical() {
+        properties.setRules(List.of(
+                rule("/api/v1/auth/**", List.of(), Priority.CRITICAL, null),
+                rule("/api/v1/products/**", List.of(), Priority.LOW, null)));
+        properties.getShedding().setLatencyThresholds(Map.of(
+                Priority.LOW, Duration.ofMillis(5),
+                Priority.CRITICAL, Duration.ofMillis(5)));
+        RateLimitFilter filter = filter();
+
+        complete(instance(), HttpStatus.OK, 20);
+
+        MockServerWebExchange shed = MockServerWebExchange.from(routed(MockServerHttpRequest.get("/api/v1/products")));
+        shed.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+        filter.filter(shed, this::forward).block();
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, shed.getResponse().getStatusCode());
+        assertEquals("shed", shed.getResponse().getHeaders().getFirst(RateLimitFilter.REJECT_REASON_HEADER));
+
+        assertNull(status(filter, routed(MockServerHttpRequest.post("/api/v1/auth/login"))));
+    }
+
+    private RateLimitFilter filter() {
+        return new RateLimitFilter(properties, latencyStats, new SimpleMeterRegistry());
+    }
+
+    private HttpStatus status(RateLimitFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route());
+        filter.filter(exchange, this::forward).block();
+        return (HttpStatus) exchange.getResponse().getStatusCode();
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange) {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> routed(MockServerHttpRequest.BaseBuilder<?> request) {
+        return request.remoteAddress(address("10.0.0.1"));
+    }
+
+    private static Route route() {
+        return Route.async().id("product-service").uri("lb://product-service").predicate(exchange -> true).build();
+    }
+
+    private static ServiceInstance instance() {
+        return new DefaultServiceInstance("product-1", "product-service", "10.0.1.1", 8080, false);
+    }
+
+    // один запрос через жизненный цикл балансировщика с заданной задержкой
+    private void complete(ServiceInstance instance, HttpStatus status, long latencyMillis) {
+        Request<Object> request = new DefaultRequest<>(new RequestDataContext());
+        DefaultResponse response = new DefaultResponse(instance);
+        latencyStats.onStartRequest(request, response);
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        latencyStats.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response,
+                new ResponseData(status, new HttpHeaders(), null, null)));
+    }
+
+    private static RateLimitProperties.Rule rule(String path, List<String> methods, Priority priority, Bucket routeLimit) {
+        RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+        rule.setPath(path);
+        rule.setMethods(methods);
+        rule.setPriority(priority);
+        rule.setRouteLimit(routeLimit);
+        return rule;
+    }
+
+    private static InetSocketAddress address(String host) {
+        return new InetSocketAddress(host, 40000);
+    }
+}
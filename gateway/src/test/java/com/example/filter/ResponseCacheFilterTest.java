@@ -0,0 +1,192 @@
+package com.example.filter;
+
+import com.example.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheFilterTest {
+
+    private static final String PRODUCT = "/api/v1/products/1";
+    private static final String APPLICATION = "/api/v1/applications/" + UUID.randomUUID();
+
+    private final AtomicInteger version = new AtomicInteger(1);
+    private final AtomicInteger served = new AtomicInteger();
+    private final HttpHeaders serviceHeaders = new HttpHeaders();
+    private volatile Mono<Void> gate = Mono.empty();
+    private volatile CountDownLatch entered = new CountDownLatch(0);
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties();
+        properties.setRules(List.of(rule("/api/v1/products/**"), rule("/api/v1/applications/{id}")));
+        ResponseCacheProperties.Cascade cascade = new ResponseCacheProperties.Cascade();
+        cascade.setScope("/api/v1/users");
+        cascade.setInvalidates(List.of("/api/v1/applications"));
+        properties.setCascades(List.of(cascade));
+        ResponseCacheFilter filter = new ResponseCacheFilter(properties, new SimpleMeterRegistry());
+        client = WebTestClient.bindToWebHandler(exchange -> filter.filter(exchange, backend())).build();
+    }
+
+    @Test
+    void secondGet_isServedFromCache() {
+        EntityExchangeResult<String> first = get(PRODUCT);
+        EntityExchangeResult<String> second = get(PRODUCT);
+
+        assertEquals("MISS", cacheStatus(first));
+        assertEquals("HIT", cacheStatus(second));
+        assertEquals("v1", second.getResponseBody());
+        assertEquals(1, served.get());
+    }
+
+    @Test
+    void staleEntryWithEtag_isRevalidatedWithoutBody() {
+        serviceHeaders.setCacheControl("max-age=0");
+        serviceHeaders.setETag("\"v1\"");
+
+        assertEquals("MISS", cacheStatus(get(PRODUCT)));
+        EntityExchangeResult<String> revalidated = get(PRODUCT);
+
+        assertEquals("REVALIDATED", cacheStatus(revalidated));
+        assertEquals(HttpStatus.OK, revalidated.getStatus());
+        assertEquals("v1", revalidated.getResponseBody());
+        assertEquals(2, served.get());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "Cache-Control, private",
+            "Cache-Control, no-store",
+            "Set-Cookie, session=1"
+    })
+    void uncacheableResponse_bypassesCache(String header, String value) {
+        serviceHeaders.set(header, value);
+
+        assertNull(cacheStatus(get(PRODUCT)));
+        assertNull(cacheStatus(get(PRODUCT)));
+        assertEquals(2, served.get());
+    }
+
+    @Test
+    void mutation_invalidatesResourceScope() {
+        get(PRODUCT);
+        client.put().uri(PRODUCT).exchange().expectStatus().isNoContent();
+
+        EntityExchangeResult<String> after = get(PRODUCT);
+        assertEquals("MISS", cacheStatus(after));
+        assertEquals("v2", after.getResponseBody());
+    }
+
+    @Test
+    void mutationThroughDiscoveryLocator_invalidatesResourceScope() {
+        get(PRODUCT);
+        client.put().uri("/product-service" + PRODUCT).exchange().expectStatus().isNoContent();
+
+        EntityExchangeResult<String> after = get(PRODUCT);
+        assertEquals("MISS", cacheStatus(after));
+        assertEquals("v2", after.getResponseBody());
+    }
+
+    @Test
+    void resourceScope_ignoresDiscoveryLocatorPrefix() {
+        assertEquals("/api/v1/products", ResponseCacheFilter.resourceScope("/api/v1/products/42"));
+        assertEquals("/api/v1/products", ResponseCacheFilter.resourceScope("/product-service/api/v1/products/42"));
+        assertEquals("/api/v1/tags", ResponseCacheFilter.resourceScope("/tag-service/api/v1/tags"));
+        assertEquals("/v3/api-docs", ResponseCacheFilter.resourceScope("/v3/api-docs"));
+    }
+
+    @Test
+    void deletingUser_cascadesToApplications() {
+        get(APPLICATION);
+        client.delete().uri("/api/v1/users/" + UUID.randomUUID()).exchange().expectStatus().isNoContent();
+
+        EntityExchangeResult<String> after = get(APPLICATION);
+        assertEquals("MISS", cacheStatus(after));
+        assertEquals("v2", after.getResponseBody());
+    }
+
+    @Test
+    void responseReadBeforeMutation_isNotStoredAfterInvalidation() throws Exception {
+        Sinks.Empty<Void> release = Sinks.empty();
+        gate = release.asMono();
+        entered = new CountDownLatch(1);
+        // GET прочитал данные у сервиса, но ответ ещё в пути
+        CompletableFuture<EntityExchangeResult<String>> slow = CompletableFuture.supplyAsync(() -> get(PRODUCT));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        gate = Mono.empty();
+        client.delete().uri(PRODUCT).exchange().expectStatus().isNoContent();
+        release.tryEmitEmpty();
+
+        assertEquals("v1", slow.get(5, TimeUnit.SECONDS).getResponseBody());
+        EntityExchangeResult<String> after = get(PRODUCT);
+        assertEquals("MISS", cacheStatus(after));
+        assertEquals("v2", after.getResponseBody());
+    }
+
+    // сервис за gateway: GET отдаёт текущую версию, изменения её повышают
+    private GatewayFilterChain backend() {
+        return (ServerWebExchange exchange) -> {
+            ServerHttpResponse response = exchange.getResponse();
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                version.incrementAndGet();
+                response.setStatusCode(HttpStatus.NO_CONTENT);
+                return response.setComplete();
+            }
+            served.incrementAndGet();
+            String body = "v" + version.get();
+            Mono<Void> pending = gate;
+            entered.countDown();
+            return pending.then(Mono.defer(() -> {
+                response.getHeaders().putAll(serviceHeaders);
+                String etag = serviceHeaders.getETag();
+                if (etag != null && etag.equals(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+                    response.setStatusCode(HttpStatus.NOT_MODIFIED);
+                    return response.setComplete();
+                }
+                response.setStatusCode(HttpStatus.OK);
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+            }));
+        };
+    }
+
+    private EntityExchangeResult<String> get(String path) {
+        return client.get().uri(path).exchange().expectBody(String.class).returnResult();
+    }
+
+    private static String cacheStatus(EntityExchangeResult<?> result) {
+        return result.getResponseHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS_HEADER);
+    }
+
+    private static ResponseCacheProperties.Rule rule(String path) {
+        ResponseCacheProperties.Rule rule = new ResponseCacheProperties.Rule();
+        rule.setPath(path);
+        rule.setTtl(Duration.ofSeconds(30));
+        return rule;
+    }
+}
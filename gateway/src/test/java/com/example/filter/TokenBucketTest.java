@@ -0,0 +1,72 @@
+package com.example.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void fullBucket_allowsBurstOfCapacity_thenReportsWait() {
+        TokenBucket bucket = new TokenBucket(3, 10);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+
+        long wait = bucket.tryAcquire(now);
+        // следующий токен появится через 1/rate
+        assertTrue(wait > 0 && wait <= SECOND / 10, "wait " + wait);
+    }
+
+    @Test
+    void refill_followsRate() {
+        TokenBucket bucket = new TokenBucket(1, 10);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now + SECOND / 20) > 0);
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 10));
+    }
+
+    @Test
+    void idleBucket_doesNotAccumulateBeyondCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1);
+        long later = System.nanoTime() + 60 * SECOND;
+
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void rejectedAttempt_doesNotConsumeToken() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.tryAcquire(now));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(bucket.tryAcquire(now) > 0);
+        }
+        assertEquals(0, bucket.tryAcquire(now + SECOND));
+    }
+
+    @Test
+    void newBucket_admitsRequestTimedBeforeItsCreation() {
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(1, 0.001);
+
+        assertEquals(0, bucket.tryAcquire(now));
+    }
+
+    @Test
+    void invalidParameters_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.productservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+@Configuration
+public class TracingConfig {
+
+    // Проверки доступа в ProductAccessAuthorizer идут в applicationTaskExecutor:
+    // текущий спан (а с ним traceId в логах и traceparent в Feign) переносится в поток пула
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.productservice.controller;
 
+import com.example.common.web.ETags;
+import com.example.productservice.dto.ProductCatalogVersion;
 import com.example.productservice.dto.ProductDto;
 import com.example.productservice.dto.ProductRequest;
 import com.example.productservice.exception.BadRequestException;
 import com.example.productservice.service.ProductService;
+import com.example.productservice.util.ProductPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -14,12 +17,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Tag(name = "Products", description = "API for managing products")
@@ -29,6 +37,8 @@ public class ProductController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductController.class);
     private static final int MAX_PAGE_SIZE = 50;
+    // продукты общие для всех и меняются редко: кэшам можно отдавать их минуту без перепроверки
+    private static final CacheControl PRODUCT_CACHE = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic();
 
     private final ProductService productService;
 
@@ -73,19 +83,63 @@ public class ProductController {
         return ResponseEntity.ok(products.getContent());
     }
 
+    // ReadAllByStream: GET "/api/v1/products/stream?cursor=<base64>&limit=20"
+    @Operation(summary = "Read products with endless scrolling",
+            description = "Returns a page of products ordered by name and the cursor of the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of products"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or limit too large")
+    })
+    @GetMapping("/stream")
+    public ResponseEntity<ProductPage> listPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException(String.format("Limit cannot be greater than %d", MAX_PAGE_SIZE));
+        }
+        return ResponseEntity.ok(productService.listPage(cursor, limit, null));
+    }
+
+    // Search: GET "/api/v1/products/search?q=credit&cursor=<base64>&limit=20"
+    @Operation(summary = "Search products by name",
+            description = "Returns a page of products whose name contains the query (case-insensitive) and the cursor of the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching products"),
+            @ApiResponse(responseCode = "400", description = "Empty query, invalid cursor or limit too large")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<ProductPage> search(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        if (limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException(String.format("Limit cannot be greater than %d", MAX_PAGE_SIZE));
+        }
+        return ResponseEntity.ok(productService.listPage(cursor, limit, query));
+    }
+
     @Operation(summary = "Read certain product by its ID", description = "Returns data about a single product")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Data about a single product"),
             @ApiResponse(responseCode = "404", description = "Product with this ID is not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> get(@PathVariable UUID id) {
+    public ResponseEntity<ProductDto> get(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         ProductDto productDto = productService.get(id);
         if (productDto == null) {
             logger.debug("Product not found: {}", id);
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(productDto);
+        String etag = ETags.fromContent(productDto);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(PRODUCT_CACHE).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(PRODUCT_CACHE).body(productDto);
     }
 
     @Operation(summary = "Update the data of a specific product", description = "Update any data of single product")
@@ -134,4 +188,31 @@ public class ProductController {
         boolean exists = productService.existsById(id);
         return ResponseEntity.ok(exists);
     }
+
+    @PostMapping("/exists:batch")
+    public ResponseEntity<Map<UUID, Boolean>> productsExist(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(productService.existsByIds(ids));
+    }
+
+    // Реплика каталога: клиент опрашивает версию и перекачивает каталог только при её смене
+    @GetMapping("/catalog/version")
+    public ResponseEntity<ProductCatalogVersion> catalogVersion() {
+        ProductCatalogVersion version = productService.catalogVersion();
+        return ResponseEntity.ok()
+                .eTag(version.getVersion())
+                .body(version);
+    }
+
+    @GetMapping("/catalog")
+    public ResponseEntity<List<ProductDto>> catalog(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ProductCatalogVersion version = productService.catalogVersion();
+        String etag = "\"" + version.getVersion() + "\"";
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(productService.catalog());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.productservice.dto;
+
+public class ProductCatalogVersion {
+
+    private String version;
+    private int size;
+
+    public ProductCatalogVersion() {}
+
+    public ProductCatalogVersion(String version, int size) {
+        this.version = version;
+        this.size = size;
+    }
+
+    public String getVersion() { return version; }
+    public void setVersion(String version) { this.version = version; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
@@ -1,5 +1,6 @@
 package com.example.productservice.feign;
 
+import com.example.common.feign.FeignFallbacks;
 import com.example.productservice.exception.ServiceUnavailableException;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
@@ -10,6 +11,7 @@ import java.util.UUID;
 public class ApplicationServiceClientFallbackFactory implements FallbackFactory<ApplicationServiceClient> {
     @Override
     public ApplicationServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new ApplicationServiceClient() {
             @Override
             public Void deleteApplicationsByProductId(UUID productId) {
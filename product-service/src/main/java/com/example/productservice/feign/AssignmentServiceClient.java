@@ -1,7 +1,10 @@
 package com.example.productservice.feign;
 
+import com.example.common.event.EntityDeletedEvent;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.UUID;
@@ -18,4 +21,7 @@ public interface AssignmentServiceClient {
             @RequestParam("productId") UUID productId,
             @RequestParam("role") String role
     );
+
+    @PostMapping("/api/v1/assignments/internal/events")
+    Void publishEntityDeleted(@RequestBody EntityDeletedEvent event);
 }
\ No newline at end of file
@@ -1,5 +1,9 @@
 package com.example.productservice.feign;
 
+import com.example.common.event.EntityDeletedEvent;
+import com.example.common.feign.FeignFallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
 
@@ -7,13 +11,25 @@ import java.util.UUID;
 
 @Component
 public class AssignmentServiceClientFallbackFactory implements FallbackFactory<AssignmentServiceClient> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssignmentServiceClientFallbackFactory.class);
+
     @Override
     public AssignmentServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new AssignmentServiceClient() {
             @Override
             public Boolean existsByUserAndProductAndRole(UUID userId, UUID productId, String role) {
                 return null;
             }
+
+            @Override
+            public Void publishEntityDeleted(EntityDeletedEvent event) {
+                // назначения удалённого продукта позже удалит sweeper в assignment-service
+                logger.warn("Failed to publish deletion event for {} {}: {}",
+                        event.getEntityType(), event.getEntityId(), cause.getMessage());
+                return null;
+            }
         };
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.productservice.feign;
 
+import com.example.common.feign.FeignFallbacks;
 import com.example.productservice.model.enums.UserRole;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
@@ -9,6 +10,7 @@ import java.util.UUID;
 public class UserServiceClientFallbackFactory implements FallbackFactory<UserServiceClient> {
     @Override
     public UserServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new UserServiceClient() {
             @Override
             public Boolean userExists(UUID userId) {
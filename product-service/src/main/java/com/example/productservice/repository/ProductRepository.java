@@ -2,11 +2,56 @@ package com.example.productservice.repository;
 
 import com.example.productservice.model.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
     boolean existsByName(String name);
-}
\ No newline at end of file
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Keyset-пагинация по (name, id): побайтовое сравнение имён совпадает с порядком каталога в памяти.
+    // Курсор сравнивается как строка: так граница ложится на idx_product_name_c_id одним диапазоном
+    @Query(value = """
+            SELECT * FROM product
+            ORDER BY name COLLATE "C", id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Product> findFirstPage(@Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM product
+            WHERE (name COLLATE "C", id) > (:name COLLATE "C", :id)
+            ORDER BY name COLLATE "C", id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Product> findPageAfter(@Param("name") String name, @Param("id") UUID id, @Param("limit") int limit);
+
+    // Поиск подстроки по имени, использует GIN-индекс idx_product_name_trgm (pg_trgm)
+    @Query(value = """
+            SELECT * FROM product
+            WHERE lower(name) LIKE :pattern ESCAPE '\\'
+            ORDER BY name COLLATE "C", id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Product> searchFirstPage(@Param("pattern") String pattern, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT * FROM product
+            WHERE lower(name) LIKE :pattern ESCAPE '\\'
+              AND (name COLLATE "C", id) > (:name COLLATE "C", :id)
+            ORDER BY name COLLATE "C", id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Product> searchPageAfter(@Param("pattern") String pattern,
+                                  @Param("name") String name,
+                                  @Param("id") UUID id,
+                                  @Param("limit") int limit);
+}
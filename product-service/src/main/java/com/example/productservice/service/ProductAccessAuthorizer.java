@@ -0,0 +1,83 @@
+package com.example.productservice.service;
+
+import com.example.common.feign.SingleFlight;
+import com.example.productservice.exception.NotFoundException;
+import com.example.productservice.exception.ServiceUnavailableException;
+import com.example.productservice.feign.AssignmentServiceClient;
+import com.example.productservice.feign.UserServiceClient;
+import com.example.productservice.model.enums.AssignmentRole;
+import com.example.productservice.model.enums.UserRole;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+// Решает (actor, product) -> {isAdmin, isOwner} одним запросом в user-service и одним в assignment-service,
+// которые выполняются параллельно. Решения не кэшируются: права на запись проверяются по актуальным данным,
+// иначе отозванный владелец мог бы менять продукт на экземплярах, где решение ещё не истекло.
+@Component
+public class ProductAccessAuthorizer {
+
+    private final UserServiceClient userServiceClient;
+    private final AssignmentServiceClient assignmentServiceClient;
+    private final Executor executor;
+    private final SingleFlight<UUID, UserRole> roleLookups;
+    private final SingleFlight<AccessKey, Boolean> ownerLookups;
+
+    public ProductAccessAuthorizer(UserServiceClient userServiceClient,
+                                   AssignmentServiceClient assignmentServiceClient,
+                                   @Qualifier("applicationTaskExecutor") Executor executor,
+                                   MeterRegistry meterRegistry) {
+        this.userServiceClient = userServiceClient;
+        this.assignmentServiceClient = assignmentServiceClient;
+        this.executor = executor;
+        this.roleLookups = new SingleFlight<>("user.role", meterRegistry);
+        this.ownerLookups = new SingleFlight<>("assignment.owner", meterRegistry);
+    }
+
+    public ProductAccessDecision authorize(UUID actorId, UUID productId) {
+        CompletableFuture<UserRole> roleFuture = CompletableFuture.supplyAsync(
+                () -> roleLookups.execute(actorId, () -> userServiceClient.getUserRole(actorId)),
+                executor);
+        AccessKey key = new AccessKey(actorId, productId);
+        CompletableFuture<Boolean> ownerFuture = CompletableFuture.supplyAsync(
+                () -> ownerLookups.execute(key, () -> assignmentServiceClient.existsByUserAndProductAndRole(
+                        actorId, productId, AssignmentRole.PRODUCT_OWNER.name())),
+                executor);
+
+        UserRole actorRole = await(roleFuture, actorId);
+        if (actorRole == null) {
+            ownerFuture.cancel(false);
+            throw new ServiceUnavailableException("User service is unavailable now");
+        }
+        Boolean isOwner = await(ownerFuture, actorId);
+        if (isOwner == null) {
+            throw new ServiceUnavailableException("Assignment service is unavailable now");
+        }
+
+        return new ProductAccessDecision(actorRole == UserRole.ROLE_ADMIN, isOwner);
+    }
+
+    private <T> T await(CompletableFuture<T> future, UUID actorId) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            // user-service отвечает 404 на запрос роли несуществующего пользователя
+            if (cause instanceof NotFoundException || cause instanceof FeignException.NotFound) {
+                throw new NotFoundException("Actor not found: " + actorId);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private record AccessKey(UUID actorId, UUID productId) { }
+}
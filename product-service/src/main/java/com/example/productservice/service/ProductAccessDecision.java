@@ -0,0 +1,8 @@
+package com.example.productservice.service;
+
+public record ProductAccessDecision(boolean admin, boolean owner) {
+
+    public boolean canModify() {
+        return admin || owner;
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.productservice.service;
+
+import com.example.productservice.dto.ProductDto;
+import com.example.productservice.model.entity.Product;
+import com.example.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+// Снимок всей (маленькой и редко меняющейся) таблицы продуктов в памяти, отсортированный по (name, id).
+// Снимок неизменяемый и подменяется целиком, поэтому чтение идёт без блокировок.
+// Пока снимок не загружен (или таблица больше max-size), isReady() == false и чтение идёт в БД.
+// Версия снимка — хэш содержимого, поэтому у экземпляров с одинаковыми данными она совпадает.
+@Component
+public class ProductCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalog.class);
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    // порядок совпадает с ORDER BY name COLLATE "C", id в ProductRepository
+    static final Comparator<ProductDto> ORDER = Comparator
+            .comparing(ProductDto::getName)
+            .thenComparing(dto -> dto.getId().toString());
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean ready;
+    // счётчик изменений: загрузка, во время которой каталог менялся, повторяется
+    private long modifications;
+
+    public ProductCatalog(ProductRepository productRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${product.catalog.enabled:true}") boolean enabled,
+                          @Value("${product.catalog.max-size:10000}") int maxSize) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        Gauge.builder("product.catalog.size", this, c -> c.snapshot.sorted.size())
+                .description("Number of products in the in-memory catalog")
+                .register(meterRegistry);
+        this.hits = Counter.builder("product.catalog.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("product.catalog.lookups").tag("result", "miss").register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        for (int attempt = 1; attempt <= MAX_LOAD_ATTEMPTS; attempt++) {
+            if (reload()) {
+                return;
+            }
+        }
+        logger.warn("Product catalog is not loaded, reads will use the database");
+    }
+
+    // подхватывает изменения, сделанные другими экземплярами сервиса
+    @Scheduled(fixedDelayString = "${product.catalog.refresh-interval:PT1M}",
+            initialDelayString = "${product.catalog.refresh-interval:PT1M}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    boolean reload() {
+        long before;
+        synchronized (this) {
+            before = modifications;
+        }
+        if (productRepository.count() > maxSize) {
+            logger.warn("Product table exceeds catalog limit of {} rows, catalog is disabled", maxSize);
+            synchronized (this) {
+                ready = false;
+                snapshot = Snapshot.EMPTY;
+            }
+            return true;
+        }
+        List<ProductDto> products = new ArrayList<>();
+        for (Product product : productRepository.findAll()) {
+            products.add(toDto(product));
+        }
+        Snapshot loaded = Snapshot.of(products);
+        boolean changed;
+        synchronized (this) {
+            if (modifications != before) {
+                return false;
+            }
+            changed = !loaded.version.equals(snapshot.version);
+            if (changed) {
+                snapshot = loaded;
+            }
+            ready = true;
+        }
+        if (changed) {
+            logger.info("Product catalog loaded: {} products, version {}", products.size(), loaded.version);
+        }
+        return true;
+    }
+
+    public synchronized void put(ProductDto product) {
+        modifications++;
+        add(product);
+    }
+
+    public synchronized long modifications() {
+        return modifications;
+    }
+
+    // Cache-aside после промаха: продукт прочитан из БД, когда счётчик изменений был observedModifications.
+    // Если каталог с тех пор менялся (например, продукт удалили), прочитанная копия могла устареть и пропускается.
+    // Сама вставка изменением не считается, чтобы промахи не сбрасывали идущую перезагрузку
+    public synchronized void putLoaded(ProductDto product, long observedModifications) {
+        if (modifications == observedModifications) {
+            add(product);
+        }
+    }
+
+    private void add(ProductDto product) {
+        if (!ready) {
+            return;
+        }
+        Map<UUID, ProductDto> byId = new HashMap<>(snapshot.byId);
+        byId.put(product.getId(), product);
+        if (byId.size() > maxSize) {
+            ready = false;
+            snapshot = Snapshot.EMPTY;
+            return;
+        }
+        snapshot = Snapshot.of(byId.values());
+    }
+
+    public synchronized void remove(UUID productId) {
+        modifications++;
+        if (!ready || !snapshot.byId.containsKey(productId)) {
+            return;
+        }
+        Map<UUID, ProductDto> byId = new HashMap<>(snapshot.byId);
+        byId.remove(productId);
+        snapshot = Snapshot.of(byId.values());
+    }
+
+    public int size() {
+        return snapshot.sorted.size();
+    }
+
+    public String version() {
+        return snapshot.version;
+    }
+
+    public List<ProductDto> all() {
+        return snapshot.sorted;
+    }
+
+    // Промах не означает отсутствие: продукт мог создать другой экземпляр после последней перезагрузки.
+    // Попадание тоже может устареть до следующей перезагрузки, если продукт удалили на другом экземпляре
+    public Optional<ProductDto> get(UUID productId) {
+        ProductDto dto = snapshot.byId.get(productId);
+        (dto != null ? hits : misses).increment();
+        return Optional.ofNullable(dto);
+    }
+
+    public List<ProductDto> page(int page, int size) {
+        List<ProductDto> sorted = snapshot.sorted;
+        long from = (long) page * size;
+        if (from >= sorted.size()) {
+            return List.of();
+        }
+        return sorted.subList((int) from, (int) Math.min(from + size, sorted.size()));
+    }
+
+    // Первые limit продуктов строго после (afterName, afterId); query == null — без фильтра по имени
+    public List<ProductDto> after(String afterName, UUID afterId, String query, int limit) {
+        List<ProductDto> sorted = snapshot.sorted;
+        int from = 0;
+        if (afterName != null) {
+            ProductDto probe = new ProductDto();
+            probe.setName(afterName);
+            probe.setId(afterId);
+            int pos = Collections.binarySearch(sorted, probe, ORDER);
+            from = pos >= 0 ? pos + 1 : -pos - 1;
+        }
+        Predicate<ProductDto> matches = query == null
+                ? dto -> true
+                : dto -> dto.getName().toLowerCase(Locale.ROOT).contains(query);
+        List<ProductDto> result = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (int i = from; i < sorted.size() && result.size() < limit; i++) {
+            ProductDto dto = sorted.get(i);
+            if (matches.test(dto)) {
+                result.add(dto);
+            }
+        }
+        return result;
+    }
+
+    static ProductDto toDto(Product product) {
+        ProductDto dto = new ProductDto();
+        dto.setId(product.getId());
+        dto.setName(product.getName());
+        dto.setDescription(product.getDescription());
+        return dto;
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(List.of(), Map.of());
+
+        final List<ProductDto> sorted;
+        final Map<UUID, ProductDto> byId;
+        final String version;
+
+        private Snapshot(List<ProductDto> sorted, Map<UUID, ProductDto> byId) {
+            this.sorted = sorted;
+            this.byId = byId;
+            this.version = hash(sorted);
+        }
+
+        private static String hash(List<ProductDto> sorted) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (ProductDto dto : sorted) {
+                    digest.update(dto.getId().toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                    digest.update(dto.getName().getBytes(StandardCharsets.UTF_8));
+                    digest.update((byte) 0);
+                    if (dto.getDescription() != null) {
+                        digest.update(dto.getDescription().getBytes(StandardCharsets.UTF_8));
+                    }
+                    digest.update((byte) 1);
+                }
+                return HexFormat.of().formatHex(digest.digest(), 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        static Snapshot of(Collection<ProductDto> products) {
+            List<ProductDto> sorted = new ArrayList<>(products);
+            sorted.sort(ORDER);
+            Map<UUID, ProductDto> byId = new HashMap<>(sorted.size() * 2);
+            sorted.forEach(dto -> byId.put(dto.getId(), dto));
+            return new Snapshot(Collections.unmodifiableList(sorted), Collections.unmodifiableMap(byId));
+        }
+    }
+}
@@ -1,47 +1,64 @@
 package com.example.productservice.service;
 
+import com.example.common.event.EntityDeletedEvent;
+import com.example.productservice.dto.ProductCatalogVersion;
 import com.example.productservice.dto.ProductDto;
 import com.example.productservice.dto.ProductRequest;
 import com.example.productservice.exception.*;
 import com.example.productservice.feign.ApplicationServiceClient;
 import com.example.productservice.feign.AssignmentServiceClient;
-import com.example.productservice.feign.UserServiceClient;
 import com.example.productservice.model.entity.Product;
-import com.example.productservice.model.enums.AssignmentRole;
-import com.example.productservice.model.enums.UserRole;
 import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.util.CursorUtil;
+import com.example.productservice.util.ProductPage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 200;
 
     private final ProductRepository productRepository;
-    private final UserServiceClient userServiceClient;
     private final ApplicationServiceClient applicationServiceClient;
+    private final ProductAccessAuthorizer productAccessAuthorizer;
     private final AssignmentServiceClient assignmentServiceClient;
+    private final ProductCatalog productCatalog;
 
     @Autowired
     public ProductService(
             ProductRepository productRepository,
-            UserServiceClient userServiceClient,
             ApplicationServiceClient applicationServiceClient,
-            AssignmentServiceClient assignmentServiceClient) {
+            ProductAccessAuthorizer productAccessAuthorizer,
+            AssignmentServiceClient assignmentServiceClient,
+            ProductCatalog productCatalog) {
         this.productRepository = productRepository;
-        this.userServiceClient = userServiceClient;
         this.applicationServiceClient = applicationServiceClient;
+        this.productAccessAuthorizer = productAccessAuthorizer;
         this.assignmentServiceClient = assignmentServiceClient;
+        this.productCatalog = productCatalog;
     }
 
     @Transactional
@@ -75,28 +92,128 @@ public class ProductService {
         product = productRepository.save(product);
         logger.info("Product created: {}", product.getId());
 
-        return toDto(product);
+        ProductDto dto = toDto(product);
+        afterCommit(() -> productCatalog.put(dto));
+        return dto;
     }
 
     @Transactional(readOnly = true)
     public Page<ProductDto> list(int page, int size) {
-        if (size > 50) {
-            throw new BadRequestException("Page size cannot exceed 50");
+        if (size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size cannot exceed " + MAX_PAGE_SIZE);
         }
 
         Pageable pageable = PageRequest.of(page, size);
+        // Каталог в памяти отвечает без запроса страницы и COUNT в БД
+        if (productCatalog.isReady()) {
+            return new PageImpl<>(productCatalog.page(page, size), pageable, productCatalog.size());
+        }
         Page<Product> products = productRepository.findAll(pageable);
 
         return products.map(this::toDto);
     }
 
+    // Keyset-пагинация по (name, id) с необязательным поиском подстроки в имени
+    @Transactional(readOnly = true)
+    public ProductPage listPage(String cursor, int limit, String query) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        CursorUtil.Decoded decoded = CursorUtil.decode(cursor);
+        if (cursor != null && !cursor.isBlank() && decoded == null) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        String normalizedQuery = normalizeQuery(query);
+
+        // запрашиваем на один элемент больше, чтобы понять, есть ли следующая страница
+        int fetch = limit + 1;
+        List<ProductDto> items;
+        if (productCatalog.isReady()) {
+            items = productCatalog.after(
+                    decoded != null ? decoded.name : null,
+                    decoded != null ? decoded.id : null,
+                    normalizedQuery, fetch);
+        } else {
+            items = findPage(decoded, normalizedQuery, fetch).stream()
+                    .map(this::toDto)
+                    .toList();
+        }
+
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            ProductDto last = items.get(limit - 1);
+            nextCursor = CursorUtil.encode(last.getName(), last.getId());
+        }
+        return new ProductPage(List.copyOf(items), nextCursor);
+    }
+
+    private List<Product> findPage(CursorUtil.Decoded cursor, String query, int limit) {
+        if (query == null) {
+            return cursor == null
+                    ? productRepository.findFirstPage(limit)
+                    : productRepository.findPageAfter(cursor.name, cursor.id, limit);
+        }
+        String pattern = "%" + escapeLike(query) + "%";
+        return cursor == null
+                ? productRepository.searchFirstPage(pattern, limit)
+                : productRepository.searchPageAfter(pattern, cursor.name, cursor.id, limit);
+    }
+
+    private String normalizeQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        String trimmed = query.trim();
+        if (trimmed.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Search query cannot be longer than " + MAX_QUERY_LENGTH + " characters");
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
     @Transactional(readOnly = true)
     public ProductDto get(UUID id) {
+        if (productCatalog.isReady()) {
+            Optional<ProductDto> cached = productCatalog.get(id);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+            // cache-aside: продукт мог появиться на другом экземпляре после последней перезагрузки каталога
+            long modifications = productCatalog.modifications();
+            ProductDto loaded = productRepository.findById(id).map(this::toDto).orElse(null);
+            if (loaded != null) {
+                productCatalog.putLoaded(loaded, modifications);
+            }
+            return loaded;
+        }
         return productRepository.findById(id)
                 .map(this::toDto)
                 .orElse(null);
     }
 
+    // Каталог целиком для сервисов, которые держат собственную копию; version меняется вместе с содержимым
+    public List<ProductDto> catalog() {
+        requireCatalog();
+        return productCatalog.all();
+    }
+
+    public ProductCatalogVersion catalogVersion() {
+        requireCatalog();
+        return new ProductCatalogVersion(productCatalog.version(), productCatalog.size());
+    }
+
+    private void requireCatalog() {
+        if (!productCatalog.isReady()) {
+            throw new ServiceUnavailableException("Product catalog is not loaded yet");
+        }
+    }
+
     @Transactional
     public ProductDto updateProduct(UUID productId, ProductRequest req, UUID actorId) {
         if (req == null) {
@@ -107,33 +224,11 @@ public class ProductService {
             throw new UnauthorizedException("You must specify the actorId to authorize in this request");
         }
 
-        if (userServiceClient.userExists((actorId)) == null) {
-            throw new ServiceUnavailableException("User service is unavailable now");
-        }
-
-        // Проверяем существование пользователя через Feign
-        if (!userServiceClient.userExists(actorId)) {
-            throw new NotFoundException("Actor not found: " + actorId);
-        }
-
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new NotFoundException("Product not found: " + productId));
 
-        // Проверяем права через Feign
-        UserRole actorRole = userServiceClient.getUserRole(actorId);
-        if (actorRole == null) {
-            throw new ServiceUnavailableException("User service is unavailable now");
-        }
-        boolean isAdmin = actorRole == UserRole.ROLE_ADMIN;
-
-        Boolean isOwner = assignmentServiceClient.existsByUserAndProductAndRole(
-                actorId, productId, AssignmentRole.PRODUCT_OWNER.name()
-        );
-        if (isOwner == null) {
-            throw new ServiceUnavailableException("Assignment service is unavailable now");
-        }
-
-        if (!isAdmin && !isOwner) {
+        // Проверяем существование и права актора через Feign
+        if (!productAccessAuthorizer.authorize(actorId, productId).canModify()) {
             throw new ForbiddenException("Only ADMIN or PRODUCT_OWNER can update product");
         }
 
@@ -152,7 +247,9 @@ public class ProductService {
         Product saved = productRepository.save(product);
         logger.info("Product updated: {}", productId);
 
-        return toDto(saved);
+        ProductDto dto = toDto(saved);
+        afterCommit(() -> productCatalog.put(dto));
+        return dto;
     }
 
     @Transactional
@@ -161,33 +258,11 @@ public class ProductService {
             throw new UnauthorizedException("You must specify the actorId to authorize in this request");
         }
 
-        // Проверяем существование пользователя через Feign
-        if (userServiceClient.userExists((actorId)) == null) {
-            throw new ServiceUnavailableException("User service is unavailable now");
-        }
-
-        if (!userServiceClient.userExists(actorId)) {
-            throw new NotFoundException("Actor not found: " + actorId);
-        }
-
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new NotFoundException("Product not found: " + productId));
 
-        // Проверяем права через Feign
-        UserRole actorRole = userServiceClient.getUserRole(actorId);
-        if (actorRole == null) {
-            throw new ServiceUnavailableException("User service is unavailable now");
-        }
-        boolean isAdmin = actorRole == UserRole.ROLE_ADMIN;
-
-        Boolean isOwner = assignmentServiceClient.existsByUserAndProductAndRole(
-                actorId, productId, AssignmentRole.PRODUCT_OWNER.name()
-        );
-        if (isOwner == null) {
-            throw new ServiceUnavailableException("Assignment service is unavailable now");
-        }
-
-        if (!isAdmin && !isOwner) {
+        // Проверяем существование и права актора через Feign
+        if (!productAccessAuthorizer.authorize(actorId, productId).canModify()) {
             throw new ForbiddenException("Only ADMIN or PRODUCT_OWNER can delete product");
         }
 
@@ -198,6 +273,8 @@ public class ProductService {
 
             // Удаляем сам продукт
             productRepository.delete(product);
+            afterCommit(() -> productCatalog.remove(productId));
+            publishProductDeleted(productId);
             logger.info("Product deleted: {}", productId);
 
         } catch (ServiceUnavailableException ex) {
@@ -214,16 +291,62 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
+    // Проверки существования идут в БД: по ним другие сервисы создают ссылки на продукт, а каталог
+    // может ещё держать продукт, удалённый на другом экземпляре
     @Transactional(readOnly = true)
     public boolean existsById(UUID id) {
         return productRepository.existsById(id);
     }
 
+    @Transactional(readOnly = true)
+    public Map<UUID, Boolean> existsByIds(List<UUID> ids) {
+        if (ids == null) {
+            throw new BadRequestException("List of product IDs is required");
+        }
+        Set<UUID> uniqueIds = new LinkedHashSet<>();
+        for (UUID id : ids) {
+            if (id == null) {
+                throw new BadRequestException("Product ID must not be null");
+            }
+            uniqueIds.add(id);
+        }
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch size cannot exceed " + MAX_BATCH_SIZE);
+        }
+
+        Set<UUID> existing = uniqueIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(productRepository.findExistingIds(uniqueIds));
+        Map<UUID, Boolean> result = new LinkedHashMap<>();
+        uniqueIds.forEach(id -> result.put(id, existing.contains(id)));
+        return result;
+    }
+
+    // assignment-service удаляет назначения по событию после коммита; потерянное событие подберёт его sweeper
+    private void publishProductDeleted(UUID productId) {
+        afterCommit(() -> {
+            try {
+                assignmentServiceClient.publishEntityDeleted(EntityDeletedEvent.product(productId));
+            } catch (Exception e) {
+                logger.warn("Failed to publish deletion event for product {}: {}", productId, e.getMessage());
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     private ProductDto toDto(Product product) {
-        ProductDto dto = new ProductDto();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        return dto;
+        return ProductCatalog.toDto(product);
     }
 }
\ No newline at end of file
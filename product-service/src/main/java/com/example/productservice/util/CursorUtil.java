@@ -0,0 +1,45 @@
+package com.example.productservice.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+public class CursorUtil {
+
+    public static class Decoded {
+        public final String name;
+        public final UUID id;
+
+        public Decoded(String name, UUID id) {
+            this.name = name;
+            this.id = id;
+        }
+    }
+
+    public static Decoded decode(String cursor) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            String decoded = new String(Base64.getDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // имя может содержать '|', а UUID — нет, поэтому делим по последнему разделителю
+            int separator = decoded.lastIndexOf('|');
+            if (separator < 0) {
+                return null;
+            }
+
+            String name = decoded.substring(0, separator);
+            UUID id = UUID.fromString(decoded.substring(separator + 1));
+
+            return new Decoded(name, id);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static String encode(String name, UUID id) {
+        String data = name + "|" + id.toString();
+        return Base64.getEncoder().encodeToString(data.getBytes(StandardCharsets.UTF_8));
+    }
+}
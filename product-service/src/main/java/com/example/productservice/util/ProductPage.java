@@ -0,0 +1,7 @@
+package com.example.productservice.util;
+
+import com.example.productservice.dto.ProductDto;
+
+import java.util.List;
+
+public record ProductPage(List<ProductDto> items, String nextCursor) { }
@@ -1,10 +1,12 @@
 package com.example.productservice.controller;
 
 import com.example.productservice.controller.ProductController;
+import com.example.productservice.dto.ProductCatalogVersion;
 import com.example.productservice.dto.ProductDto;
 import com.example.productservice.dto.ProductRequest;
 import com.example.productservice.exception.*;
 import com.example.productservice.service.ProductService;
+import com.example.productservice.util.ProductPage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -18,6 +20,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -129,6 +132,70 @@ public class ProductControllerTest {
         );
     }
 
+    // -----------------------
+    // listPage / search tests
+    // -----------------------
+    @Test
+    void listPage_validLimit_returnsPage() {
+        ProductPage page = new ProductPage(List.of(createSampleProductDto()), "next");
+        when(productService.listPage(null, 20, null)).thenReturn(page);
+
+        ResponseEntity<ProductPage> response = productController.listPage(null, 20);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void listPage_limitExceedsMax_throwsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> productController.listPage(null, 100));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void search_validQuery_passesQueryToService() {
+        ProductPage page = new ProductPage(List.of(), null);
+        when(productService.listPage("cursor", 10, "card")).thenReturn(page);
+
+        ResponseEntity<ProductPage> response = productController.search("card", "cursor", 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    void search_blankQuery_throwsBadRequestException() {
+        assertThrows(BadRequestException.class, () -> productController.search("  ", null, 20));
+        verifyNoInteractions(productService);
+    }
+
+    // -----------------------
+    // catalog tests
+    // -----------------------
+    @Test
+    void catalog_matchingIfNoneMatch_returnsNotModified() {
+        when(productService.catalogVersion()).thenReturn(new ProductCatalogVersion("abc", 3));
+
+        ResponseEntity<List<ProductDto>> response = productController.catalog("\"abc\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(productService, never()).catalog();
+    }
+
+    @Test
+    void catalog_staleIfNoneMatch_returnsCatalogWithEtag() {
+        List<ProductDto> products = List.of(createSampleProductDto());
+        when(productService.catalogVersion()).thenReturn(new ProductCatalogVersion("abc", 1));
+        when(productService.catalog()).thenReturn(products);
+
+        ResponseEntity<List<ProductDto>> response = productController.catalog("\"old\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertSame(products, response.getBody());
+    }
+
     // -----------------------
     // get tests
     // -----------------------
@@ -140,19 +207,56 @@ public class ProductControllerTest {
 
         when(productService.get(productId)).thenReturn(dto);
 
-        ResponseEntity<ProductDto> response = productController.get(productId);
+        ResponseEntity<ProductDto> response = productController.get(productId, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(productId, response.getBody().getId());
     }
 
+    @Test
+    void get_productFound_setsEtagAndCacheControl() {
+        ProductDto dto = createSampleProductDto();
+        when(productService.get(dto.getId())).thenReturn(dto);
+
+        ResponseEntity<ProductDto> response = productController.get(dto.getId(), null);
+
+        assertNotNull(response.getHeaders().getETag());
+        assertEquals("max-age=60, public", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void get_matchingIfNoneMatch_returnsNotModified() {
+        ProductDto dto = createSampleProductDto();
+        when(productService.get(dto.getId())).thenReturn(dto);
+        String etag = productController.get(dto.getId(), null).getHeaders().getETag();
+
+        ResponseEntity<ProductDto> response = productController.get(dto.getId(), "W/" + etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void get_productChanged_etagChanges() {
+        ProductDto dto = createSampleProductDto();
+        when(productService.get(dto.getId())).thenReturn(dto);
+        String etag = productController.get(dto.getId(), null).getHeaders().getETag();
+
+        dto.setDescription("Changed");
+        ResponseEntity<ProductDto> response = productController.get(dto.getId(), etag);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(etag, response.getHeaders().getETag());
+    }
+
     @Test
     void get_productNotFound_returnsNotFound() {
         UUID productId = UUID.randomUUID();
 
         when(productService.get(productId)).thenReturn(null);
 
-        ResponseEntity<ProductDto> response = productController.get(productId);
+        ResponseEntity<ProductDto> response = productController.get(productId, null);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
@@ -166,7 +270,7 @@ public class ProductControllerTest {
                 .thenThrow(new RuntimeException("DB error"));
 
         assertThrows(RuntimeException.class, () ->
-                productController.get(productId)
+                productController.get(productId, null)
         );
     }
 
@@ -380,6 +484,19 @@ public class ProductControllerTest {
         assertFalse(response.getBody());
     }
 
+    @Test
+    void productsExist_delegatesToService() {
+        UUID productId = UUID.randomUUID();
+        Map<UUID, Boolean> exists = Map.of(productId, true);
+
+        when(productService.existsByIds(List.of(productId))).thenReturn(exists);
+
+        ResponseEntity<Map<UUID, Boolean>> response = productController.productsExist(List.of(productId));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(exists, response.getBody());
+    }
+
     // -----------------------
     // edge cases tests
     // -----------------------
@@ -45,6 +45,8 @@ public class ProductIntegrationTest {
         registry.add("spring.liquibase.enabled", () -> "false");
         registry.add("spring.cloud.discovery.enabled", () -> "false");
         registry.add("spring.cloud.config.enabled", () -> "false");
+        // тесты пишут в репозиторий напрямую, мимо каталога в памяти
+        registry.add("product.catalog.enabled", () -> "false");
         registry.add("resilience4j.circuitbreaker.instances.user-service.registerHealthIndicator", () -> "false");
         registry.add("resilience4j.circuitbreaker.instances.application-service.registerHealthIndicator", () -> "false");
         registry.add("resilience4j.circuitbreaker.instances.assignment-service.registerHealthIndicator", () -> "false");
@@ -1,11 +1,13 @@
 package com.example.productservice.service;
 
+import com.example.common.event.DeletedEntityType;
 import com.example.productservice.dto.ProductDto;
 import com.example.productservice.dto.ProductRequest;
 import com.example.productservice.exception.BadRequestException;
 import com.example.productservice.exception.ConflictException;
 import com.example.productservice.exception.ForbiddenException;
 import com.example.productservice.exception.NotFoundException;
+import com.example.productservice.exception.ServiceUnavailableException;
 import com.example.productservice.feign.ApplicationServiceClient;
 import com.example.productservice.feign.AssignmentServiceClient;
 import com.example.productservice.feign.UserServiceClient;
@@ -14,6 +16,9 @@ import com.example.productservice.model.enums.AssignmentRole;
 import com.example.productservice.model.enums.UserRole;
 import com.example.productservice.repository.ProductRepository;
 import com.example.productservice.service.ProductService;
+import com.example.productservice.util.CursorUtil;
+import com.example.productservice.util.ProductPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -22,11 +27,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 public class ProductServiceTest {
@@ -43,16 +54,28 @@ public class ProductServiceTest {
     @Mock
     private AssignmentServiceClient assignmentServiceClient;
 
+    private ProductAccessAuthorizer accessAuthorizer;
+
+    private ProductCatalog productCatalog;
+
     private ProductService productService;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        accessAuthorizer = new ProductAccessAuthorizer(
+                userServiceClient,
+                assignmentServiceClient,
+                Runnable::run,
+                new SimpleMeterRegistry()
+        );
+        productCatalog = new ProductCatalog(productRepository, new SimpleMeterRegistry(), true, 100);
         productService = new ProductService(
                 productRepository,
-                userServiceClient,
                 applicationServiceClient,
-                assignmentServiceClient
+                accessAuthorizer,
+                assignmentServiceClient,
+                productCatalog
         );
     }
 
@@ -148,6 +171,220 @@ public class ProductServiceTest {
         verify(productRepository, times(1)).findAll(PageRequest.of(0, 10));
     }
 
+    @Test
+    public void list_catalogLoaded_servesFromMemoryWithoutQueries() {
+        loadCatalog(product("b"), product("a"), product("c"));
+
+        Page<ProductDto> resp = productService.list(0, 2);
+
+        assertEquals(3, resp.getTotalElements());
+        assertEquals(List.of("a", "b"), resp.getContent().stream().map(ProductDto::getName).toList());
+        verify(productRepository, never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    public void create_catalogLoaded_addsProductToCatalog() {
+        loadCatalog(product("b"));
+        ProductRequest req = new ProductRequest();
+        req.setName("a");
+        req.setDescription("d");
+        when(productRepository.existsByName("a")).thenReturn(false);
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        productService.create(req);
+
+        assertEquals(List.of("a", "b"),
+                productService.list(0, 10).getContent().stream().map(ProductDto::getName).toList());
+    }
+
+    // -----------------------
+    // listPage tests
+    // -----------------------
+    @Test
+    public void listPage_catalogLoaded_walksPagesWithCursor() {
+        loadCatalog(product("credit"), product("debit"), product("card"), product("deposit"));
+
+        ProductPage first = productService.listPage(null, 2, null);
+        assertEquals(List.of("card", "credit"), first.items().stream().map(ProductDto::getName).toList());
+        assertNotNull(first.nextCursor());
+
+        ProductPage second = productService.listPage(first.nextCursor(), 2, null);
+        assertEquals(List.of("debit", "deposit"), second.items().stream().map(ProductDto::getName).toList());
+        assertNull(second.nextCursor());
+        verify(productRepository, never()).findFirstPage(anyInt());
+    }
+
+    @Test
+    public void listPage_catalogLoaded_filtersBySubstringIgnoringCase() {
+        loadCatalog(product("Credit Card"), product("Debit Card"), product("Deposit"));
+
+        ProductPage page = productService.listPage(null, 10, " CARD ");
+
+        assertEquals(List.of("Credit Card", "Debit Card"), page.items().stream().map(ProductDto::getName).toList());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void listPage_catalogNotLoaded_usesKeysetQuery() {
+        Product p1 = product("a");
+        Product p2 = product("b");
+        when(productRepository.findPageAfter("a", p1.getId(), 2)).thenReturn(List.of(p2));
+
+        ProductPage page = productService.listPage(CursorUtil.encode("a", p1.getId()), 1, null);
+
+        assertEquals(List.of("b"), page.items().stream().map(ProductDto::getName).toList());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void listPage_catalogNotLoaded_searchEscapesLikeWildcards() {
+        when(productRepository.searchFirstPage("%50\\%\\_off%", 21)).thenReturn(List.of());
+
+        productService.listPage(null, 20, "50%_OFF");
+
+        verify(productRepository).searchFirstPage("%50\\%\\_off%", 21);
+    }
+
+    @Test
+    public void listPage_invalidCursor_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> productService.listPage("not-a-cursor", 10, null));
+    }
+
+    @Test
+    public void listPage_limitTooLarge_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () -> productService.listPage(null, 51, null));
+    }
+
+    // -----------------------
+    // catalog tests
+    // -----------------------
+    @Test
+    public void get_catalogHit_doesNotQueryDatabase() {
+        Product p = product("a");
+        loadCatalog(p);
+
+        ProductDto dto = productService.get(p.getId());
+
+        assertEquals("a", dto.getName());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    public void get_catalogMiss_loadsFromDatabaseAndCaches() {
+        loadCatalog(product("a"));
+        Product created = product("b");
+        when(productRepository.findById(created.getId())).thenReturn(Optional.of(created));
+
+        assertEquals("b", productService.get(created.getId()).getName());
+        assertEquals("b", productService.get(created.getId()).getName());
+
+        verify(productRepository, times(1)).findById(created.getId());
+    }
+
+    @Test
+    public void existsById_catalogHit_deletedElsewhere_checksDatabase() {
+        Product p = product("a");
+        loadCatalog(p);
+        // продукт удалён на другом экземпляре, каталог этого ещё не знает
+        when(productRepository.existsById(p.getId())).thenReturn(false);
+
+        assertFalse(productService.existsById(p.getId()));
+    }
+
+    @Test
+    public void existsByIds_catalogLoaded_checksAllIdsInDatabase() {
+        Product known = product("a");
+        loadCatalog(known);
+        UUID unknown = UUID.randomUUID();
+        when(productRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+
+        Map<UUID, Boolean> result = productService.existsByIds(List.of(known.getId(), unknown));
+
+        assertEquals(Map.of(known.getId(), false, unknown, false), result);
+        verify(productRepository).findExistingIds(argThat(ids -> ids.size() == 2));
+    }
+
+    @Test
+    public void get_catalogMiss_deletedDuringRead_isNotCached() {
+        loadCatalog(product("a"));
+        Product deleted = product("b");
+        when(productRepository.findById(deleted.getId())).thenAnswer(inv -> {
+            // удаление закоммитилось, пока ответ на чтение был в пути
+            productCatalog.remove(deleted.getId());
+            return Optional.of(deleted);
+        });
+
+        productService.get(deleted.getId());
+
+        assertTrue(productCatalog.get(deleted.getId()).isEmpty());
+    }
+
+    @Test
+    public void get_catalogMiss_doesNotDiscardConcurrentReload() {
+        Product a = product("a");
+        loadCatalog(a);
+        Product created = product("b");
+        when(productRepository.findById(created.getId())).thenReturn(Optional.of(created));
+        when(productRepository.findAll()).thenAnswer(inv -> {
+            productService.get(created.getId());
+            return List.of(a, created);
+        });
+
+        assertTrue(productCatalog.reload());
+        assertEquals(2, productCatalog.size());
+    }
+
+    @Test
+    public void catalogVersion_changesWithContentOnly() {
+        Product p = product("a");
+        loadCatalog(p);
+        String initial = productService.catalogVersion().getVersion();
+
+        productCatalog.refresh();
+        assertEquals(initial, productService.catalogVersion().getVersion());
+
+        ProductDto renamed = new ProductDto();
+        renamed.setId(p.getId());
+        renamed.setName("renamed");
+        renamed.setDescription(p.getDescription());
+        productCatalog.put(renamed);
+
+        assertNotEquals(initial, productService.catalogVersion().getVersion());
+        assertEquals(1, productService.catalogVersion().getSize());
+    }
+
+    @Test
+    public void catalogVersion_notLoaded_throwsServiceUnavailable() {
+        assertThrows(ServiceUnavailableException.class, () -> productService.catalogVersion());
+    }
+
+    @Test
+    public void refresh_picksUpProductsCreatedElsewhere() {
+        loadCatalog(product("a"));
+        Product other = product("b");
+        when(productRepository.count()).thenReturn(2L);
+        when(productRepository.findAll()).thenReturn(List.of(product("a"), other));
+
+        productCatalog.refresh();
+
+        assertEquals("b", productService.get(other.getId()).getName());
+        verify(productRepository, never()).findById(any());
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setId(UUID.randomUUID());
+        product.setName(name);
+        product.setDescription(name + " description");
+        return product;
+    }
+
+    private void loadCatalog(Product... products) {
+        when(productRepository.count()).thenReturn((long) products.length);
+        when(productRepository.findAll()).thenReturn(List.of(products));
+        productCatalog.load();
+    }
+
     // -----------------------
     // getProduct tests
     // -----------------------
@@ -205,11 +442,21 @@ public class ProductServiceTest {
         ProductRequest req = new ProductRequest();
         req.setName("newName");
 
-        when(userServiceClient.userExists(actorId)).thenReturn(false);
+        Product product = new Product();
+        product.setId(productId);
 
-        assertThrows(NotFoundException.class, () ->
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(userServiceClient.getUserRole(actorId)).thenThrow(new NotFoundException("User not found: " + actorId));
+        when(assignmentServiceClient.existsByUserAndProductAndRole(
+                actorId, productId, AssignmentRole.PRODUCT_OWNER.name()))
+                .thenReturn(false);
+
+        NotFoundException ex = assertThrows(NotFoundException.class, () ->
                 productService.updateProduct(productId, req, actorId));
-        verify(userServiceClient, times(2)).userExists(actorId);
+        assertEquals("Actor not found: " + actorId, ex.getMessage());
+        verify(userServiceClient, times(1)).getUserRole(actorId);
+        verify(userServiceClient, never()).userExists(any());
+        verify(productRepository, never()).save(any());
     }
 
     @Test
@@ -219,7 +466,6 @@ public class ProductServiceTest {
         ProductRequest req = new ProductRequest();
         req.setName("newName");
 
-        when(userServiceClient.userExists(actorId)).thenReturn(true);
         when(productRepository.findById(productId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () ->
@@ -238,7 +484,6 @@ public class ProductServiceTest {
         product.setId(productId);
         product.setName("oldName");
 
-        when(userServiceClient.userExists(actorId)).thenReturn(true);
         when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_CLIENT);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(assignmentServiceClient.existsByUserAndProductAndRole(
@@ -271,7 +516,6 @@ public class ProductServiceTest {
         saved.setName("newName");
         saved.setDescription("newDesc");
 
-        when(userServiceClient.userExists(actorId)).thenReturn(true);
         when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_ADMIN);
         when(productRepository.findById(productId)).thenReturn(Optional.of(existing));
         when(assignmentServiceClient.existsByUserAndProductAndRole(
@@ -306,7 +550,6 @@ public class ProductServiceTest {
         saved.setName("ownerName");
         saved.setDescription("ownerDesc");
 
-        when(userServiceClient.userExists(actorId)).thenReturn(true);
         when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_CLIENT);
         when(productRepository.findById(productId)).thenReturn(Optional.of(existing));
         when(assignmentServiceClient.existsByUserAndProductAndRole(
@@ -335,7 +578,6 @@ public class ProductServiceTest {
         existing.setName("oldName");
         existing.setDescription("oldDesc");
 
-        when(userServiceClient.userExists(actorId)).thenReturn(true);
         when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_ADMIN);
         when(productRepository.findById(productId)).thenReturn(Optional.of(existing));
         when(assignmentServiceClient.existsByUserAndProductAndRole(
@@ -350,6 +592,51 @@ public class ProductServiceTest {
         verify(productRepository, never()).save(any());
     }
 
+    @Test
+    public void updateProduct_userServiceUnavailable_throwsServiceUnavailable() {
+        UUID actorId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        ProductRequest req = new ProductRequest();
+        req.setName("newName");
+
+        Product product = new Product();
+        product.setId(productId);
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(userServiceClient.getUserRole(actorId)).thenReturn(null);
+
+        assertThrows(ServiceUnavailableException.class, () ->
+                productService.updateProduct(productId, req, actorId));
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    public void updateProduct_revokedOwner_isForbiddenOnNextWrite() {
+        UUID actorId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+        ProductRequest req = new ProductRequest();
+        req.setDescription("desc");
+
+        Product product = new Product();
+        product.setId(productId);
+        product.setName("name");
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_CLIENT);
+        // владельца лишили роли между двумя запросами
+        when(assignmentServiceClient.existsByUserAndProductAndRole(
+                actorId, productId, AssignmentRole.PRODUCT_OWNER.name()))
+                .thenReturn(true, false);
+
+        assertNotNull(productService.updateProduct(productId, req, actorId));
+        assertThrows(ForbiddenException.class, () ->
+                productService.updateProduct(productId, req, actorId));
+
+        verify(assignmentServiceClient, times(2)).existsByUserAndProductAndRole(
+                actorId, productId, AssignmentRole.PRODUCT_OWNER.name());
+    }
+
     // -----------------------
     // deleteProduct tests
     // -----------------------
@@ -368,11 +655,17 @@ public class ProductServiceTest {
         UUID actorId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
-        when(userServiceClient.userExists(actorId)).thenReturn(false);
+        Product product = new Product();
+        product.setId(productId);
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(userServiceClient.getUserRole(actorId)).thenThrow(new NotFoundException("User not found: " + actorId));
 
         assertThrows(NotFoundException.class, () ->
                 productService.deleteProduct(productId, actorId));
-        verify(userServiceClient, times(2)).userExists(actorId);
+        verify(userServiceClient, times(1)).getUserRole(actorId);
+        verify(userServiceClient, never()).userExists(any());
+        verify(productRepository, never()).delete(any());
     }
 
     @Test
@@ -380,7 +673,6 @@ public class ProductServiceTest {
         UUID actorId = UUID.randomUUID();
         UUID productId = UUID.randomUUID();
 
-        when(userServiceClient.userExists(actorId)).thenReturn(true);
         when(productRepository.findById(productId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () ->
@@ -396,7 +688,6 @@ public class ProductServiceTest {
         Product product = new Product();
         product.setId(productId);
 
-        when(userServiceClient.userExists(actorId)).thenReturn(true);
         when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_CLIENT);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(assignmentServiceClient.existsByUserAndProductAndRole(
@@ -418,7 +709,6 @@ public class ProductServiceTest {
         Product product = new Product();
         product.setId(productId);
 
-        when(userServiceClient.userExists(actorId)).thenReturn(true);
         when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_ADMIN);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(assignmentServiceClient.existsByUserAndProductAndRole(
@@ -430,6 +720,27 @@ public class ProductServiceTest {
         // Проверяем вызовы к внешним сервисам
         verify(applicationServiceClient, times(1)).deleteApplicationsByProductId(productId);
         verify(productRepository, times(1)).delete(product);
+        verify(assignmentServiceClient, times(1)).publishEntityDeleted(argThat(event ->
+                event.getEntityType() == DeletedEntityType.PRODUCT && productId.equals(event.getEntityId())));
+    }
+
+    @Test
+    public void deleteProduct_publishFails_productStillDeleted() {
+        UUID actorId = UUID.randomUUID();
+        UUID productId = UUID.randomUUID();
+
+        Product product = new Product();
+        product.setId(productId);
+
+        when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_ADMIN);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(assignmentServiceClient.existsByUserAndProductAndRole(
+                actorId, productId, AssignmentRole.PRODUCT_OWNER.name()))
+                .thenReturn(false);
+        when(assignmentServiceClient.publishEntityDeleted(any())).thenThrow(new RuntimeException("down"));
+
+        assertDoesNotThrow(() -> productService.deleteProduct(productId, actorId));
+        verify(productRepository, times(1)).delete(product);
     }
 
     @Test
@@ -440,7 +751,6 @@ public class ProductServiceTest {
         Product product = new Product();
         product.setId(productId);
 
-        when(userServiceClient.userExists(actorId)).thenReturn(true);
         when(userServiceClient.getUserRole(actorId)).thenReturn(UserRole.ROLE_ADMIN);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
         when(assignmentServiceClient.existsByUserAndProductAndRole(
@@ -476,4 +786,27 @@ public class ProductServiceTest {
         assertFalse(productService.existsById(id));
         verify(productRepository, times(1)).existsById(id);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void existsByIds_returnsEntryForEveryRequestedId() {
+        UUID existing = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(productRepository.findExistingIds(anyCollection())).thenReturn(List.of(existing));
+
+        Map<UUID, Boolean> result = productService.existsByIds(List.of(existing, missing, existing));
+
+        assertEquals(2, result.size());
+        assertTrue(result.get(existing));
+        assertFalse(result.get(missing));
+        verify(productRepository, times(1)).findExistingIds(anyCollection());
+    }
+
+    @Test
+    public void existsByIds_nullId_throwsBadRequest() {
+        List<UUID> ids = new ArrayList<>();
+        ids.add(null);
+
+        assertThrows(BadRequestException.class, () -> productService.existsByIds(ids));
+        verifyNoInteractions(productRepository);
+    }
+}
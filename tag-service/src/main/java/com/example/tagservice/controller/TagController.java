@@ -1,7 +1,9 @@
 package com.example.tagservice.controller;
 
+import com.example.common.web.ETags;
 import com.example.tagservice.dto.ApplicationInfoDto;
 import com.example.tagservice.dto.TagDto;
+import com.example.tagservice.exception.BadRequestException;
 import com.example.tagservice.feign.ApplicationServiceClient;
 import com.example.tagservice.service.TagService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +14,7 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +22,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,6 +33,9 @@ public class TagController {
 
     private static final Logger log = LoggerFactory.getLogger(TagController.class);
     private static final int MAX_PAGE_SIZE = 50;
+    private static final String EXPAND_APPLICATIONS = "applications";
+    private static final CacheControl TAG_CACHE = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+    private static final CacheControl TAG_WITH_APPLICATIONS_CACHE = CacheControl.noCache().cachePrivate();
     private final TagService tagService;
 
     public TagController(TagService tagService) {
@@ -60,22 +67,23 @@ public class TagController {
         return ResponseEntity.created(location).body(dto);
     }
 
-    @Operation(summary = "Read all tags", description = "Returns list of tags")
+    @Operation(summary = "Read all tags", description = "Returns list of tags; applications are included only with expand=applications")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "List of applications"),
-            @ApiResponse(responseCode = "400", description = "Page size too large")
+            @ApiResponse(responseCode = "400", description = "Page size too large or unknown expand value")
     })
     @GetMapping
     public ResponseEntity<List<TagDto>> listTags(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String expand) {
 
         if (size > MAX_PAGE_SIZE) {
             throw new IllegalArgumentException(
                     String.format("Page size cannot be greater than %d", MAX_PAGE_SIZE));
         }
 
-        Page<TagDto> tagPage = tagService.listAll(page, size);
+        Page<TagDto> tagPage = tagService.listAll(page, size, expandsApplications(expand));
 
         HttpHeaders headers = new HttpHeaders();
         headers.add("X-Total-Count", String.valueOf(tagPage.getTotalElements()));
@@ -85,19 +93,34 @@ public class TagController {
                 .body(tagPage.getContent());
     }
 
-    @Operation(summary = "Read certain tag by its name", description = "Returns data about a single tag: name and list of applications that uses this tag")
+    @Operation(summary = "Read certain tag by its name", description = "Returns data about a single tag: name and, with expand=applications, list of applications that uses this tag")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Data about a single tag"),
+            @ApiResponse(responseCode = "400", description = "Unknown expand value"),
             @ApiResponse(responseCode = "404", description = "Tag with this name is not found")
     })
     @GetMapping("/{name}")
-    public ResponseEntity<TagDto> getTagWithApplications(@PathVariable String name) {
-        TagDto response = tagService.getTagByName(name);
-        log.info("Returning tag {} with {} applications", name, response.getApplications().size());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<TagDto> getTagWithApplications(
+            @PathVariable String name,
+            @RequestParam(required = false) String expand,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TagDto response = tagService.getTagByName(name, expandsApplications(expand));
+        // список заявок меняется вместе со статусами, а сам тег неизменяем
+        CacheControl cacheControl = response.getApplications() != null ? TAG_WITH_APPLICATIONS_CACHE : TAG_CACHE;
+        String etag = ETags.fromContent(response);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            log.debug("Tag {} is not modified", name);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        if (response.getApplications() != null) {
+            log.info("Returning tag {} with {} applications", name, response.getApplications().size());
+        } else {
+            log.info("Returning tag {}", name);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(response);
     }
 
-    // internal-запрос для application-service
+    // internal-запрос для application-service: всегда облегчённые DTO, без обращения к application-service
     @PostMapping("/batch")
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<List<TagDto>> createOrGetTagsBatch(
@@ -122,4 +145,20 @@ public class TagController {
         log.info("Processed batch of {} tags", dtos.size());
         return ResponseEntity.ok(dtos);
     }
+
+    private static boolean expandsApplications(String expand) {
+        if (expand == null || expand.isBlank()) {
+            return false;
+        }
+        boolean applications = false;
+        for (String value : expand.split(",")) {
+            String trimmed = value.trim();
+            if (EXPAND_APPLICATIONS.equalsIgnoreCase(trimmed)) {
+                applications = true;
+            } else if (!trimmed.isEmpty()) {
+                throw new BadRequestException("Unknown expand value: " + trimmed);
+            }
+        }
+        return applications;
+    }
 }
\ No newline at end of file
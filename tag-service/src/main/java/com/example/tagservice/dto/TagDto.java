@@ -1,11 +1,15 @@
 package com.example.tagservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 import java.util.UUID;
 
 public class TagDto {
     private UUID id;
     private String name;
+    // Заполняется только при expand=applications, иначе не попадает в ответ
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<ApplicationInfoDto> applications;
 
     // Геттеры и сеттеры
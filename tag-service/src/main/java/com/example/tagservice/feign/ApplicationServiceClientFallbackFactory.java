@@ -1,5 +1,6 @@
 package com.example.tagservice.feign;
 
+import com.example.common.feign.FeignFallbacks;
 import com.example.tagservice.dto.ApplicationInfoDto;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
@@ -11,6 +12,7 @@ import java.util.List;
 public class ApplicationServiceClientFallbackFactory implements FallbackFactory<ApplicationServiceClient> {
     @Override
     public ApplicationServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new ApplicationServiceClient() {
             @Override
             public List<ApplicationInfoDto> getApplicationsByTag(String tagName) {
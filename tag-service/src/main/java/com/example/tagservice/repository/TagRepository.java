@@ -19,4 +19,19 @@ public interface TagRepository extends JpaRepository<Tag, UUID> {
     List<Tag> findByNames(@Param("names") List<String> names);
 
     boolean existsByName(String name);
+
+    // Атомарный upsert пачки тегов за один запрос: вставляет отсутствующие имена,
+    // при гонке по uk_tag_name молча пропускает конфликт и возвращает уже существующие строки
+    @Query(value = "WITH input AS (" +
+            "    SELECT DISTINCT n AS name FROM unnest(CAST(ARRAY[:names] AS varchar[])) AS n" +
+            "), inserted AS (" +
+            "    INSERT INTO tag (id, name) SELECT gen_random_uuid(), i.name FROM input i" +
+            "    ON CONFLICT (name) DO NOTHING" +
+            "    RETURNING id, name" +
+            ") " +
+            "SELECT id, name FROM inserted " +
+            "UNION ALL " +
+            "SELECT t.id, t.name FROM tag t JOIN input i ON t.name = i.name",
+            nativeQuery = true)
+    List<Tag> upsertByNames(@Param("names") List<String> names);
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.example.tagservice.service;
+
+import com.example.tagservice.model.entity.Tag;
+import com.example.tagservice.repository.TagRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+// Теги не изменяются и не удаляются, поэтому name -> Tag можно держать в памяти без инвалидации.
+// Кэшируются только найденные/созданные теги, промахи не запоминаются.
+@Component
+public class TagNameCache {
+
+    private static final Logger log = LoggerFactory.getLogger(TagNameCache.class);
+    private static final String CACHE_NAME = "tag.names";
+
+    private final TagRepository tagRepository;
+    private final Cache<String, Tag> cache;
+    private final int warmupSize;
+
+    public TagNameCache(TagRepository tagRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${tag.cache.max-size:10000}") long maxSize,
+                        @Value("${tag.cache.warmup-size:1000}") int warmupSize) {
+        this.tagRepository = tagRepository;
+        this.warmupSize = warmupSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmupSize <= 0) {
+            return;
+        }
+        try {
+            tagRepository.findAll(PageRequest.of(0, warmupSize, Sort.by("name")))
+                    .forEach(this::put);
+            log.info("Tag cache warmed up with {} tags", cache.estimatedSize());
+        } catch (Exception e) {
+            // Прогрев не обязателен: при ошибке кэш заполнится по мере запросов
+            log.warn("Failed to warm up tag cache: {}", e.getMessage());
+        }
+    }
+
+    public Optional<Tag> get(String name) {
+        return Optional.ofNullable(cache.getIfPresent(name));
+    }
+
+    public Map<String, Tag> getAllPresent(Collection<String> names) {
+        return cache.getAllPresent(names);
+    }
+
+    public void put(Tag tag) {
+        if (tag != null && tag.getName() != null) {
+            cache.put(tag.getName(), tag);
+        }
+    }
+
+    public void putAll(Collection<Tag> tags) {
+        tags.forEach(this::put);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
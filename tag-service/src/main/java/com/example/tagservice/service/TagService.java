@@ -14,6 +14,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,15 +26,23 @@ public class TagService {
     private static final Logger log = LoggerFactory.getLogger(TagService.class);
     private final TagRepository tagRepository;
     private final ApplicationServiceClient applicationServiceClient;
+    private final TagNameCache tagNameCache;
 
-    public TagService(TagRepository tagRepository, ApplicationServiceClient applicationServiceClient) {
+    public TagService(TagRepository tagRepository,
+                      ApplicationServiceClient applicationServiceClient,
+                      TagNameCache tagNameCache) {
         this.tagRepository = tagRepository;
         this.applicationServiceClient = applicationServiceClient;
+        this.tagNameCache = tagNameCache;
     }
 
     @Transactional
     public Tag createIfNotExists(String name) {
-        return tagRepository.findByName(name)
+        Optional<Tag> cached = tagNameCache.get(name);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        Tag result = tagRepository.findByName(name)
                 .orElseGet(() -> {
                     Tag tag = new Tag();
                     tag.setId(UUID.randomUUID());
@@ -41,6 +51,9 @@ public class TagService {
                     log.info("Created new tag: {}", name);
                     return saved;
                 });
+        // в кэш только после коммита: при откате транзакции в нём остался бы тег, которого нет в БД
+        afterCommit(() -> tagNameCache.put(result));
+        return result;
     }
 
     @Transactional
@@ -56,55 +69,84 @@ public class TagService {
                 .distinct()
                 .collect(Collectors.toList());
 
-        // Поиск существующих тегов
-        List<Tag> existingTags = tagRepository.findByNames(uniqueNames);
-        Set<String> existingNames = existingTags.stream()
-                .map(Tag::getName)
-                .collect(Collectors.toSet());
+        if (uniqueNames.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        // Создание новых тегов
-        List<Tag> newTags = uniqueNames.stream()
-                .filter(name -> !existingNames.contains(name))
-                .map(name -> {
-                    Tag tag = new Tag();
-                    tag.setId(UUID.randomUUID());
-                    tag.setName(name);
-                    return tag;
-                })
+        // В БД идём только за именами, которых нет в кэше
+        Map<String, Tag> tagsByName = new HashMap<>(tagNameCache.getAllPresent(uniqueNames));
+        List<String> uncachedNames = uniqueNames.stream()
+                .filter(name -> !tagsByName.containsKey(name))
                 .collect(Collectors.toList());
+        if (uncachedNames.isEmpty()) {
+            return uniqueNames.stream().map(tagsByName::get).collect(Collectors.toList());
+        }
+
+        // INSERT ... ON CONFLICT DO NOTHING RETURNING + выборка существующих одним запросом
+        tagRepository.upsertByNames(uncachedNames)
+                .forEach(tag -> tagsByName.putIfAbsent(tag.getName(), tag));
 
-        if (!newTags.isEmpty()) {
-            List<Tag> savedTags = tagRepository.saveAll(newTags);
-            log.info("Created {} new tags", savedTags.size());
-            existingTags.addAll(savedTags);
+        // Тег, закоммиченный параллельной транзакцией уже после снимка запроса,
+        // не виден в выборке — дочитываем такие имена отдельным запросом
+        List<String> missingNames = uniqueNames.stream()
+                .filter(name -> !tagsByName.containsKey(name))
+                .collect(Collectors.toList());
+        if (!missingNames.isEmpty()) {
+            log.debug("Re-reading {} tags created concurrently", missingNames.size());
+            tagRepository.findByNames(missingNames)
+                    .forEach(tag -> tagsByName.putIfAbsent(tag.getName(), tag));
         }
 
-        return existingTags;
+        List<Tag> result = uniqueNames.stream()
+                .map(tagsByName::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        afterCommit(() -> tagNameCache.putAll(result));
+        return result;
     }
 
     @Transactional(readOnly = true)
-    public Page<TagDto> listAll(int page, int size) {
+    public Page<TagDto> listAll(int page, int size, boolean expandApplications) {
         Pageable pageable = PageRequest.of(page, size);
         Page<Tag> tags = tagRepository.findAll(pageable);
 
-        return tags.map(this::toDto);
+        return tags.map(tag -> toDto(tag, expandApplications));
     }
 
     @Transactional(readOnly = true)
-    public TagDto getTagByName(String name) {
-        Tag tag = tagRepository.findByName(name)
+    public TagDto getTagByName(String name, boolean expandApplications) {
+        Tag tag = tagNameCache.get(name)
+                .or(() -> tagRepository.findByName(name))
                 .orElseThrow(() -> new NotFoundException("Tag not found: " + name));
-        return toDto(tag);
+        afterCommit(() -> tagNameCache.put(tag));
+        return toDto(tag, expandApplications);
     }
 
-    private TagDto toDto(Tag tag) {
-        List<ApplicationInfoDto> applications = applicationServiceClient.getApplicationsByTag(tag.getName());
-        if (applications == null) {
-            throw new ServiceUnavailableException("Application service is unavailable now");
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
+    }
+
+    // Заявки подтягиваются из application-service только по явному запросу
+    private TagDto toDto(Tag tag, boolean expandApplications) {
         TagDto dto = new TagDto();
         dto.setId(tag.getId());
         dto.setName(tag.getName());
+        if (!expandApplications) {
+            return dto;
+        }
+        List<ApplicationInfoDto> applications = applicationServiceClient.getApplicationsByTag(tag.getName());
+        if (applications == null) {
+            throw new ServiceUnavailableException("Application service is unavailable now");
+        }
         dto.setApplications(applications);
         return dto;
     }
@@ -2,6 +2,7 @@ package com.example.tagservice.controller;
 
 import com.example.tagservice.dto.ApplicationInfoDto;
 import com.example.tagservice.dto.TagDto;
+import com.example.tagservice.exception.BadRequestException;
 import com.example.tagservice.exception.NotFoundException;
 import com.example.tagservice.exception.ServiceUnavailableException;
 import com.example.tagservice.model.entity.Tag;
@@ -128,9 +129,9 @@ public class TagControllerTest {
         TagDto dto2 = createSampleTagDto();
         Page<TagDto> page = new PageImpl<>(List.of(dto1, dto2), PageRequest.of(0, 20), 50);
 
-        when(tagService.listAll(0, 20)).thenReturn(page);
+        when(tagService.listAll(0, 20, false)).thenReturn(page);
 
-        ResponseEntity<List<TagDto>> response = tagController.listTags(0, 20);
+        ResponseEntity<List<TagDto>> response = tagController.listTags(0, 20, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -144,9 +145,9 @@ public class TagControllerTest {
     @Test
     void listTags_sizeExceedsMax_throwsIllegalArgumentException() {
         assertThrows(IllegalArgumentException.class, () ->
-                tagController.listTags(0, 100)
+                tagController.listTags(0, 100, null)
         );
-        verify(tagService, never()).listAll(anyInt(), anyInt());
+        verify(tagService, never()).listAll(anyInt(), anyInt(), anyBoolean());
     }
 
     @Test
@@ -154,9 +155,9 @@ public class TagControllerTest {
         TagDto dto = createSampleTagDto();
         Page<TagDto> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 20), 1);
 
-        when(tagService.listAll(0, 20)).thenReturn(page);
+        when(tagService.listAll(0, 20, false)).thenReturn(page);
 
-        ResponseEntity<List<TagDto>> response = tagController.listTags(0, 20);
+        ResponseEntity<List<TagDto>> response = tagController.listTags(0, 20, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().size());
@@ -166,9 +167,9 @@ public class TagControllerTest {
     void listTags_emptyPage_returnsEmptyList() {
         Page<TagDto> page = new PageImpl<>(List.of(), PageRequest.of(0, 20), 0);
 
-        when(tagService.listAll(0, 20)).thenReturn(page);
+        when(tagService.listAll(0, 20, false)).thenReturn(page);
 
-        ResponseEntity<List<TagDto>> response = tagController.listTags(0, 20);
+        ResponseEntity<List<TagDto>> response = tagController.listTags(0, 20, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -180,9 +181,9 @@ public class TagControllerTest {
     void listTags_largePageNumber_returnsEmptyIfNoData() {
         Page<TagDto> page = new PageImpl<>(List.of(), PageRequest.of(100, 20), 5);
 
-        when(tagService.listAll(100, 20)).thenReturn(page);
+        when(tagService.listAll(100, 20, false)).thenReturn(page);
 
-        ResponseEntity<List<TagDto>> response = tagController.listTags(100, 20);
+        ResponseEntity<List<TagDto>> response = tagController.listTags(100, 20, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -198,9 +199,9 @@ public class TagControllerTest {
         TagDto dto = createSampleTagDto();
         dto.setName(tagName);
 
-        when(tagService.getTagByName(tagName)).thenReturn(dto);
+        when(tagService.getTagByName(tagName, true)).thenReturn(dto);
 
-        ResponseEntity<TagDto> response = tagController.getTagWithApplications(tagName);
+        ResponseEntity<TagDto> response = tagController.getTagWithApplications(tagName, "applications", null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(tagName, response.getBody().getName());
@@ -212,11 +213,11 @@ public class TagControllerTest {
     void getTagWithApplications_tagNotFound_throwsNotFoundException() {
         String tagName = "Non-existent Tag";
 
-        when(tagService.getTagByName(tagName))
+        when(tagService.getTagByName(tagName, true))
                 .thenThrow(new NotFoundException("Tag not found: " + tagName));
 
         assertThrows(NotFoundException.class, () ->
-                tagController.getTagWithApplications(tagName)
+                tagController.getTagWithApplications(tagName, "applications", null)
         );
     }
 
@@ -224,11 +225,11 @@ public class TagControllerTest {
     void getTagWithApplications_serviceUnavailable_throwsServiceUnavailableException() {
         String tagName = "Test Tag";
 
-        when(tagService.getTagByName(tagName))
+        when(tagService.getTagByName(tagName, true))
                 .thenThrow(new ServiceUnavailableException("Application service is unavailable now"));
 
         assertThrows(ServiceUnavailableException.class, () ->
-                tagController.getTagWithApplications(tagName)
+                tagController.getTagWithApplications(tagName, "applications", null)
         );
     }
 
@@ -239,9 +240,9 @@ public class TagControllerTest {
         dto.setName(tagName);
         dto.setApplications(List.of());
 
-        when(tagService.getTagByName(tagName)).thenReturn(dto);
+        when(tagService.getTagByName(tagName, true)).thenReturn(dto);
 
-        ResponseEntity<TagDto> response = tagController.getTagWithApplications(tagName);
+        ResponseEntity<TagDto> response = tagController.getTagWithApplications(tagName, "applications", null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(tagName, response.getBody().getName());
@@ -249,6 +250,72 @@ public class TagControllerTest {
         assertTrue(response.getBody().getApplications().isEmpty());
     }
 
+    @Test
+    void getTagWithApplications_matchingIfNoneMatch_returnsNotModified() {
+        String tagName = "Existing Tag";
+        TagDto dto = createSampleTagDto();
+        dto.setName(tagName);
+        when(tagService.getTagByName(tagName, true)).thenReturn(dto);
+        String etag = tagController.getTagWithApplications(tagName, "applications", null).getHeaders().getETag();
+
+        ResponseEntity<TagDto> response = tagController.getTagWithApplications(tagName, "applications", etag);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getTagWithApplications_applicationsChanged_returnsNewEtag() {
+        String tagName = "Existing Tag";
+        TagDto dto = createSampleTagDto();
+        dto.setName(tagName);
+        when(tagService.getTagByName(tagName, true)).thenReturn(dto);
+        String etag = tagController.getTagWithApplications(tagName, "applications", null).getHeaders().getETag();
+
+        dto.getApplications().get(0).setStatus("APPROVED");
+        ResponseEntity<TagDto> response = tagController.getTagWithApplications(tagName, "applications", etag);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(etag, response.getHeaders().getETag());
+    }
+
+    @Test
+    void getTagWithApplications_withoutExpand_returnsSlimDto() {
+        String tagName = "Slim Tag";
+        TagDto dto = new TagDto();
+        dto.setId(UUID.randomUUID());
+        dto.setName(tagName);
+
+        when(tagService.getTagByName(tagName, false)).thenReturn(dto);
+
+        ResponseEntity<TagDto> response = tagController.getTagWithApplications(tagName, null, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(tagName, response.getBody().getName());
+        assertNull(response.getBody().getApplications());
+    }
+
+    @Test
+    void getTagWithApplications_unknownExpand_throwsBadRequest() {
+        assertThrows(BadRequestException.class, () ->
+                tagController.getTagWithApplications("tag", "owners", null)
+        );
+        verify(tagService, never()).getTagByName(any(), anyBoolean());
+    }
+
+    @Test
+    void listTags_expandApplications_passesFlagToService() {
+        Page<TagDto> page = new PageImpl<>(List.of(createSampleTagDto()), PageRequest.of(0, 20), 1);
+
+        when(tagService.listAll(0, 20, true)).thenReturn(page);
+
+        ResponseEntity<List<TagDto>> response = tagController.listTags(0, 20, " Applications ");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().get(0).getApplications().size());
+    }
+
     // -----------------------
     // createOrGetTagsBatch tests
     // -----------------------
@@ -363,9 +430,9 @@ public class TagControllerTest {
         TagDto dto = createSampleTagDto();
         dto.setName(tagName);
 
-        when(tagService.getTagByName(tagName)).thenReturn(dto);
+        when(tagService.getTagByName(tagName, true)).thenReturn(dto);
 
-        ResponseEntity<TagDto> response = tagController.getTagWithApplications(tagName);
+        ResponseEntity<TagDto> response = tagController.getTagWithApplications(tagName, "applications", null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(tagName, response.getBody().getName());
@@ -18,9 +18,17 @@ import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
@@ -302,6 +310,45 @@ public class TagIntegrationTest {
         assertTrue(tagRepository.existsByName("tag3"));
     }
 
+    @Test
+    void createOrGetTagsBatch_concurrentRequests_shouldNotConflict() throws Exception {
+        // Given - несколько параллельных заявок с одними и теми же новыми тегами
+        List<String> tagNames = Arrays.asList("race-1", "race-2", "race-3");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<List<String>> entity = new HttpEntity<>(tagNames, headers);
+
+        List<Future<ResponseEntity<TagDto[]>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return restTemplate.postForEntity("/api/v1/tags/batch", entity, TagDto[].class);
+            }));
+        }
+
+        // When
+        start.countDown();
+        Set<UUID> ids = new HashSet<>();
+        for (Future<ResponseEntity<TagDto[]>> future : futures) {
+            ResponseEntity<TagDto[]> response = future.get(30, TimeUnit.SECONDS);
+
+            // Then - каждый запрос успешен и видит все теги
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNotNull(response.getBody());
+            assertEquals(3, response.getBody().length);
+            Arrays.stream(response.getBody()).map(TagDto::getId).forEach(ids::add);
+        }
+        executor.shutdown();
+
+        // Все запросы получили одни и те же строки
+        assertEquals(3, ids.size());
+        assertEquals(3, tagRepository.count());
+    }
+
     @Test
     void createTag_withSpecialCharacters_shouldWork() {
         // Given
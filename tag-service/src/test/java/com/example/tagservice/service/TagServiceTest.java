@@ -7,6 +7,7 @@ import com.example.tagservice.feign.ApplicationServiceClient;
 import com.example.tagservice.model.entity.Tag;
 import com.example.tagservice.repository.TagRepository;
 import com.example.tagservice.service.TagService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +16,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 
@@ -32,7 +35,8 @@ public class TagServiceTest {
     @Mock
     private ApplicationServiceClient applicationServiceClient;
 
-    @InjectMocks
+    private TagNameCache tagNameCache;
+
     private TagService tagService;
 
     private UUID testId;
@@ -42,6 +46,8 @@ public class TagServiceTest {
     public void setUp() {
         testId = UUID.randomUUID();
         tagName = "test-tag";
+        tagNameCache = new TagNameCache(tagRepository, new SimpleMeterRegistry(), 100, 10);
+        tagService = new TagService(tagRepository, applicationServiceClient, tagNameCache);
     }
 
     // -----------------------
@@ -119,8 +125,8 @@ public class TagServiceTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
+        verify(tagRepository, never()).upsertByNames(anyList());
         verify(tagRepository, never()).findByNames(anyList());
-        verify(tagRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -131,62 +137,69 @@ public class TagServiceTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
+        verify(tagRepository, never()).upsertByNames(anyList());
         verify(tagRepository, never()).findByNames(anyList());
-        verify(tagRepository, never()).saveAll(anyList());
     }
 
     @Test
-    public void createOrGetTags_returnsExistingTagsOnly() {
+    public void createOrGetTags_returnsEmptyListForBlankNames() {
+        // When
+        List<Tag> result = tagService.createOrGetTags(Arrays.asList("  ", ""));
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(tagRepository, never()).upsertByNames(anyList());
+    }
+
+    @Test
+    public void createOrGetTags_upsertsInSingleQuery() {
         // Given
         List<String> tagNames = Arrays.asList("tag1", "tag2");
 
-        Tag existingTag1 = new Tag();
-        existingTag1.setId(UUID.randomUUID());
-        existingTag1.setName("tag1");
+        Tag existingTag = new Tag();
+        existingTag.setId(UUID.randomUUID());
+        existingTag.setName("tag1");
 
-        Tag existingTag2 = new Tag();
-        existingTag2.setId(UUID.randomUUID());
-        existingTag2.setName("tag2");
+        Tag insertedTag = new Tag();
+        insertedTag.setId(UUID.randomUUID());
+        insertedTag.setName("tag2");
 
-        when(tagRepository.findByNames(tagNames)).thenReturn(Arrays.asList(existingTag1, existingTag2));
+        // RETURNING отдаёт вставленные строки раньше существующих
+        when(tagRepository.upsertByNames(tagNames)).thenReturn(Arrays.asList(insertedTag, existingTag));
 
         // When
         List<Tag> result = tagService.createOrGetTags(tagNames);
 
         // Then
-        assertEquals(2, result.size());
-        assertTrue(result.contains(existingTag1));
-        assertTrue(result.contains(existingTag2));
-        verify(tagRepository, times(1)).findByNames(tagNames);
+        assertEquals(Arrays.asList(existingTag, insertedTag), result);
+        verify(tagRepository, times(1)).upsertByNames(tagNames);
+        verify(tagRepository, never()).findByNames(anyList());
         verify(tagRepository, never()).saveAll(anyList());
     }
 
     @Test
-    public void createOrGetTags_createsNewTagsWhenNeeded() {
+    public void createOrGetTags_rereadsTagsCreatedConcurrently() {
         // Given
         List<String> tagNames = Arrays.asList("tag1", "tag2");
 
-        Tag existingTag = new Tag();
-        existingTag.setId(UUID.randomUUID());
-        existingTag.setName("tag1");
+        Tag tag1 = new Tag();
+        tag1.setId(UUID.randomUUID());
+        tag1.setName("tag1");
 
-        // Создаем изменяемый список с одним элементом
-        when(tagRepository.findByNames(tagNames)).thenReturn(new ArrayList<>(Collections.singletonList(existingTag)));
-        when(tagRepository.saveAll(anyList())).thenAnswer(invocation -> {
-            List<Tag> newTags = invocation.getArgument(0);
-            newTags.forEach(tag -> tag.setId(UUID.randomUUID()));
-            return newTags;
-        });
+        Tag concurrentTag = new Tag();
+        concurrentTag.setId(UUID.randomUUID());
+        concurrentTag.setName("tag2");
+
+        // tag2 вставлен параллельной транзакцией: конфликт пропущен, но строка не попала в снимок
+        when(tagRepository.upsertByNames(tagNames)).thenReturn(Collections.singletonList(tag1));
+        when(tagRepository.findByNames(List.of("tag2"))).thenReturn(Collections.singletonList(concurrentTag));
 
         // When
         List<Tag> result = tagService.createOrGetTags(tagNames);
 
         // Then
-        assertEquals(2, result.size());
-        assertTrue(result.stream().anyMatch(tag -> "tag1".equals(tag.getName())));
-        assertTrue(result.stream().anyMatch(tag -> "tag2".equals(tag.getName())));
-        verify(tagRepository, times(1)).findByNames(tagNames);
-        verify(tagRepository, times(1)).saveAll(anyList());
+        assertEquals(Arrays.asList(tag1, concurrentTag), result);
+        verify(tagRepository, times(1)).findByNames(List.of("tag2"));
     }
 
     @Test
@@ -195,12 +208,16 @@ public class TagServiceTest {
         List<String> inputNames = Arrays.asList("  tag1  ", "tag1", "tag2  ", "  tag2");
         List<String> expectedNames = Arrays.asList("tag1", "tag2");
 
-        // Используем изменяемый список вместо Arrays.asList()
-        when(tagRepository.findByNames(expectedNames)).thenReturn(new ArrayList<>());
-        when(tagRepository.saveAll(anyList())).thenAnswer(invocation -> {
-            List<Tag> newTags = invocation.getArgument(0);
-            newTags.forEach(tag -> tag.setId(UUID.randomUUID()));
-            return newTags;
+        when(tagRepository.upsertByNames(expectedNames)).thenAnswer(invocation -> {
+            List<String> names = invocation.getArgument(0);
+            List<Tag> tags = new ArrayList<>();
+            names.forEach(name -> {
+                Tag tag = new Tag();
+                tag.setId(UUID.randomUUID());
+                tag.setName(name);
+                tags.add(tag);
+            });
+            return tags;
         });
 
         // When
@@ -208,7 +225,130 @@ public class TagServiceTest {
 
         // Then
         assertEquals(2, result.size());
-        verify(tagRepository, times(1)).findByNames(expectedNames);
+        verify(tagRepository, times(1)).upsertByNames(expectedNames);
+    }
+
+    // -----------------------
+    // tag cache tests
+    // -----------------------
+    @Test
+    public void createOrGetTags_servesCachedTagsWithoutDatabase() {
+        // Given
+        Tag cachedTag = new Tag();
+        cachedTag.setId(testId);
+        cachedTag.setName("tag1");
+        tagNameCache.put(cachedTag);
+
+        // When
+        List<Tag> result = tagService.createOrGetTags(List.of("tag1"));
+
+        // Then
+        assertEquals(List.of(cachedTag), result);
+        verify(tagRepository, never()).upsertByNames(anyList());
+        verify(tagRepository, never()).findByNames(anyList());
+    }
+
+    @Test
+    public void createOrGetTags_queriesDatabaseOnlyForCacheMisses() {
+        // Given
+        Tag cachedTag = new Tag();
+        cachedTag.setId(UUID.randomUUID());
+        cachedTag.setName("tag1");
+        tagNameCache.put(cachedTag);
+
+        Tag newTag = new Tag();
+        newTag.setId(UUID.randomUUID());
+        newTag.setName("tag2");
+        when(tagRepository.upsertByNames(List.of("tag2"))).thenReturn(List.of(newTag));
+
+        // When
+        List<Tag> result = tagService.createOrGetTags(Arrays.asList("tag1", "tag2"));
+
+        // Then
+        assertEquals(Arrays.asList(cachedTag, newTag), result);
+        verify(tagRepository, times(1)).upsertByNames(List.of("tag2"));
+        assertTrue(tagNameCache.get("tag2").isPresent());
+    }
+
+    @Test
+    public void createOrGetTags_doesNotCacheMissingNames() {
+        // Given - тег не вернулся ни из upsert, ни из повторного чтения
+        when(tagRepository.upsertByNames(List.of("ghost"))).thenReturn(Collections.emptyList());
+        when(tagRepository.findByNames(List.of("ghost"))).thenReturn(Collections.emptyList());
+
+        // When
+        List<Tag> result = tagService.createOrGetTags(List.of("ghost"));
+
+        // Then
+        assertTrue(result.isEmpty());
+        assertTrue(tagNameCache.get("ghost").isEmpty());
+        assertEquals(0, tagNameCache.size());
+    }
+
+    @Test
+    public void createOrGetTags_cachesTagsOnlyAfterCommit() {
+        // Given
+        Tag newTag = new Tag();
+        newTag.setId(testId);
+        newTag.setName("tag1");
+        when(tagRepository.upsertByNames(List.of("tag1"))).thenReturn(List.of(newTag));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            tagService.createOrGetTags(List.of("tag1"));
+
+            // Then - до коммита тег в кэш не попадает
+            assertTrue(tagNameCache.get("tag1").isEmpty());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(newTag, tagNameCache.get("tag1").orElseThrow());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void createIfNotExists_rolledBack_doesNotCacheTag() {
+        // Given
+        when(tagRepository.findByName(tagName)).thenReturn(Optional.empty());
+        when(tagRepository.save(any(Tag.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When - транзакция откатывается, afterCommit не вызывается
+            tagService.createIfNotExists(tagName);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertTrue(tagNameCache.get(tagName).isEmpty());
+    }
+
+    @Test
+    public void warmUp_loadsFirstTagsIntoCache() {
+        // Given
+        Tag tag = new Tag();
+        tag.setId(testId);
+        tag.setName(tagName);
+        when(tagRepository.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(tag)));
+
+        // When
+        tagNameCache.warmUp();
+
+        // Then
+        assertEquals(1, tagNameCache.size());
+        assertEquals(tag, tagNameCache.get(tagName).orElseThrow());
+    }
+
+    @Test
+    public void warmUp_ignoresRepositoryFailure() {
+        // Given
+        when(tagRepository.findAll(any(PageRequest.class))).thenThrow(new RuntimeException("DB down"));
+
+        // When & Then
+        assertDoesNotThrow(() -> tagNameCache.warmUp());
+        assertEquals(0, tagNameCache.size());
     }
 
     // -----------------------
@@ -235,7 +375,7 @@ public class TagServiceTest {
         when(applicationServiceClient.getApplicationsByTag("tag2")).thenReturn(Collections.emptyList());
 
         // When
-        Page<TagDto> result = tagService.listAll(0, 10);
+        Page<TagDto> result = tagService.listAll(0, 10, true);
 
         // Then
         assertEquals(2, result.getNumberOfElements());
@@ -264,7 +404,7 @@ public class TagServiceTest {
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
-                () -> tagService.getTagByName(nonExistentTag));
+                () -> tagService.getTagByName(nonExistentTag, true));
 
         assertEquals("Tag not found: " + nonExistentTag, exception.getMessage());
         verify(tagRepository, times(1)).findByName(nonExistentTag);
@@ -289,7 +429,7 @@ public class TagServiceTest {
                 .thenReturn(Arrays.asList(appInfo1, appInfo2));
 
         // When
-        TagDto result = tagService.getTagByName(tagName);
+        TagDto result = tagService.getTagByName(tagName, true);
 
         // Then
         assertNotNull(result);
@@ -315,7 +455,7 @@ public class TagServiceTest {
                 .thenReturn(Collections.emptyList());
 
         // When
-        TagDto result = tagService.getTagByName(tagName);
+        TagDto result = tagService.getTagByName(tagName, true);
 
         // Then
         assertNotNull(result);
@@ -325,6 +465,40 @@ public class TagServiceTest {
         assertTrue(result.getApplications().isEmpty());
     }
 
+    @Test
+    public void getTagByName_withoutExpand_skipsApplicationService() {
+        // Given
+        Tag tag = new Tag();
+        tag.setId(testId);
+        tag.setName(tagName);
+        when(tagRepository.findByName(tagName)).thenReturn(Optional.of(tag));
+
+        // When
+        TagDto result = tagService.getTagByName(tagName, false);
+
+        // Then
+        assertEquals(testId, result.getId());
+        assertNull(result.getApplications());
+        verifyNoInteractions(applicationServiceClient);
+    }
+
+    @Test
+    public void listAll_withoutExpand_skipsApplicationService() {
+        // Given
+        Tag tag = new Tag();
+        tag.setId(testId);
+        tag.setName(tagName);
+        when(tagRepository.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(List.of(tag)));
+
+        // When
+        Page<TagDto> result = tagService.listAll(0, 10, false);
+
+        // Then
+        assertEquals(1, result.getNumberOfElements());
+        assertNull(result.getContent().get(0).getApplications());
+        verifyNoInteractions(applicationServiceClient);
+    }
+
     // -----------------------
     // toDto private method tests (indirectly tested)
     // -----------------------
@@ -341,7 +515,7 @@ public class TagServiceTest {
                 .thenReturn(Collections.emptyList());
 
         // When
-        Page<TagDto> resultPage = tagService.listAll(0, 10);
+        Page<TagDto> resultPage = tagService.listAll(0, 10, true);
         TagDto result = resultPage.getContent().get(0);
 
         // Then
@@ -368,7 +542,7 @@ public class TagServiceTest {
                 .thenReturn(Collections.singletonList(appInfo));
 
         // When
-        Page<TagDto> resultPage = tagService.listAll(0, 10);
+        Page<TagDto> resultPage = tagService.listAll(0, 10, true);
         TagDto result = resultPage.getContent().get(0);
 
         // Then
@@ -1,5 +1,6 @@
 package com.example.userservice.controller;
 
+import com.example.common.web.ETags;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.exception.ForbiddenException;
@@ -10,12 +11,16 @@ import com.example.userservice.model.enums.UserRole;
 import com.example.userservice.service.UserService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Tag(name = "Users", description = "API for managing users")
@@ -25,6 +30,8 @@ public class UserController {
 
     private final UserService userService;
     private static final int MAX_PAGE_SIZE = 50;
+    // персональные данные: только в кэше клиента и с перепроверкой по ETag на каждый запрос
+    private static final CacheControl USER_CACHE = CacheControl.noCache().cachePrivate();
 
     public UserController(UserService userService) {
         this.userService = userService;
@@ -48,8 +55,17 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public Mono<UserDto> getUserById(@PathVariable UUID id) {
-        return userService.findById(id);
+    public Mono<ResponseEntity<UserDto>> getUserById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return userService.findById(id).map(user -> {
+            String etag = ETags.fromVersion(user.getVersion());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(USER_CACHE).<UserDto>build();
+            }
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(USER_CACHE);
+            return etag != null ? ok.eTag(etag).body(user) : ok.body(user);
+        });
     }
 
     @PutMapping("/{id}")
@@ -97,4 +113,14 @@ public class UserController {
                 .map(user -> ResponseEntity.ok(user.getRole()))
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
+
+    @PostMapping("/exists:batch")
+    public Mono<Map<UUID, Boolean>> usersExist(@RequestBody List<UUID> ids) {
+        return userService.existsByIds(ids);
+    }
+
+    @PostMapping("/roles:batch")
+    public Mono<Map<UUID, UserRole>> getUserRoles(@RequestBody List<UUID> ids) {
+        return userService.rolesByIds(ids);
+    }
 }
\ No newline at end of file
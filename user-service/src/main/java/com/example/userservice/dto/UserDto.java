@@ -1,6 +1,7 @@
 package com.example.userservice.dto;
 
 import com.example.userservice.model.enums.UserRole;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Size;
 
@@ -20,6 +21,10 @@ public class UserDto {
     private UserRole role;
     private Instant createdAt;
 
+    // версия сущности для ETag, в тело ответа не попадает
+    @JsonIgnore
+    private Long version;
+
     // Конструктор по умолчанию
     public UserDto() {}
 
@@ -38,4 +43,7 @@ public class UserDto {
 
     public Instant getCreatedAt() { return createdAt; }
     public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
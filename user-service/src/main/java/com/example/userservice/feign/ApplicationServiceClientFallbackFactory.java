@@ -1,5 +1,6 @@
 package com.example.userservice.feign;
 
+import com.example.common.feign.FeignFallbacks;
 import com.example.userservice.exception.ServiceUnavailableException;
 import org.springframework.cloud.openfeign.FallbackFactory;
 import org.springframework.stereotype.Component;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Component;
 public class ApplicationServiceClientFallbackFactory implements FallbackFactory<ApplicationServiceClient> {
     @Override
     public ApplicationServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
         return new ApplicationServiceClient() {
             @Override
             public Void deleteApplicationsByUserId(String userId) {
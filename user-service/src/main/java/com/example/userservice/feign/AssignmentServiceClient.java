@@ -0,0 +1,16 @@
+package com.example.userservice.feign;
+
+import com.example.common.event.EntityDeletedEvent;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@FeignClient(
+        name = "assignment-service",
+        fallbackFactory = AssignmentServiceClientFallbackFactory.class
+)
+public interface AssignmentServiceClient {
+
+    @PostMapping("/api/v1/assignments/internal/events")
+    Void publishEntityDeleted(@RequestBody EntityDeletedEvent event);
+}
@@ -0,0 +1,28 @@
+package com.example.userservice.feign;
+
+import com.example.common.event.EntityDeletedEvent;
+import com.example.common.feign.FeignFallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AssignmentServiceClientFallbackFactory implements FallbackFactory<AssignmentServiceClient> {
+
+    private static final Logger log = LoggerFactory.getLogger(AssignmentServiceClientFallbackFactory.class);
+
+    @Override
+    public AssignmentServiceClient create(Throwable cause) {
+        FeignFallbacks.rethrowClientError(cause);
+        return new AssignmentServiceClient() {
+            @Override
+            public Void publishEntityDeleted(EntityDeletedEvent event) {
+                // Потерянное событие подберёт периодическая зачистка сирот в assignment-service
+                log.warn("Failed to publish {} deletion event for {}: {}",
+                        event.getEntityType(), event.getEntityId(), cause.getMessage());
+                return null;
+            }
+        };
+    }
+}
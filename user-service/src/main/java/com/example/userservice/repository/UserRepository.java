@@ -1,8 +1,10 @@
 package com.example.userservice.repository;
 
 import com.example.userservice.model.entity.User;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -13,4 +15,8 @@ public interface UserRepository extends R2dbcRepository<User, UUID> {
     Mono<Boolean> existsByEmail(String email);
     Mono<User> findByUsername(String username);
     Mono<User> findByEmail(String email);
+
+    // Пакетный поиск одним запросом для internal batch-эндпоинтов
+    @Query("SELECT * FROM app_user WHERE id = ANY(:ids)")
+    Flux<User> findAllByIdIn(UUID[] ids);
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.example.userservice.service;
 
+import com.example.common.event.EntityDeletedEvent;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.exception.*;
 import com.example.userservice.feign.ApplicationServiceClient;
+import com.example.userservice.feign.AssignmentServiceClient;
 import com.example.userservice.model.entity.User;
 import com.example.userservice.model.enums.UserRole;
 import com.example.userservice.repository.UserRepository;
@@ -11,26 +13,39 @@ import com.password4j.Password;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
+    private static final int MAX_BATCH_SIZE = 1000;
 
     private final UserRepository userRepository;
     private final ApplicationServiceClient applicationServiceClient;
+    private final AssignmentServiceClient assignmentServiceClient;
 
     public UserService(UserRepository userRepository,
-                       ApplicationServiceClient applicationServiceClient) {
+                       ApplicationServiceClient applicationServiceClient,
+                       AssignmentServiceClient assignmentServiceClient) {
         this.userRepository = userRepository;
         this.applicationServiceClient = applicationServiceClient;
+        this.assignmentServiceClient = assignmentServiceClient;
     }
 
     @Transactional
@@ -122,10 +137,39 @@ public class UserService {
                     ).subscribeOn(Schedulers.boundedElastic())
                     .doOnError(e -> log.error("Failed to delete applications for user {}: {}", userId, e.getMessage()))
                     .then(userRepository.delete(user))
+                    .then(publishUserDeletedAfterCommit(userId))
                     .doOnSuccess(v -> log.info("User deleted successfully: {}", userId));
                 });
     }
 
+    // Событие уходит только после коммита, чтобы откат удаления не снёс назначения живого пользователя
+    private Mono<Void> publishUserDeletedAfterCommit(UUID userId) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .flatMap(tsm -> {
+                    tsm.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public Mono<Void> afterCommit() {
+                            return publishUserDeleted(userId);
+                        }
+                    });
+                    return Mono.just(true);
+                })
+                .switchIfEmpty(Mono.defer(() -> publishUserDeleted(userId).thenReturn(true)))
+                .onErrorResume(NoTransactionException.class, e -> publishUserDeleted(userId).thenReturn(true))
+                .then();
+    }
+
+    private Mono<Void> publishUserDeleted(UUID userId) {
+        return Mono.fromCallable(() -> assignmentServiceClient.publishEntityDeleted(EntityDeletedEvent.user(userId)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to publish deletion event for user {}: {}", userId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
     @Transactional
     public Mono<Void> promoteToManager(UUID userId, UUID actorId) {
         return validateAdmin(actorId)
@@ -156,6 +200,50 @@ public class UserService {
                 }).doOnSuccess(v -> log.info("User {} demoted to CLIENT", userId));
     }
 
+    // Internal endpoints для других сервисов: пакетная проверка существования и ролей
+    public Mono<Map<UUID, Boolean>> existsByIds(List<UUID> ids) {
+        Set<UUID> uniqueIds = validateBatchIds(ids);
+        return findAllByIds(uniqueIds)
+                .map(User::getId)
+                .collect(Collectors.toSet())
+                .map(found -> {
+                    Map<UUID, Boolean> result = new LinkedHashMap<>();
+                    uniqueIds.forEach(id -> result.put(id, found.contains(id)));
+                    return result;
+                });
+    }
+
+    // Отсутствующие пользователи в ответ не попадают
+    public Mono<Map<UUID, UserRole>> rolesByIds(List<UUID> ids) {
+        Set<UUID> uniqueIds = validateBatchIds(ids);
+        return findAllByIds(uniqueIds)
+                .collectMap(User::getId, User::getRole, LinkedHashMap::new);
+    }
+
+    private Flux<User> findAllByIds(Set<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return userRepository.findAllByIdIn(ids.toArray(new UUID[0]));
+    }
+
+    private Set<UUID> validateBatchIds(List<UUID> ids) {
+        if (ids == null) {
+            throw new BadRequestException("List of user IDs is required");
+        }
+        Set<UUID> uniqueIds = new LinkedHashSet<>();
+        for (UUID id : ids) {
+            if (id == null) {
+                throw new BadRequestException("User ID must not be null");
+            }
+            uniqueIds.add(id);
+        }
+        if (uniqueIds.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch size cannot exceed " + MAX_BATCH_SIZE);
+        }
+        return uniqueIds;
+    }
+
     public Mono<Long> count() {
         return userRepository.count();
     }
@@ -182,6 +270,7 @@ public class UserService {
         dto.setEmail(user.getEmail());
         dto.setRole(user.getRole());
         dto.setCreatedAt(user.getCreatedAt());
+        dto.setVersion(user.getVersion());
         return dto;
     }
 }
\ No newline at end of file
@@ -16,8 +16,11 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -145,8 +148,45 @@ class UserControllerTest {
         when(userService.findById(userId))
                 .thenReturn(Mono.just(dto));
 
-        StepVerifier.create(userController.getUserById(userId))
-                .expectNext(dto)
+        StepVerifier.create(userController.getUserById(userId, null))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals(dto, response.getBody());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void getUserById_matchingIfNoneMatch_returnsNotModified() {
+        UUID userId = UUID.randomUUID();
+        UserDto dto = createSampleUserDto();
+        dto.setVersion(1L);
+
+        when(userService.findById(userId)).thenReturn(Mono.just(dto));
+
+        StepVerifier.create(userController.getUserById(userId, "W/\"v1\""))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+                    assertEquals("\"v1\"", response.getHeaders().getETag());
+                    assertNull(response.getBody());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    public void getUserById_versionChanged_returnsBodyWithNewEtag() {
+        UUID userId = UUID.randomUUID();
+        UserDto dto = createSampleUserDto();
+        dto.setVersion(2L);
+
+        when(userService.findById(userId)).thenReturn(Mono.just(dto));
+
+        StepVerifier.create(userController.getUserById(userId, "\"v1\""))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertEquals("\"v2\"", response.getHeaders().getETag());
+                    assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+                })
                 .verifyComplete();
     }
 
@@ -157,7 +197,7 @@ class UserControllerTest {
         when(userService.findById(userId))
                 .thenReturn(Mono.error(new NotFoundException("User not found")));
 
-        StepVerifier.create(userController.getUserById(userId))
+        StepVerifier.create(userController.getUserById(userId, null))
                 .expectError(NotFoundException.class)
                 .verify();
     }
@@ -408,4 +448,33 @@ class UserControllerTest {
                         response.getStatusCode() == HttpStatus.NOT_FOUND)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    // -----------------------
+    // batch lookup tests
+    // -----------------------
+    @Test
+    public void usersExist_delegatesToService() {
+        UUID userId = UUID.randomUUID();
+        List<UUID> ids = List.of(userId);
+
+        when(userService.existsByIds(ids))
+                .thenReturn(Mono.just(Map.of(userId, true)));
+
+        StepVerifier.create(userController.usersExist(ids))
+                .expectNext(Map.of(userId, true))
+                .verifyComplete();
+    }
+
+    @Test
+    public void getUserRoles_delegatesToService() {
+        UUID userId = UUID.randomUUID();
+        List<UUID> ids = List.of(userId);
+
+        when(userService.rolesByIds(ids))
+                .thenReturn(Mono.just(Map.of(userId, UserRole.ROLE_MANAGER)));
+
+        StepVerifier.create(userController.getUserRoles(ids))
+                .expectNext(Map.of(userId, UserRole.ROLE_MANAGER))
+                .verifyComplete();
+    }
+}
@@ -81,6 +81,9 @@ public class UserIntegrationTest {
     @MockitoBean
     private com.example.userservice.feign.ApplicationServiceClient applicationServiceClient;
 
+    @MockitoBean
+    private com.example.userservice.feign.AssignmentServiceClient assignmentServiceClient;
+
     private UUID adminId;
     private UUID clientId;
     private UUID managerId;
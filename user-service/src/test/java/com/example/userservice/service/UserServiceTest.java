@@ -1,9 +1,11 @@
 package com.example.userservice.service;
 
+import com.example.common.event.DeletedEntityType;
 import com.example.userservice.dto.UserDto;
 import com.example.userservice.dto.UserRequest;
 import com.example.userservice.exception.*;
 import com.example.userservice.feign.ApplicationServiceClient;
+import com.example.userservice.feign.AssignmentServiceClient;
 import com.example.userservice.model.entity.User;
 import com.example.userservice.model.enums.UserRole;
 import com.example.userservice.repository.UserRepository;
@@ -40,6 +42,9 @@ class UserServiceTest {
     @Mock
     private ApplicationServiceClient applicationServiceClient;
 
+    @Mock
+    private AssignmentServiceClient assignmentServiceClient;
+
     @InjectMocks
     private UserService userService;
 
@@ -48,7 +53,7 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository, applicationServiceClient);
+        userService = new UserService(userRepository, applicationServiceClient, assignmentServiceClient);
     }
 
     // -----------------------
@@ -390,6 +395,29 @@ class UserServiceTest {
 
         verify(applicationServiceClient).deleteApplicationsByUserId(testUserId.toString());
         verify(userRepository).delete(userToDelete);
+        verify(assignmentServiceClient).publishEntityDeleted(argThat(event ->
+                event.getEntityType() == DeletedEntityType.USER && testUserId.equals(event.getEntityId())));
+    }
+
+    @Test
+    void delete_AssignmentEventFails_StillCompletes() {
+        User admin = new User();
+        admin.setId(actorAdminId);
+        admin.setRole(UserRole.ROLE_ADMIN);
+
+        User userToDelete = new User();
+        userToDelete.setId(testUserId);
+
+        when(userRepository.findById(actorAdminId)).thenReturn(Mono.just(admin));
+        when(userRepository.findById(testUserId)).thenReturn(Mono.just(userToDelete));
+        when(userRepository.delete(userToDelete)).thenReturn(Mono.empty());
+        when(assignmentServiceClient.publishEntityDeleted(any()))
+                .thenThrow(new RuntimeException("Service unavailable"));
+
+        StepVerifier.create(userService.delete(testUserId, actorAdminId))
+                .verifyComplete();
+
+        verify(userRepository).delete(userToDelete);
     }
 
     @Test
@@ -595,4 +623,65 @@ class UserServiceTest {
                 )
                 .verify();
     }
-}
\ No newline at end of file
+
+    // -----------------------
+    // batch lookup tests
+    // -----------------------
+    @Test
+    void existsByIds_ReturnsFlagForEveryRequestedId() {
+        // Arrange
+        UUID missingId = UUID.randomUUID();
+        User user = new User();
+        user.setId(testUserId);
+        user.setRole(UserRole.ROLE_CLIENT);
+        when(userRepository.findAllByIdIn(any(UUID[].class))).thenReturn(Flux.just(user));
+
+        // Act & Assert
+        StepVerifier.create(userService.existsByIds(List.of(testUserId, missingId, testUserId)))
+                .assertNext(result -> {
+                    assertEquals(2, result.size());
+                    assertTrue(result.get(testUserId));
+                    assertFalse(result.get(missingId));
+                })
+                .verifyComplete();
+        verify(userRepository, times(1)).findAllByIdIn(argThat((UUID[] ids) -> ids.length == 2));
+    }
+
+    @Test
+    void rolesByIds_OmitsMissingUsers() {
+        // Arrange
+        UUID missingId = UUID.randomUUID();
+        User admin = new User();
+        admin.setId(actorAdminId);
+        admin.setRole(UserRole.ROLE_ADMIN);
+        when(userRepository.findAllByIdIn(any(UUID[].class))).thenReturn(Flux.just(admin));
+
+        // Act & Assert
+        StepVerifier.create(userService.rolesByIds(List.of(actorAdminId, missingId)))
+                .assertNext(result -> {
+                    assertEquals(1, result.size());
+                    assertEquals(UserRole.ROLE_ADMIN, result.get(actorAdminId));
+                    assertFalse(result.containsKey(missingId));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void rolesByIds_EmptyList_SkipsQuery() {
+        StepVerifier.create(userService.rolesByIds(List.of()))
+                .assertNext(result -> assertTrue(result.isEmpty()))
+                .verifyComplete();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void existsByIds_TooManyIds_ThrowsBadRequest() {
+        List<UUID> ids = new java.util.ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        assertThrows(BadRequestException.class, () -> userService.existsByIds(ids));
+        verifyNoInteractions(userRepository);
+    }
+}